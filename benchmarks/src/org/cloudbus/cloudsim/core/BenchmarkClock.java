@@ -0,0 +1,33 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+/**
+ * Moves the clock of the simulation context of the calling thread without running the kernel, for
+ * the benchmarks of components that read {@link CloudSim#clock()}, such as the cloudlet schedulers.
+ * It must not be used while a simulation runs.
+ */
+public final class BenchmarkClock {
+
+	private BenchmarkClock() {
+	}
+
+	/**
+	 * Advances the clock.
+	 * 
+	 * @param delay the time to add to the clock
+	 * @return the new clock
+	 */
+	public static double advance(double delay) {
+		SimulationContext c = CloudSim.getContext();
+		c.clock += delay;
+		return c.clock;
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link CloudSim#cancelAll(int, Predicate)}, as entities do to cancel their pending
+ * timers: the future queue holds events sent by a number of entities with {@value #TAGS} tags, and
+ * each operation cancels the events of one entity and tag, then sends as many again to keep the
+ * size of the queue. {@link #cancelByType()} uses a {@link PredicateType}, which is looked up in
+ * the index of the queue; {@link #cancelByScan()} uses an equivalent predicate of another class,
+ * which is matched against every event, as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CancelAllBenchmark {
+
+	/** The number of tags. */
+	static final int TAGS = 8;
+
+	@Param({ "16", "256" })
+	public int entities;
+
+	@Param({ "1000", "100000" })
+	public int size;
+
+	private SimulationContext context;
+
+	private PredicateType[] types;
+
+	private Predicate[] scans;
+
+	private double[] delays;
+
+	private int next;
+
+	private int target;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Log.setDisabled(true);
+		context = new SimulationContext();
+		CloudSim.setContext(context);
+		CloudSim.init(1, Calendar.getInstance(), false);
+		types = new PredicateType[TAGS];
+		scans = new Predicate[TAGS];
+		for (int tag = 0; tag < TAGS; tag++) {
+			final int t = tag + 1;
+			types[tag] = new PredicateType(t);
+			scans[tag] = new Predicate() {
+
+				@Override
+				public boolean match(SimEvent event) {
+					return event.getTag() == t;
+				}
+			};
+		}
+		delays = TimestampDistribution.EXPONENTIAL.delays(1 << 16, 42);
+		for (int i = 0; i < size; i++) {
+			send(i % entities, i / entities % TAGS);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		CloudSim.setContext(null);
+	}
+
+	@Benchmark
+	public boolean cancelByType() {
+		return cancel(types);
+	}
+
+	@Benchmark
+	public boolean cancelByScan() {
+		return cancel(scans);
+	}
+
+	/**
+	 * Cancels the events of the next entity and tag, and sends them again.
+	 */
+	private boolean cancel(Predicate[] predicates) {
+		int src = target % entities;
+		int tag = target / entities % TAGS;
+		target++;
+		int before = context.future.size();
+		boolean cancelled = CloudSim.cancelAll(src, predicates[tag]);
+		for (int i = context.future.size(); i < before; i++) {
+			send(src, tag);
+		}
+		return cancelled;
+	}
+
+	private void send(int src, int tag) {
+		CloudSim.send(src, src, delays[next++ & ((1 << 16) - 1)], tag + 1, null);
+	}
+
+}
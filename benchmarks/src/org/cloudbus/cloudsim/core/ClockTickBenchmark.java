@@ -0,0 +1,141 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Log;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the whole kernel loop: pairs of entities send an event back and forth, each answer
+ * delayed according to a distribution, and {@link CloudSim#runClockTick()} is called until a
+ * thousand events have been handled. The score is the time per event, which includes the future
+ * queue, the dispatch to the entities and the recycling of the events; with
+ * {@link TimestampDistribution#CLUSTERED} delays, many entities are woken up in the same tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClockTickBenchmark {
+
+	/** The number of events handled per invocation. */
+	private static final int EVENTS = 1000;
+
+	/** The tag of the events. */
+	private static final int PING = 1;
+
+	@Param({ "2", "128", "2048" })
+	public int entities;
+
+	@Param({ "EXPONENTIAL", "CLUSTERED" })
+	public TimestampDistribution distribution;
+
+	/** The number of events handled by the entities. */
+	private final long[] handled = new long[1];
+
+	private long target;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Log.setDisabled(true);
+		CloudSim.setContext(new SimulationContext());
+		CloudSim.init(1, Calendar.getInstance(), false);
+		double[] delays = distribution.delays(1 << 12, 42);
+		for (int i = 0; i < entities; i += 2) {
+			PingPongEntity ping = new PingPongEntity("ping" + i, delays, i, handled);
+			PingPongEntity pong = new PingPongEntity("pong" + i, delays, i + 1, handled);
+			ping.peer = pong.getId();
+		}
+		CloudSim.runStart();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		CloudSim.setContext(null);
+	}
+
+	/**
+	 * Runs clock ticks until a thousand more events have been handled.
+	 * 
+	 * @return the clock, so that the work is not eliminated
+	 */
+	@Benchmark
+	@OperationsPerInvocation(EVENTS)
+	public double runClockTicks() {
+		target += EVENTS;
+		while (handled[0] < target) {
+			CloudSim.runClockTick();
+		}
+		return CloudSim.clock();
+	}
+
+	/**
+	 * An entity answering every event it receives, after a delay. The entity with a peer sends the
+	 * first event when it starts.
+	 */
+	static class PingPongEntity extends SimEntity {
+
+		private final double[] delays;
+
+		private final long[] handled;
+
+		private int next;
+
+		private int peer = -1;
+
+		PingPongEntity(String name, double[] delays, int offset, long[] handled) {
+			super(name);
+			this.delays = delays;
+			this.handled = handled;
+			// the entities do not draw the same delays at the same time
+			next = offset * 31;
+		}
+
+		@Override
+		public void startEntity() {
+			if (peer >= 0) {
+				send(peer, delay(), PING);
+			}
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			handled[0]++;
+			send(ev.getSource(), delay(), PING);
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+
+		private double delay() {
+			return delays[next++ & (delays.length - 1)];
+		}
+
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the deferred queue at a steady size: each operation defers an event to a random entity
+ * and takes the first event deferred to the next entity in turn, as entities busy with other work
+ * accumulate events and later consume them. The events are deferred in time order, a tick at a
+ * time, like the kernel does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeferredQueueBenchmark {
+
+	/** The number of random destinations drawn; a power of two. */
+	private static final int DESTINATIONS = 1 << 16;
+
+	@Param({ "16", "1024" })
+	public int entities;
+
+	@Param({ "1000", "100000" })
+	public int size;
+
+	private DeferredQueue queue;
+
+	private int[] destinations;
+
+	private int next;
+
+	private int consumer;
+
+	private double clock;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		destinations = new int[DESTINATIONS];
+		for (int i = 0; i < DESTINATIONS; i++) {
+			destinations[i] = random.nextInt(entities);
+		}
+		queue = new DeferredQueue();
+		for (int i = 0; i < size; i++) {
+			defer(new SimEvent());
+		}
+	}
+
+	/**
+	 * Defers an event and takes one.
+	 * 
+	 * @return the event taken, so that the work is not eliminated
+	 */
+	@Benchmark
+	public SimEvent deferAndTake() {
+		SimEvent e = null;
+		// the deferred events are not spread evenly: skip the entities that have none
+		for (int i = 0; i < entities && e == null; i++) {
+			e = queue.poll(consumer);
+			consumer = consumer + 1 == entities ? 0 : consumer + 1;
+		}
+		defer(e == null ? new SimEvent() : e);
+		return e;
+	}
+
+	private void defer(SimEvent e) {
+		int dest = destinations[next++ & (DESTINATIONS - 1)];
+		if (next % entities == 0) {
+			clock += 0.001;
+		}
+		e.init(SimEvent.SEND, clock, 0, dest, 1, null);
+		queue.addEvent(e);
+	}
+
+}
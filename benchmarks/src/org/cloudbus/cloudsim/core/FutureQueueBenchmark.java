@@ -0,0 +1,103 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the future event queues with the hold model: the queue is kept at a given size, and
+ * each operation polls the first event and inserts it again, later by a delay drawn from a
+ * distribution. This is the access pattern of the kernel in steady state; the events are reused,
+ * so that only the queue is measured.
+ *
+ * @see FutureQueueFillBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FutureQueueBenchmark {
+
+	/** The number of delays drawn; a power of two. */
+	private static final int DELAYS = 1 << 16;
+
+	@Param({ "FutureQueue", "CalendarQueue", "IndexedEventQueue" })
+	public String queueType;
+
+	@Param({ "1000", "100000" })
+	public int size;
+
+	@Param({ "UNIFORM", "EXPONENTIAL", "CLUSTERED", "BIMODAL" })
+	public TimestampDistribution distribution;
+
+	private EventQueue queue;
+
+	private double[] delays;
+
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		queue = newQueue(queueType);
+		delays = distribution.delays(DELAYS, 42);
+		for (int i = 0; i < size; i++) {
+			queue.addEvent(new SimEvent(SimEvent.SEND, delays[i & (DELAYS - 1)], i % 64, i % 64, i % 16, null));
+		}
+		next = size;
+	}
+
+	/**
+	 * Polls the first event and inserts it again.
+	 * 
+	 * @return the event, so that the work is not eliminated
+	 */
+	@Benchmark
+	public SimEvent hold() {
+		SimEvent e = queue.poll();
+		e.init(SimEvent.SEND, e.eventTime() + delays[next++ & (DELAYS - 1)], e.getSource(), e.getDestination(),
+				e.getTag(), null);
+		queue.addEvent(e);
+		return e;
+	}
+
+	/**
+	 * Creates a queue.
+	 * 
+	 * @param type the simple name of the queue class
+	 * @return the queue
+	 */
+	static EventQueue newQueue(String type) {
+		switch (type) {
+			case "FutureQueue":
+				return new FutureQueue();
+			case "CalendarQueue":
+				return new CalendarQueue();
+			case "IndexedEventQueue":
+				return new IndexedEventQueue(new FutureQueue());
+			default:
+				throw new IllegalArgumentException("Unknown queue " + type);
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the future event queues when they grow and shrink: each invocation inserts a batch of
+ * events into an empty queue, as the entities do during a clock tick, and polls them all. The
+ * score is the time per event (one insertion and one poll).
+ *
+ * @see FutureQueueBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FutureQueueFillBenchmark {
+
+	/** The number of events of a batch. */
+	private static final int BATCH = 1000;
+
+	@Param({ "FutureQueue", "CalendarQueue", "IndexedEventQueue" })
+	public String queueType;
+
+	@Param({ "UNIFORM", "EXPONENTIAL", "CLUSTERED", "BIMODAL" })
+	public TimestampDistribution distribution;
+
+	private SimEvent[] events;
+
+	private double[] times;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		double[] delays = distribution.delays(BATCH, 42);
+		events = new SimEvent[BATCH];
+		times = new double[BATCH];
+		for (int i = 0; i < BATCH; i++) {
+			events[i] = new SimEvent();
+			// scheduled by entities handling events at ten different times of the tick
+			times[i] = 0.01 * (i % 10) + delays[i];
+		}
+	}
+
+	/**
+	 * Fills an empty queue and drains it.
+	 * 
+	 * @return the last event polled, so that the work is not eliminated
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public SimEvent fillAndDrain() {
+		EventQueue queue = FutureQueueBenchmark.newQueue(queueType);
+		for (int i = 0; i < BATCH; i++) {
+			SimEvent e = events[i];
+			e.init(SimEvent.SEND, times[i], i % 64, i % 64, i % 16, null);
+			queue.addEvent(e);
+		}
+		SimEvent last = null;
+		while (queue.size() > 0) {
+			last = queue.poll();
+		}
+		return last;
+	}
+
+}
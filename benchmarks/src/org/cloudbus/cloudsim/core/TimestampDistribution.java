@@ -0,0 +1,68 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Random;
+
+/**
+ * The distributions of the delays between the time an event is scheduled and the time it occurs,
+ * used by the kernel benchmarks. The delays are drawn once, from a fixed seed, so that every run of
+ * a benchmark sees the same timestamps.
+ */
+public enum TimestampDistribution {
+
+	/** Delays uniform in [0, 2). */
+	UNIFORM,
+
+	/** Exponential delays of mean 1, as in a Poisson arrival process. */
+	EXPONENTIAL,
+
+	/**
+	 * Delays that are multiples of a tick, a third of them zero: many events share a timestamp and
+	 * are ordered by their serial number, as when entities answer without delay.
+	 */
+	CLUSTERED,
+
+	/**
+	 * Mostly short delays (network hops) with a few long ones (timers and periodic updates), the
+	 * mix of the ServiceSim scenarios.
+	 */
+	BIMODAL;
+
+	/**
+	 * Draws delays.
+	 * 
+	 * @param count the number of delays
+	 * @param seed the seed
+	 * @return the delays
+	 */
+	public double[] delays(int count, long seed) {
+		Random random = new Random(seed);
+		double[] delays = new double[count];
+		for (int i = 0; i < count; i++) {
+			switch (this) {
+				case UNIFORM:
+					delays[i] = 2 * random.nextDouble();
+					break;
+				case EXPONENTIAL:
+					delays[i] = -Math.log(1 - random.nextDouble());
+					break;
+				case CLUSTERED:
+					delays[i] = random.nextInt(3) * 0.5;
+					break;
+				default:
+					delays[i] = random.nextDouble() < 0.9 ? 0.001 + 0.01 * random.nextDouble() : 10 * random
+							.nextDouble();
+					break;
+			}
+		}
+		return delays;
+	}
+
+}
@@ -0,0 +1,187 @@
+package org.infrastructureProvider.policies;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.core.BenchmarkClock;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.enduser.networkPacket.NetworkCloudlet;
+import org.enduser.networkPacket.NetworkConstants;
+import org.enduser.networkPacket.TaskStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.serviceProvider.services.MicroserviceInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the cloudlet schedulers of the microservice instances with a number of concurrent
+ * cloudlets. The cloudlets follow the stage sequences of the service chains: some compute, some
+ * wait for the answer of a downstream service, some wait for their request. The long-running
+ * cloudlets never finish, so that the number of concurrent cloudlets stays the same; the cloudlets
+ * submitted by {@link #cloudletSubmit()} are short and finish a few calls later, like requests.
+ * <p>
+ * Run with <tt>-prof gc</tt> to measure the allocation rate along with the time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetworkCloudletSchedulerBenchmark {
+
+    /** The stage sequences of the concurrent cloudlets. */
+    public enum StageMix {
+        /** Every cloudlet computes. */
+        EXECUTION,
+        /** Half compute, a quarter wait for a downstream answer, a quarter wait for their request. */
+        MIXED,
+        /** Every cloudlet waits for a packet. */
+        WAITING
+    }
+
+    /* the time between two updates */
+    private static final double TICK = 0.001;
+
+    /* a stage that does not end during a benchmark */
+    private static final double LONG_STAGE = 1e12;
+
+    private static final double MIPS = 100;
+
+    private static final int PES = 2;
+
+    @Param({"TimeShared", "WithLimit", "WithShare"})
+    public String scheduler;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int cloudlets;
+
+    @Param({"MIXED", "EXECUTION", "WAITING"})
+    public StageMix mix;
+
+    private MicroserviceInstance instance;
+
+    private NetworkCloudletScheduler cloudletScheduler;
+
+    private List<Double> mipsShare;
+
+    private int nextId;
+
+    /* the length of the submitted requests: a few ticks at the share of a cloudlet */
+    private double requestLength;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Log.setDisabled(true);
+        CloudSim.setContext(new SimulationContext());
+        cloudletScheduler = newScheduler(scheduler, cloudlets);
+        instance = new MicroserviceInstance(0, 0, MIPS, PES, 512, 1000, 250, "Xen", cloudletScheduler, 0, 0, 0, 0, 1);
+        mipsShare = new ArrayList<>(Collections.nCopies(PES, MIPS));
+        requestLength = 4 * TICK * MIPS * PES / (2 * cloudlets + 16);
+        instance.updateVmProcessing(0, mipsShare);
+
+        List<NetworkCloudlet> initial = new ArrayList<>();
+        for (int i = 0; i < cloudlets; i++) {
+            initial.add(newCloudlet(i));
+        }
+        cloudletScheduler.cloudletSubmit(initial);
+        // let the callers reach their wait for the downstream answer
+        instance.updateVmProcessing(BenchmarkClock.advance(TICK), mipsShare);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        CloudSim.setContext(null);
+    }
+
+    /**
+     * Updates the progress of the concurrent cloudlets, one tick later.
+     *
+     * @return the time to the next event of the scheduler
+     */
+    @Benchmark
+    public double updateVmProcessing() {
+        return instance.updateVmProcessing(BenchmarkClock.advance(TICK), mipsShare);
+    }
+
+    /**
+     * Submits a request cloudlet, one tick later; it computes for a few ticks and sends its answer.
+     *
+     * @return the time to the next event of the scheduler
+     */
+    @Benchmark
+    public double cloudletSubmit() {
+        BenchmarkClock.advance(TICK);
+        NetworkCloudlet cl = newCloudlet();
+        cl.stages.add(new TaskStage(NetworkConstants.EXECUTION, requestLength, 0, 0, 0));
+        cl.stages.add(new TaskStage(NetworkConstants.WAIT_SEND, 0, 1000, 1, 0));
+        double next = cloudletScheduler.cloudletSubmit(Collections.singletonList(cl));
+        // the finished cloudlets and the packets to send are collected by the device
+        cloudletScheduler.getCloudletFinishedList().clear();
+        cloudletScheduler.getPkttosend().clear();
+        return next;
+    }
+
+    private NetworkCloudlet newCloudlet(int i) {
+        NetworkCloudlet cl = newCloudlet();
+        StageMix stages = mix;
+        if (stages == StageMix.MIXED) {
+            stages = i % 2 == 0 ? StageMix.EXECUTION : StageMix.WAITING;
+        }
+        if (stages == StageMix.EXECUTION) {
+            // a leaf service: compute, answer
+            cl.stages.add(new TaskStage(NetworkConstants.EXECUTION, LONG_STAGE, 0, 0, 0));
+            cl.stages.add(new TaskStage(NetworkConstants.WAIT_SEND, 0, 1000, 1, 0));
+        } else if (i % 4 == 1) {
+            // a caller: call downstream at once, wait for the answer, compute, answer
+            cl.stages.add(new TaskStage(NetworkConstants.EXECUTION, 0, 0, 0, 0));
+            cl.stages.add(new TaskStage(NetworkConstants.WAIT_SEND, 0, 1000, 1, 0));
+            cl.stages.add(new TaskStage(NetworkConstants.WAIT_RECV, 0, 1000, 2, 0));
+            cl.stages.add(new TaskStage(NetworkConstants.EXECUTION, LONG_STAGE, 0, 3, 0));
+            cl.stages.add(new TaskStage(NetworkConstants.WAIT_SEND, 0, 1000, 4, 0));
+        } else {
+            // a callee whose request has not arrived yet
+            cl.stages.add(new TaskStage(NetworkConstants.WAIT_RECV, 0, 1000, 0, 0));
+            cl.stages.add(new TaskStage(NetworkConstants.EXECUTION, LONG_STAGE, 0, 1, 0));
+            cl.stages.add(new TaskStage(NetworkConstants.WAIT_SEND, 0, 1000, 2, 0));
+        }
+        return cl;
+    }
+
+    private NetworkCloudlet newCloudlet() {
+        NetworkCloudlet cl = new NetworkCloudlet(nextId++, 0, 0, 1, NetworkConstants.FILE_SIZE,
+                NetworkConstants.OUTPUT_SIZE, 64, new UtilizationModelFull(), new UtilizationModelFull(),
+                new UtilizationModelFull());
+        cl.setVmId(instance.getId());
+        return cl;
+    }
+
+    static NetworkCloudletScheduler newScheduler(String type, int cloudlets) {
+        switch (type) {
+            case "TimeShared":
+                return new NetworkCloudletTimeSharedScheduler();
+            case "WithLimit":
+                // a limit above the concurrent cloudlets, so that they all execute
+                return new NetworkCloudletTimeSharedSchedulerWithLimit(2 * cloudlets + 16);
+            case "WithShare":
+                return new NetworkCloudletTimeSharedSchedulerWithShare(2 * cloudlets + 16);
+            default:
+                throw new IllegalArgumentException("Unknown scheduler " + type);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package org.test;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.core.SimulationMetrics;
+import org.enduser.EndUser;
+import org.infrastructureProvider.DevicesProvider;
+import org.infrastructureProvider.DevicesProviderSimple1;
+import org.infrastructureProvider.entities.FlowNetwork;
+import org.infrastructureProvider.entities.NetworkDevice;
+import org.serviceProvider.ServiceProvider;
+import org.serviceProvider.capacities.*;
+import org.serviceProvider.services.Servicechain;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.Callable;
+
+/*
+End-to-end scalability benchmark: builds topologies of growing size in the hierarchy of
+DevicesProviderSimple1 (edge level 1 -> edge level 2 -> router -> cloud), deploys the service chains
+of TestExample1 with a number of instances proportional to the number of edge devices, and drives
+an open-loop workload whose rate is also proportional to it. For each size, one CSV row is appended
+to the report file, so that the reports of several versions can be compared:
+
+    java -Xmx16g -cp benchmarks/out:out org.test.ScalabilityBenchmark -o scalability.csv -label after 4 100 1000 10000
+
+Options: -o <file> (scalability.csv), -label <name> (the version, in the first column), -time <simulated
+seconds> (10), -budget <wall-clock seconds per size> (600, checked every simulated second; the run is
+then stopped and measured up to where it got), -fanout <children per device> (8), -rate <requests per second per edge device>
+(18.75, as TestExample1), -network <packet|flow> (packet: the packets are sent hop by hop through the
+channels; flow: with the flow-level FlowNetwork). The sizes are numbers of devices; the actual sizes are rounded to the
+hierarchy and reported. The sizes run one after the other in the same JVM; the peak heap of a size
+is measured after a full collection, but run one size per JVM if it must not depend on the others.
+* */
+public class ScalabilityBenchmark {
+
+    private static final String[] COLUMNS = {"label", "network", "requestedDevices", "devices", "edgeLevel1", "edgeLevel2",
+            "routers", "instances", "requestsPerSecond", "setupSeconds", "simulatedSeconds", "wallSeconds",
+            "wallSecondsPerSimulatedSecond", "events", "eventsPerSecond", "requestsCompleted", "meanLatency", "p99Latency", "peakHeapMB",
+            "gcCount", "gcSeconds", "status"};
+
+    private String label = "current";
+    private double simulationLimit = 10;
+    private double wallBudget = 600;
+    private int fanOut = 8;
+    private double ratePerEdge = 18.75;
+    private boolean flowNetwork = false;
+
+    public static void main(String[] args) throws Exception {
+        ScalabilityBenchmark benchmark = new ScalabilityBenchmark();
+        String report = "scalability.csv";
+        List<Integer> sizes = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("-o")) {
+                report = args[++i];
+            } else if (arg.equals("-label")) {
+                benchmark.label = args[++i];
+            } else if (arg.equals("-time")) {
+                benchmark.simulationLimit = Double.parseDouble(args[++i]);
+            } else if (arg.equals("-budget")) {
+                benchmark.wallBudget = Double.parseDouble(args[++i]);
+            } else if (arg.equals("-fanout")) {
+                benchmark.fanOut = Integer.parseInt(args[++i]);
+            } else if (arg.equals("-rate")) {
+                benchmark.ratePerEdge = Double.parseDouble(args[++i]);
+            } else if (arg.equals("-network")) {
+                benchmark.flowNetwork = args[++i].equals("flow");
+            } else {
+                sizes.add(Integer.parseInt(arg));
+            }
+        }
+        if (sizes.isEmpty()) {
+            sizes.addAll(Arrays.asList(4, 100, 300, 1000, 3000, 10000));
+        }
+
+        File file = new File(report);
+        boolean header = !file.exists() || file.length() == 0;
+        try (Writer writer = new FileWriter(file, true)) {
+            if (header) {
+                writeRow(writer, Arrays.asList((Object[]) COLUMNS));
+            }
+            for (int size : sizes) {
+                Map<String, Object> row = benchmark.run(size);
+                writeRow(writer, new ArrayList<>(row.values()));
+                writer.flush();
+                System.err.println(row);
+            }
+        }
+    }
+
+    /**
+     * Builds and runs the scenario of about the given number of devices, in a simulation context of
+     * its own, and measures it.
+     */
+    Map<String, Object> run(final int requestedDevices) throws Exception {
+        final Map<String, Object> row = new LinkedHashMap<>();
+        for (String column : COLUMNS) {
+            row.put(column, "");
+        }
+        row.put("label", label);
+        row.put("network", flowNetwork ? "flow" : "packet");
+        row.put("requestedDevices", requestedDevices);
+
+        // the shape of the hierarchy: routers, then level 2 edges per router and level 1 edges per level 2 edge
+        int routers = (int) Math.max(1, Math.round((requestedDevices - 1) / (1.0 + fanOut + fanOut * fanOut)));
+        double perRouter = (requestedDevices - 1.0 - routers) / routers;
+        int meBSPerRouter = (int) Math.max(1, Math.round(perRouter / (1.0 + fanOut)));
+        int smallBSPerMeBS = (int) Math.max(1, Math.round((perRouter - meBSPerRouter) / meBSPerRouter));
+        final int router = routers;
+        final int meBS = routers * meBSPerRouter;
+        final int smallBS = meBS * smallBSPerMeBS;
+        row.put("devices", smallBS + meBS + router + 1);
+        row.put("edgeLevel1", smallBS);
+        row.put("edgeLevel2", meBS);
+        row.put("routers", router);
+
+        final File results = Files.createTempDirectory("scalability").toFile();
+        System.gc();
+        long[] gcBefore = gcTotals();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+
+        // the simulator prints its routing tables and progress to the standard output
+        PrintStream out = System.out;
+        boolean logDisabled = Log.isDisabled();
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        Log.setDisabled(true);
+        boolean jmxEnabled = CloudSim.isJmxEnabled();
+        CloudSim.setJmxEnabled(true);
+        try {
+            new SimulationContext().call(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    long start = System.nanoTime();
+                    CloudSim.init(1, Calendar.getInstance(), false);
+                    SimulationMetrics metrics = CloudSim.getMetrics();
+                    ServiceProvider serviceProvider = createScenario(smallBS, meBS, router, results, row);
+                    long setup = System.nanoTime();
+                    row.put("setupSeconds", (setup - start) / 1e9);
+
+                    // the workload is run in slices of a simulated second to enforce the budget, then the
+                    // requests in flight are drained (the clock is lost once the simulation is finished)
+                    String status = "ok";
+                    boolean running = true;
+                    double simulated = 0;
+                    while (running && CloudSim.clock() < simulationLimit) {
+                        simulated = CloudSim.clock();
+                        if ((System.nanoTime() - setup) / 1e9 > wallBudget) {
+                            status = "budget exceeded";
+                            break;
+                        }
+                        running = CloudSim.runUntil(simulated + 1);
+                    }
+                    if (status.equals("ok") && running) {
+                        simulated = CloudSim.startSimulation();
+                    } else if (running) {
+                        CloudSim.finishSimulation();
+                    }
+                    double wall = (System.nanoTime() - setup) / 1e9;
+                    long events = metrics.getEventCount();
+                    row.put("simulatedSeconds", simulated);
+                    row.put("wallSeconds", wall);
+                    row.put("wallSecondsPerSimulatedSecond", simulated > 0 ? wall / simulated : Double.NaN);
+                    row.put("events", events);
+                    row.put("eventsPerSecond", wall > 0 ? events / wall : Double.NaN);
+                    row.put("requestsCompleted", serviceProvider.getLatencySummary().getCount());
+                    row.put("meanLatency", serviceProvider.getLatencySummary().getMean());
+                    row.put("p99Latency", serviceProvider.getLatencySummary().percentile(99));
+                    row.put("status", status);
+                    return null;
+                }
+            });
+        } catch (Throwable e) {
+            row.put("status", "failed: " + e);
+        } finally {
+            System.setOut(out);
+            Log.setDisabled(logDisabled);
+            CloudSim.setJmxEnabled(jmxEnabled);
+            for (File result : results.listFiles()) {
+                result.delete();
+            }
+            results.delete();
+        }
+
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        long[] gcAfter = gcTotals();
+        row.put("peakHeapMB", peak / (1024.0 * 1024.0));
+        row.put("gcCount", gcAfter[0] - gcBefore[0]);
+        row.put("gcSeconds", (gcAfter[1] - gcBefore[1]) / 1e3);
+        return row;
+    }
+
+    /*
+    The scenario of TestExample1 with the instances and the workload scaled to the number of level 1 edges.
+    * */
+    private ServiceProvider createScenario(int smallBS, int meBS, int router, File results, Map<String, Object> row) throws Exception {
+        String[] cloudletResultFile = new String[]{new File(results, "workloadResult.csv").getPath(),
+                new File(results, "cloudletExeDetail.csv").getPath(), new File(results, "cloudletStagesDetail.csv").getPath()};
+
+        DevicesProvider devicesProvider = new DevicesProviderSimple1(smallBS, meBS, router);
+        ArrayList<NetworkDevice> devices = (ArrayList<NetworkDevice>) devicesProvider.<NetworkDevice>getDevices();
+        if (flowNetwork) {
+            new FlowNetwork("flowNetwork", devices);
+        }
+
+        List<Servicechain> serviceChain = TestExample1.createdServicechains();
+
+        Map<Integer, LoadAdmission> initLoadAdmission = new HashMap<>();
+        Map<Integer, RequestDispatchingRule> initRequestDispatching = new HashMap<>();
+        Map<Integer, LoadBalance> initLoadBalance = new HashMap<>();
+        for (NetworkDevice device : devices) {
+            initLoadAdmission.put(device.getId(), new NonLoadAdmission());
+            initLoadBalance.put(device.getId(), new RoundRobin());
+            initRequestDispatching.put(device.getId(), new RequestDispatchingSimple(devices));
+        }
+
+        // TestExample1 deploys 10 instances per service weight on 32 edges
+        int deploynum = (int) Math.max(1, Math.round(10.0 * smallBS / 32));
+        int[] weights = {1, 1, 1, 1, 3, 3, 2, 3, 3, 2};
+        Map<Integer, Integer> serviceToInstanceNum_edge = new HashMap<>();
+        int instances = 0;
+        for (int serviceId = 1; serviceId <= weights.length; serviceId++) {
+            serviceToInstanceNum_edge.put(serviceId, deploynum * weights[serviceId - 1]);
+            instances += deploynum * weights[serviceId - 1];
+        }
+        Map<Integer, Map<Integer, Map<Integer, Integer>>> initInstance = TestExample1.createInitDeployment(serviceToInstanceNum_edge, devices, smallBS);
+
+        Map<Integer, Integer> typeToNum0 = new HashMap<>();
+        typeToNum0.put(1, 3);
+        Map<Integer, Map<Integer, Integer>> serviceToNum = new HashMap<>();
+        for (int i = 1; i < 11; i++) {
+            serviceToNum.put(i, typeToNum0);
+        }
+        initInstance.put(TestExample1.findCloud(devices), serviceToNum);
+        row.put("instances", instances + 3 * weights.length);
+
+        ServiceProvider serviceProvider = new ServiceProvider("serviceProvider", serviceChain, devicesProvider, initLoadAdmission, initLoadBalance, initRequestDispatching, initInstance, cloudletResultFile);
+
+        // open loop: the requests of a second are spread evenly over it, at least one per interval
+        int rate = (int) Math.max(1, Math.round(ratePerEdge * smallBS));
+        double interval = Math.max(0.005, 1.0 / rate);
+        row.put("requestsPerSecond", rate);
+        new EndUser("endUser", serviceProvider.getId(), simulationLimit, rate, rate, 1, interval, serviceChain.size(), smallBS);
+
+        return serviceProvider;
+    }
+
+    /**
+     * @return the number of collections and the collection time in milliseconds of all the collectors
+     */
+    private static long[] gcTotals() {
+        long[] totals = new long[2];
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            totals[0] += Math.max(0, gc.getCollectionCount());
+            totals[1] += Math.max(0, gc.getCollectionTime());
+        }
+        return totals;
+    }
+
+    private static void writeRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.append(',');
+            }
+            String value = String.valueOf(values.get(i));
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+                value = '"' + value.replace("\"", "\"\"") + '"';
+            }
+            writer.append(value);
+        }
+        writer.append('\n');
+    }
+}
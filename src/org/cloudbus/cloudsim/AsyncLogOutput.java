@@ -0,0 +1,259 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An output stream that buffers what is written and writes it to another stream from a background
+ * thread, so that the simulation does not wait for the console or the disk while logging:
+ *
+ * <pre>
+ * Log.setOutput(new AsyncLogOutput(new FileOutputStream(&quot;simulation.log&quot;)));
+ * </pre>
+ *
+ * The buffers are handed to the writer thread when they are full or when the stream is flushed;
+ * if the writer falls behind by more than the given number of buffers, the writes block. The
+ * writer thread also writes out the bytes buffered for longer than the flush interval, so that the
+ * last lines of a long run are not lost if it crashes. The stream is closed, and everything
+ * written to it is written out, when the JVM shuts down, e.g. on {@link System#exit(int)}.
+ *
+ * @see Log#setOutput(OutputStream)
+ */
+public class AsyncLogOutput extends OutputStream {
+
+	/** The buffer telling the writer thread to stop. */
+	private static final byte[] END = new byte[0];
+
+	/** The stream written by the writer thread. */
+	private final OutputStream out;
+
+	/** The buffers waiting to be written. */
+	private final BlockingQueue<byte[]> pending;
+
+	/** The longest time the bytes stay in the buffer, in milliseconds. */
+	private final long flushInterval;
+
+	/** The writer thread. */
+	private final Thread writer;
+
+	/** The buffer being filled. */
+	private final byte[] buffer;
+
+	/** The number of bytes in the buffer. */
+	private int count = 0;
+
+	/** Whether the stream is closed. */
+	private boolean closed = false;
+
+	/** The error of the writer thread, reported by the next write. */
+	private volatile IOException error;
+
+	/**
+	 * Creates a stream with 64 KB buffers, at most 64 pending buffers, flushed every second.
+	 *
+	 * @param out the stream to write to
+	 */
+	public AsyncLogOutput(OutputStream out) {
+		this(out, 1 << 16, 64, 1000);
+	}
+
+	/**
+	 * Creates a stream flushed every second.
+	 *
+	 * @param out the stream to write to
+	 * @param bufferSize the size of the buffers
+	 * @param maxPending the number of full buffers that may wait for the writer thread
+	 */
+	public AsyncLogOutput(OutputStream out, int bufferSize, int maxPending) {
+		this(out, bufferSize, maxPending, 1000);
+	}
+
+	/**
+	 * Creates a stream.
+	 *
+	 * @param out the stream to write to
+	 * @param bufferSize the size of the buffers
+	 * @param maxPending the number of full buffers that may wait for the writer thread
+	 * @param flushInterval the longest time the bytes stay in the buffer, in milliseconds
+	 */
+	public AsyncLogOutput(OutputStream out, int bufferSize, int maxPending, long flushInterval) {
+		if (flushInterval <= 0) {
+			throw new IllegalArgumentException("The flush interval should be positive, but is:" + flushInterval);
+		}
+		this.out = out;
+		this.flushInterval = flushInterval;
+		buffer = new byte[bufferSize];
+		pending = new ArrayBlockingQueue<byte[]>(maxPending);
+		writer = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				drain();
+			}
+		}, "AsyncLogOutput");
+		writer.setDaemon(true);
+		writer.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}));
+	}
+
+	@Override
+	public synchronized void write(int b) throws IOException {
+		checkOpen();
+		if (count == buffer.length) {
+			handOff();
+		}
+		buffer[count++] = (byte) b;
+	}
+
+	@Override
+	public synchronized void write(byte[] b, int off, int len) throws IOException {
+		checkOpen();
+		while (len > 0) {
+			if (count == buffer.length) {
+				handOff();
+			}
+			int n = Math.min(len, buffer.length - count);
+			System.arraycopy(b, off, buffer, count, n);
+			count += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	/**
+	 * Hands the buffered bytes to the writer thread, without waiting for them to be written.
+	 */
+	@Override
+	public synchronized void flush() throws IOException {
+		checkOpen();
+		if (count > 0) {
+			handOff();
+		}
+	}
+
+	/**
+	 * Writes out everything and stops the writer thread. The underlying stream is closed, unless it
+	 * is the standard output or error.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		if (count > 0) {
+			handOff();
+		}
+		closed = true;
+		put(END);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (out == System.out || out == System.err) {
+			out.flush();
+		} else {
+			out.close();
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Takes the content of the buffer for the writer thread, unless buffers are pending, which
+	 * have to be written first.
+	 *
+	 * @return the bytes, or <tt>null</tt> if there are none to take
+	 */
+	private synchronized byte[] takeBuffered() {
+		if (closed || count == 0 || !pending.isEmpty()) {
+			return null;
+		}
+		byte[] bytes = Arrays.copyOf(buffer, count);
+		count = 0;
+		return bytes;
+	}
+
+	/**
+	 * Queues the content of the buffer.
+	 */
+	private void handOff() throws IOException {
+		put(Arrays.copyOf(buffer, count));
+		count = 0;
+	}
+
+	private void put(byte[] bytes) throws IOException {
+		try {
+			pending.put(bytes);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for the log writer", e);
+		}
+	}
+
+	private void checkOpen() throws IOException {
+		if (closed) {
+			throw new IOException("The log output is closed");
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * The loop of the writer thread. The underlying stream is flushed whenever no buffer is
+	 * pending, and the buffer is taken when no buffer has been pending for the flush interval.
+	 */
+	private void drain() {
+		try {
+			while (true) {
+				byte[] bytes = pending.poll(flushInterval, TimeUnit.MILLISECONDS);
+				if (bytes == null) {
+					bytes = takeBuffered();
+					if (bytes == null) {
+						continue;
+					}
+				}
+				if (bytes == END) {
+					break;
+				}
+				if (error == null) {
+					try {
+						out.write(bytes);
+						if (pending.isEmpty()) {
+							out.flush();
+						}
+					} catch (IOException e) {
+						error = e;
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
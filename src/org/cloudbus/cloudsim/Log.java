@@ -10,10 +10,32 @@ package org.cloudbus.cloudsim;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * The Log class used for performing loggin of the simulation process. It provides the ability to
  * substitute the output stream by any OutputStream subclass.
+ * <p>
+ * Besides the print methods, which write whenever the output is enabled, messages can be logged
+ * with a {@link Level} in a {@link Category}. Each component gets its category once, in a static
+ * field, and the level of each category can be set with {@link #setLevel(String, Level)} or with
+ * the system property <tt>cloudsim.log.level.&lt;category&gt;</tt> (<tt>cloudsim.log.level</tt>
+ * for all the categories; the default level is {@link Level#INFO}):
+ * 
+ * <pre>
+ * private static final Log.Category LOG = Log.getCategory(&quot;network&quot;);
+ * ...
+ * LOG.debug(&quot;packet {} sent to {}&quot;, packet, device);
+ * if (LOG.isTraceEnabled()) {
+ * 	LOG.trace(&quot;remaining: &quot; + remaining + &quot; at &quot; + CloudSim.clock());
+ * }
+ * </pre>
+ * 
+ * A disabled message costs a single branch as long as its text is not built before the call:
+ * hot paths use the parameterized or {@link Supplier} methods, or guard the message with
+ * {@link Category#isEnabled(Level)} when its arguments are primitive values.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
@@ -29,8 +51,258 @@ public class Log {
 	/** The disable output flag. */
 	private static boolean disabled;
 
-	/** Buffer to avoid creating new string builder upon every print. */
-	private static StringBuilder buffer = new StringBuilder();
+	/** The categories, by name. */
+	private static final Map<String, Category> categories = new HashMap<String, Category>();
+
+	/** The levels set for single categories, by name. */
+	private static final Map<String, Level> categoryLevels = new HashMap<String, Level>();
+
+	/** The level of the categories whose level has not been set. */
+	private static Level defaultLevel = parseLevel(System.getProperty("cloudsim.log.level"), Level.INFO);
+
+	/**
+	 * The levels of the messages, by increasing severity. {@link #OFF} disables a category.
+	 */
+	public enum Level {
+		TRACE, DEBUG, INFO, WARN, ERROR, OFF
+	}
+
+	/**
+	 * A category of messages with its own level. Checking a level reads a single field, so the
+	 * methods can be called on the hot paths of the simulation.
+	 * 
+	 * @see Log#getCategory(String)
+	 */
+	public static final class Category {
+
+		/** The name. */
+		private final String name;
+
+		/** The ordinal of the lowest enabled level, beyond {@link Level#ERROR} if disabled. */
+		private volatile int threshold;
+
+		private Category(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Gets the name.
+		 * 
+		 * @return the name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Checks if the messages of a level are logged.
+		 * 
+		 * @param level the level
+		 * @return true, if enabled
+		 */
+		public boolean isEnabled(Level level) {
+			return level.ordinal() >= threshold;
+		}
+
+		/**
+		 * Checks if the trace messages are logged.
+		 * 
+		 * @return true, if enabled
+		 */
+		public boolean isTraceEnabled() {
+			return threshold <= 0;
+		}
+
+		/**
+		 * Checks if the debug messages are logged.
+		 * 
+		 * @return true, if enabled
+		 */
+		public boolean isDebugEnabled() {
+			return threshold <= 1;
+		}
+
+		/**
+		 * Logs a message.
+		 * 
+		 * @param level the level
+		 * @param message the message
+		 */
+		public void log(Level level, String message) {
+			if (isEnabled(level)) {
+				printLine(message);
+			}
+		}
+
+		/**
+		 * Logs a message with one parameter, which replaces the <tt>{}</tt> in the format.
+		 * 
+		 * @param level the level
+		 * @param format the format
+		 * @param arg the parameter
+		 */
+		public void log(Level level, String format, Object arg) {
+			if (isEnabled(level)) {
+				printLine(substitute(format, arg));
+			}
+		}
+
+		/**
+		 * Logs a message with two parameters, which replace the <tt>{}</tt> in the format.
+		 * 
+		 * @param level the level
+		 * @param format the format
+		 * @param arg1 the first parameter
+		 * @param arg2 the second parameter
+		 */
+		public void log(Level level, String format, Object arg1, Object arg2) {
+			if (isEnabled(level)) {
+				printLine(substitute(format, arg1, arg2));
+			}
+		}
+
+		/**
+		 * Logs a message with parameters, which replace the <tt>{}</tt> in the format.
+		 * 
+		 * @param level the level
+		 * @param format the format
+		 * @param args the parameters
+		 */
+		public void log(Level level, String format, Object... args) {
+			if (isEnabled(level)) {
+				printLine(substitute(format, args));
+			}
+		}
+
+		/**
+		 * Logs a message built only if the level is enabled.
+		 * 
+		 * @param level the level
+		 * @param message the supplier of the message
+		 */
+		public void log(Level level, Supplier<String> message) {
+			if (isEnabled(level)) {
+				printLine(message.get());
+			}
+		}
+
+		/** Logs a trace message, see {@link #log(Level, String)}. */
+		public void trace(String message) {
+			log(Level.TRACE, message);
+		}
+
+		/** Logs a trace message, see {@link #log(Level, String, Object)}. */
+		public void trace(String format, Object arg) {
+			log(Level.TRACE, format, arg);
+		}
+
+		/** Logs a trace message, see {@link #log(Level, String, Object, Object)}. */
+		public void trace(String format, Object arg1, Object arg2) {
+			log(Level.TRACE, format, arg1, arg2);
+		}
+
+		/** Logs a trace message, see {@link #log(Level, Supplier)}. */
+		public void trace(Supplier<String> message) {
+			log(Level.TRACE, message);
+		}
+
+		/** Logs a debug message, see {@link #log(Level, String)}. */
+		public void debug(String message) {
+			log(Level.DEBUG, message);
+		}
+
+		/** Logs a debug message, see {@link #log(Level, String, Object)}. */
+		public void debug(String format, Object arg) {
+			log(Level.DEBUG, format, arg);
+		}
+
+		/** Logs a debug message, see {@link #log(Level, String, Object, Object)}. */
+		public void debug(String format, Object arg1, Object arg2) {
+			log(Level.DEBUG, format, arg1, arg2);
+		}
+
+		/** Logs a debug message, see {@link #log(Level, Supplier)}. */
+		public void debug(Supplier<String> message) {
+			log(Level.DEBUG, message);
+		}
+
+		/** Logs a info message, see {@link #log(Level, String)}. */
+		public void info(String message) {
+			log(Level.INFO, message);
+		}
+
+		/** Logs a info message, see {@link #log(Level, String, Object)}. */
+		public void info(String format, Object arg) {
+			log(Level.INFO, format, arg);
+		}
+
+		/** Logs a info message, see {@link #log(Level, String, Object, Object)}. */
+		public void info(String format, Object arg1, Object arg2) {
+			log(Level.INFO, format, arg1, arg2);
+		}
+
+		/** Logs a info message, see {@link #log(Level, Supplier)}. */
+		public void info(Supplier<String> message) {
+			log(Level.INFO, message);
+		}
+
+		/** Logs a warn message, see {@link #log(Level, String)}. */
+		public void warn(String message) {
+			log(Level.WARN, message);
+		}
+
+		/** Logs a warn message, see {@link #log(Level, String, Object)}. */
+		public void warn(String format, Object arg) {
+			log(Level.WARN, format, arg);
+		}
+
+		/** Logs a warn message, see {@link #log(Level, String, Object, Object)}. */
+		public void warn(String format, Object arg1, Object arg2) {
+			log(Level.WARN, format, arg1, arg2);
+		}
+
+		/** Logs a warn message, see {@link #log(Level, Supplier)}. */
+		public void warn(Supplier<String> message) {
+			log(Level.WARN, message);
+		}
+
+		/** Logs a error message, see {@link #log(Level, String)}. */
+		public void error(String message) {
+			log(Level.ERROR, message);
+		}
+
+		/** Logs a error message, see {@link #log(Level, String, Object)}. */
+		public void error(String format, Object arg) {
+			log(Level.ERROR, format, arg);
+		}
+
+		/** Logs a error message, see {@link #log(Level, String, Object, Object)}. */
+		public void error(String format, Object arg1, Object arg2) {
+			log(Level.ERROR, format, arg1, arg2);
+		}
+
+		/** Logs a error message, see {@link #log(Level, Supplier)}. */
+		public void error(Supplier<String> message) {
+			log(Level.ERROR, message);
+		}
+
+		/**
+		 * Updates the threshold after a change of the level or of the disabled flag.
+		 */
+		private void update() {
+			Level level = categoryLevels.get(name);
+			if (level == null) {
+				level = defaultLevel;
+			}
+			threshold = isDisabled() || level == Level.OFF ? Integer.MAX_VALUE : level.ordinal();
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+
+	}
 
 	/**
 	 * Prints the message.
@@ -120,7 +392,8 @@ public class Log {
 	 */
 	public static void printConcatLine(Object... messages) {
 		if (!isDisabled()) {
-			buffer.setLength(0); // Clear the buffer
+			// a local builder, since the simulations of several threads may log at once
+			StringBuilder buffer = new StringBuilder();
 			for(int i = 0 ; i < messages.length ; i ++) {
 				buffer.append(String.valueOf(messages[i]));
 			}
@@ -156,6 +429,7 @@ public class Log {
 	 */
 	public static void setDisabled(boolean _disabled) {
 		disabled = _disabled;
+		updateCategories();
 	}
 
 	/**
@@ -181,4 +455,114 @@ public class Log {
 		setDisabled(false);
 	}
 
+	/**
+	 * Gets a category, creating it if needed. Its level is read from the system property
+	 * <tt>cloudsim.log.level.&lt;name&gt;</tt> unless it has been set.
+	 * 
+	 * @param name the name of the category
+	 * @return the category
+	 */
+	public static synchronized Category getCategory(String name) {
+		Category category = categories.get(name);
+		if (category == null) {
+			category = new Category(name);
+			if (!categoryLevels.containsKey(name)) {
+				Level level = parseLevel(System.getProperty("cloudsim.log.level." + name), null);
+				if (level != null) {
+					categoryLevels.put(name, level);
+				}
+			}
+			category.update();
+			categories.put(name, category);
+		}
+		return category;
+	}
+
+	/**
+	 * Sets the level of all the categories, except those whose level has been set individually.
+	 * 
+	 * @param level the level
+	 */
+	public static synchronized void setLevel(Level level) {
+		defaultLevel = level;
+		updateCategories();
+	}
+
+	/**
+	 * Sets the level of a category.
+	 * 
+	 * @param category the name of the category
+	 * @param level the level, or <tt>null</tt> to use the level of all the categories
+	 */
+	public static synchronized void setLevel(String category, Level level) {
+		if (level == null) {
+			categoryLevels.remove(category);
+		} else {
+			categoryLevels.put(category, level);
+		}
+		Category existing = categories.get(category);
+		if (existing != null) {
+			existing.update();
+		}
+	}
+
+	/**
+	 * Gets the level of a category.
+	 * 
+	 * @param category the name of the category
+	 * @return the level
+	 */
+	public static synchronized Level getLevel(String category) {
+		Level level = categoryLevels.get(category);
+		return level == null ? defaultLevel : level;
+	}
+
+	/**
+	 * Updates the thresholds of all the categories.
+	 */
+	private static synchronized void updateCategories() {
+		for (Category category : categories.values()) {
+			category.update();
+		}
+	}
+
+	/**
+	 * Parses a level name, ignoring the case.
+	 * 
+	 * @param name the name, may be <tt>null</tt>
+	 * @param defaultValue the value returned if the name is not a level
+	 * @return the level
+	 */
+	private static Level parseLevel(String name, Level defaultValue) {
+		if (name != null) {
+			for (Level level : Level.values()) {
+				if (level.name().equalsIgnoreCase(name.trim())) {
+					return level;
+				}
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * Replaces the <tt>{}</tt> of a format by the parameters, in order.
+	 * 
+	 * @param format the format
+	 * @param args the parameters
+	 * @return the message
+	 */
+	private static String substitute(String format, Object... args) {
+		StringBuilder message = new StringBuilder(format.length() + 16 * args.length);
+		int from = 0;
+		for (Object arg : args) {
+			int at = format.indexOf("{}", from);
+			if (at < 0) {
+				break;
+			}
+			message.append(format, from, at).append(arg);
+			from = at + 2;
+		}
+		return message.append(format, from, format.length()).toString();
+	}
+
 }
@@ -9,6 +9,9 @@ import java.io.IOException;
  */
 public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 	
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	/** The scheduling interval. */
 	private double schedulingInterval;
 
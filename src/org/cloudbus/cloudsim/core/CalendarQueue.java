@@ -0,0 +1,485 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements the future event queue as a calendar queue (R. Brown, 1988). Events are
+ * hashed by time into an array of buckets of fixed width ("days"), each bucket keeping its events
+ * sorted. Insertion and removal of the first event take O(1) amortized time when most events are
+ * scheduled close to the current simulation time, which is the common case of the packet level
+ * network model.
+ * <p>
+ * The bucket of an event is derived from an integral bucket index, so that events with the same
+ * time always share a bucket and the queue delivers exactly the same order as {@link FutureQueue}.
+ * The number of buckets and their width are recomputed when the queue grows or shrinks by a
+ * factor of two.
+ *
+ * @see FutureQueue
+ * @see EventQueue
+ */
+public class CalendarQueue implements EventQueue {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The minimal number of buckets. */
+	private static final int MIN_BUCKETS = 16;
+
+	/** The number of events sampled from the head of the queue to compute the bucket width. */
+	private static final int WIDTH_SAMPLE = 25;
+
+	/** Orders events by time and serial; used only to sort iteration snapshots. */
+	private static final Comparator<SimEvent> ORDER = new Comparator<SimEvent>() {
+
+		@Override
+		public int compare(SimEvent a, SimEvent b) {
+			int result = Double.compare(a.eventTime(), b.eventTime());
+			return result != 0 ? result : Long.compare(a.getSerial(), b.getSerial());
+		}
+	};
+
+	/** The buckets. */
+	private Bucket[] buckets;
+
+	/** The mask used to map a bucket index to a bucket (the number of buckets is a power of 2). */
+	private int mask;
+
+	/** The width of a bucket, in simulation time. */
+	private double width;
+
+	/** The index of the bucket holding the first event. No event has a smaller index. */
+	private long currentBucket;
+
+	/** The number of events in the queue. */
+	private int size;
+
+	/** The serial. */
+	private long serial = 0;
+
+	/**
+	 * Creates a calendar queue with a bucket width of one time unit. The width is adapted to the
+	 * actual distribution of the events as soon as the queue is resized.
+	 */
+	public CalendarQueue() {
+		this(1.0);
+	}
+
+	/**
+	 * Creates a calendar queue.
+	 *
+	 * @param width the initial width of a bucket, in simulation time
+	 */
+	public CalendarQueue(double width) {
+		if (width <= 0 || Double.isInfinite(width) || Double.isNaN(width)) {
+			throw new IllegalArgumentException("The bucket width should be positive, but is:" + width);
+		}
+		init(MIN_BUCKETS, width);
+	}
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		newEvent.setSerial(serial++);
+		insert(newEvent);
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(0);
+		insert(newEvent);
+	}
+
+	@Override
+	public SimEvent peek() {
+		Bucket bucket = firstBucket();
+		return bucket == null ? null : bucket.first();
+	}
+
+	@Override
+	public SimEvent poll() {
+		Bucket bucket = firstBucket();
+		if (bucket == null) {
+			return null;
+		}
+		SimEvent event = bucket.pollFirst();
+		size--;
+		shrinkIfNeeded();
+		return event;
+	}
+
+	/**
+	 * Returns an iterator over a snapshot of the queue, in delivery order. Removing an event
+	 * through the iterator removes it from the queue. This operation takes O(n log n) time and is
+	 * intended for infrequent scans such as event cancellation.
+	 *
+	 * @return the iterator
+	 */
+	@Override
+	public Iterator<SimEvent> iterator() {
+		final SimEvent[] snapshot = new SimEvent[size];
+		int n = 0;
+		for (Bucket bucket : buckets) {
+			n = bucket.copyTo(snapshot, n);
+		}
+		// stable sort: events with the same key keep their insertion order
+		Arrays.sort(snapshot, ORDER);
+
+		return new Iterator<SimEvent>() {
+
+			private int next = 0;
+
+			private SimEvent last = null;
+
+			@Override
+			public boolean hasNext() {
+				return next < snapshot.length;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (next >= snapshot.length) {
+					throw new NoSuchElementException();
+				}
+				last = snapshot[next++];
+				return last;
+			}
+
+			@Override
+			public void remove() {
+				if (last == null) {
+					throw new IllegalStateException();
+				}
+				CalendarQueue.this.remove(last);
+				last = null;
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean remove(SimEvent event) {
+		if (size == 0 || !buckets[indexOf(bucketOf(event.eventTime()))].remove(event)) {
+			return false;
+		}
+		size--;
+		shrinkIfNeeded();
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(Collection<SimEvent> events) {
+		boolean changed = false;
+		for (SimEvent event : events) {
+			changed |= remove(event);
+		}
+		return changed;
+	}
+
+	@Override
+	public void clear() {
+		init(MIN_BUCKETS, width);
+		size = 0;
+	}
+
+	/**
+	 * Gets the current number of buckets.
+	 *
+	 * @return the number of buckets
+	 */
+	public int getNumBuckets() {
+		return buckets.length;
+	}
+
+	/**
+	 * Gets the current width of a bucket.
+	 *
+	 * @return the bucket width, in simulation time
+	 */
+	public double getBucketWidth() {
+		return width;
+	}
+
+	/**
+	 * Allocates empty buckets.
+	 *
+	 * @param numBuckets the number of buckets, a power of 2
+	 * @param width the bucket width
+	 */
+	private void init(int numBuckets, double width) {
+		buckets = new Bucket[numBuckets];
+		for (int i = 0; i < numBuckets; i++) {
+			buckets[i] = new Bucket();
+		}
+		mask = numBuckets - 1;
+		this.width = width;
+		currentBucket = 0;
+	}
+
+	/**
+	 * Inserts an event whose serial has already been set.
+	 *
+	 * @param event the event
+	 */
+	private void insert(SimEvent event) {
+		long index = bucketOf(event.eventTime());
+		if (size == 0 || index < currentBucket) {
+			currentBucket = index;
+		}
+		buckets[indexOf(index)].add(event);
+		size++;
+		if (size > 2 * buckets.length) {
+			resize(2 * buckets.length);
+		}
+	}
+
+	/**
+	 * Finds the bucket holding the first event and moves {@link #currentBucket} to it.
+	 *
+	 * @return the bucket, or <tt>null</tt> if the queue is empty
+	 */
+	private Bucket firstBucket() {
+		if (size == 0) {
+			return null;
+		}
+
+		// scan one "year" of buckets starting from the current one
+		long index = currentBucket;
+		for (int i = 0; i < buckets.length; i++, index++) {
+			Bucket bucket = buckets[indexOf(index)];
+			if (bucket.size() > 0 && bucketOf(bucket.first().eventTime()) <= index) {
+				currentBucket = index;
+				return bucket;
+			}
+		}
+
+		// all the events are at least one year ahead: search the minimum directly
+		Bucket first = null;
+		for (Bucket bucket : buckets) {
+			if (bucket.size() > 0 && (first == null || bucket.first().compareTo(first.first()) < 0)) {
+				first = bucket;
+			}
+		}
+		currentBucket = bucketOf(first.first().eventTime());
+		return first;
+	}
+
+	/**
+	 * Halves the number of buckets when the queue is less than half full.
+	 */
+	private void shrinkIfNeeded() {
+		if (buckets.length > MIN_BUCKETS && size < buckets.length / 2) {
+			resize(buckets.length / 2);
+		}
+	}
+
+	/**
+	 * Redistributes the events on a new number of buckets. The bucket width is recomputed as three
+	 * times the average separation between the first events of the queue, as proposed by Brown.
+	 *
+	 * @param numBuckets the new number of buckets
+	 */
+	private void resize(int numBuckets) {
+		Bucket[] old = buckets;
+		init(numBuckets, sampleWidth(old));
+		boolean empty = true;
+		for (Bucket bucket : old) {
+			for (int i = bucket.head; i < bucket.tail; i++) {
+				SimEvent event = bucket.events[i];
+				long index = bucketOf(event.eventTime());
+				if (empty || index < currentBucket) {
+					currentBucket = index;
+					empty = false;
+				}
+				buckets[indexOf(index)].add(event);
+			}
+		}
+	}
+
+	/**
+	 * Estimates the bucket width from the smallest event times of the queue.
+	 *
+	 * @param old the buckets holding the events
+	 * @return the new width, or the current one if it can not be estimated
+	 */
+	private double sampleWidth(Bucket[] old) {
+		double[] times = new double[WIDTH_SAMPLE];
+		int n = 0;
+		for (Bucket bucket : old) {
+			for (int i = bucket.head; i < bucket.tail; i++) {
+				double time = bucket.events[i].eventTime();
+				if (n < WIDTH_SAMPLE) {
+					n++;
+				} else if (time >= times[n - 1]) {
+					continue;
+				}
+				// insertion sort into the sample of the smallest times
+				int j = n - 1;
+				while (j > 0 && times[j - 1] > time) {
+					times[j] = times[j - 1];
+					j--;
+				}
+				times[j] = time;
+			}
+		}
+		if (n < 2) {
+			return width;
+		}
+
+		double average = (times[n - 1] - times[0]) / (n - 1);
+		double total = 0;
+		int count = 0;
+		for (int i = 1; i < n; i++) {
+			double separation = times[i] - times[i - 1];
+			if (separation <= 2 * average) {
+				total += separation;
+				count++;
+			}
+		}
+		double newWidth = count > 0 ? 3 * total / count : 0;
+		if (newWidth <= 0 || Double.isInfinite(newWidth) || Double.isNaN(newWidth)) {
+			return width;
+		}
+		return newWidth;
+	}
+
+	/**
+	 * Gets the bucket index of a given time. Indices grow with time, so that ordering events by
+	 * bucket index and then within the bucket preserves the order of the events.
+	 *
+	 * @param time the event time
+	 * @return the bucket index
+	 */
+	private long bucketOf(double time) {
+		return (long) Math.floor(time / width);
+	}
+
+	/**
+	 * Maps a bucket index to a position in the bucket array.
+	 *
+	 * @param index the bucket index
+	 * @return the position
+	 */
+	private int indexOf(long index) {
+		return (int) (index & mask);
+	}
+
+	/**
+	 * A bucket of the calendar: an array of events sorted by time and serial.
+	 */
+	private static final class Bucket implements Serializable {
+
+		/** The Constant serialVersionUID. */
+		private static final long serialVersionUID = 1L;
+
+		/** The events; the valid ones are in [head, tail). */
+		private SimEvent[] events = new SimEvent[4];
+
+		/** The position of the first event. */
+		private int head;
+
+		/** The position after the last event. */
+		private int tail;
+
+		int size() {
+			return tail - head;
+		}
+
+		SimEvent first() {
+			return events[head];
+		}
+
+		SimEvent pollFirst() {
+			SimEvent event = events[head];
+			events[head++] = null;
+			if (head == tail) {
+				head = 0;
+				tail = 0;
+			}
+			return event;
+		}
+
+		/**
+		 * Adds an event after all the events that do not come after it.
+		 */
+		void add(SimEvent event) {
+			// most events are scheduled after the ones already in the bucket
+			int pos = tail;
+			if (pos > head && event.compareTo(events[pos - 1]) < 0) {
+				int low = head;
+				int high = tail - 1;
+				while (low < high) {
+					int mid = (low + high) >>> 1;
+					if (event.compareTo(events[mid]) < 0) {
+						high = mid;
+					} else {
+						low = mid + 1;
+					}
+				}
+				pos = low;
+			}
+
+			if (tail == events.length) {
+				if (head > 0) {
+					System.arraycopy(events, head, events, 0, tail - head);
+					Arrays.fill(events, tail - head, tail, null);
+					pos -= head;
+					tail -= head;
+					head = 0;
+				} else {
+					events = Arrays.copyOf(events, events.length * 2);
+				}
+			}
+			System.arraycopy(events, pos, events, pos + 1, tail - pos);
+			events[pos] = event;
+			tail++;
+		}
+
+		boolean remove(SimEvent event) {
+			double time = event.eventTime();
+			int low = head;
+			int high = tail;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (events[mid].eventTime() < time) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			for (int i = low; i < tail && events[i].eventTime() == time; i++) {
+				if (events[i] == event) {
+					System.arraycopy(events, i + 1, events, i, tail - i - 1);
+					events[--tail] = null;
+					if (head == tail) {
+						head = 0;
+						tail = 0;
+					}
+					return true;
+				}
+			}
+			return false;
+		}
+
+		int copyTo(SimEvent[] target, int offset) {
+			System.arraycopy(events, head, target, offset, tail - head);
+			return offset + tail - head;
+		}
+	}
+
+}
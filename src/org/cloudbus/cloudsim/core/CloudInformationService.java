@@ -31,6 +31,12 @@ import java.util.List;
  */
 public class CloudInformationService extends SimEntity {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The log category of the simulation kernel. */
+	private static final Log.Category LOG = Log.getCategory("kernel");
+
 	/** For all types of hostList. */
 	private final List<Integer> resList;
 
@@ -238,13 +244,13 @@ public class CloudInformationService extends SimEntity {
 	 */
 	protected void processOtherEvent(SimEvent ev) {
 		if (ev == null) {
-			Log.printLine("CloudInformationService.processOtherEvent(): "
+			LOG.warn("CloudInformationService.processOtherEvent(): "
 					+ "Unable to handle a request since the event is null.");
 			return;
 		}
 
-		Log.printLine("CloudInformationSevice.processOtherEvent(): " + "Unable to handle a request from "
-				+ CloudSim.getEntityName(ev.getSource()) + " with event tag = " + ev.getTag());
+		LOG.warn("CloudInformationSevice.processOtherEvent(): Unable to handle a request from {} with event tag = {}",
+				CloudSim.getEntityName(ev.getSource()), ev.getTag());
 	}
 
 	/**
@@ -295,7 +301,7 @@ public class CloudInformationService extends SimEntity {
 	 * @post $none
 	 */
 	private void notifyAllEntity() {
-		Log.print(super.getName() + ": Notify all CloudSim entities for shutting down.");
+		LOG.debug("{}: Notify all CloudSim entities for shutting down.", super.getName());
 
 		signalShutdown(resList);
 		signalShutdown(gisList);
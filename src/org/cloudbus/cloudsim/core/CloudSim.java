@@ -12,7 +12,10 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
 import org.cloudbus.cloudsim.core.predicates.PredicateAny;
 import org.cloudbus.cloudsim.core.predicates.PredicateNone;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
+import java.io.IOException;
+import java.io.PrintStream;
 import java.util.*;
 
 /**
@@ -30,43 +33,22 @@ import java.util.*;
 public class CloudSim {
 
 //    my code
-        private static int clientId = -1;
         public static int getClientId(){
-            return clientId;
+            return context().clientId;
         }
         
         public static void setClientId(int id){
-            clientId = id;
+            context().clientId = id;
         }
 //    end
 	/** The Constant CLOUDSIM_VERSION_STRING. */
 	private static final String CLOUDSIM_VERSION_STRING = "3.0";
 
-	/** The id of CIS entity. */
-	private static int cisId = -1;
-
-	/** The id of CloudSimShutdown entity. */
-	@SuppressWarnings("unused")
-	private static int shutdownId = -1;
-
-	/** The CIS object. */
-	private static CloudInformationService cis = null;
-
 	/** The Constant NOT_FOUND. */
 	private static final int NOT_FOUND = -1;
 
-	/** The trace flag. */
-	@SuppressWarnings("unused")
-	private static boolean traceFlag = false;
-
-	/** The calendar. */
-	private static Calendar calendar = null;
-
-	/** The termination time. */
-	private static double terminateAt = -1;
-
-	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
-	private static double minTimeBetweenEvents = 0.1;
+	/** The log category of the simulation kernel. */
+	private static final Log.Category LOG = Log.getCategory("kernel");
 	
 	/**
 	 * Initialises all the common attributes.
@@ -82,20 +64,21 @@ public class CloudSim {
 	private static void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser)
 			throws Exception {
 		initialize();
+		SimulationContext c = context();
 		// NOTE: the order for the below 3 lines are important
-		traceFlag = _traceFlag;
+		c.traceFlag = _traceFlag;
 
 		// Set the current Wall clock time as the starting time of
 		// simulation
 		if (_calendar == null) {
-			calendar = Calendar.getInstance();
+			c.calendar = Calendar.getInstance();
 		} else {
-			calendar = _calendar;
+			c.calendar = _calendar;
 		}
 
 		// creates a CloudSimShutdown object
 		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
-		shutdownId = shutdown.getId();
+		c.shutdownId = shutdown.getId();
 	}
 
 	/**
@@ -120,20 +103,21 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag) {
+		SimulationContext c = context();
 		try {
 			initCommonVariable(cal, traceFlag, numUser);
 
 			// create a GIS object
-			cis = new CloudInformationService("CloudInformationService");
+			c.cis = new CloudInformationService("CloudInformationService");
 
 			// set all the above entity IDs
-			cisId = cis.getId();
+			c.cisId = c.cis.getId();
 		} catch (IllegalArgumentException s) {
-			Log.printLine("CloudSim.init(): The simulation has been terminated due to an unexpected error");
-			Log.printLine(s.getMessage());
+			LOG.error("CloudSim.init(): The simulation has been terminated due to an unexpected error");
+			LOG.error(s.getMessage());
 		} catch (Exception e) {
-			Log.printLine("CloudSim.init(): The simulation has been terminated due to an unexpected error");
-			Log.printLine(e.getMessage());
+			LOG.error("CloudSim.init(): The simulation has been terminated due to an unexpected error");
+			LOG.error(e.getMessage());
 		}
 	}
 
@@ -166,7 +150,7 @@ public class CloudSim {
 	    }
 	    
 	    init(numUser, cal, traceFlag);
-	    minTimeBetweenEvents = periodBetweenEvents;
+	    context().minTimeBetweenEvents = periodBetweenEvents;
 	}
 	
 	
@@ -186,16 +170,17 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static double startSimulation() throws NullPointerException {
-		Log.printLine("Starting CloudSim version " + CLOUDSIM_VERSION_STRING);
+		SimulationContext c = context();
+		LOG.info("Starting CloudSim version {}", CLOUDSIM_VERSION_STRING);
 		try {
 			double clock = run();
 
 			// reset all static variables
-			cisId = -1;
-			shutdownId = -1;
-			cis = null;
-			calendar = null;
-			traceFlag = false;
+			c.cisId = -1;
+			c.shutdownId = -1;
+			c.cis = null;
+			c.calendar = null;
+			c.traceFlag = false;
 
 			return clock;
 		} catch (IllegalArgumentException e) {
@@ -227,12 +212,15 @@ public class CloudSim {
 	}
 
 	/**
-	 * This method is called if one wants to terminate the simulation.
+	 * This method is called if one wants to terminate the simulation. Called by an entity, the
+	 * simulation ends once the current clock tick is over.
 	 * 
 	 * @return true, if successful; false otherwise.
 	 */
 	public static boolean terminateSimulation() {
-		running = false;
+		SimulationContext c = context();
+		c.running = false;
+		c.terminateAt = c.clock;
 		printMessage("Simulation: Reached termination time.");
 		return true;
 	}
@@ -244,10 +232,11 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean terminateSimulation(double time) {
-		if (time <= clock) {
+		SimulationContext c = context();
+		if (time <= c.clock) {
 			return false;
 		} else {
-			terminateAt = time;
+			c.terminateAt = time;
 		}
 		return true;
 	}
@@ -258,7 +247,7 @@ public class CloudSim {
 	 * @return the minimum time between events.
 	 */
 	public static double getMinTimeBetweenEvents() {
-	    return minTimeBetweenEvents;
+	    return context().minTimeBetweenEvents;
 	}
 
 	/**
@@ -271,10 +260,11 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static Calendar getSimulationCalendar() {
+		SimulationContext c = context();
 		// make a new copy
-		Calendar clone = calendar;
-		if (calendar != null) {
-			clone = (Calendar) calendar.clone();
+		Calendar clone = c.calendar;
+		if (c.calendar != null) {
+			clone = (Calendar) c.calendar.clone();
 		}
 
 		return clone;
@@ -288,7 +278,7 @@ public class CloudSim {
 	 * @post $result >= -1
 	 */
 	public static int getCloudInfoServiceEntityId() {
-		return cisId;
+		return context().cisId;
 	}
 
 	/**
@@ -301,59 +291,363 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static List<Integer> getCloudResourceList() {
-		if (cis == null) {
+		SimulationContext c = context();
+		if (c.cis == null) {
 			return null;
 		}
 
-		return cis.getList();
+		return c.cis.getList();
 	}
 
 	// ======== SIMULATION METHODS ===============//
 
-	/** The entities. */
-	private static List<SimEntity> entities;
+	/** Whether the future event queue is a {@link CalendarQueue} instead of a {@link FutureQueue}. */
+	private static boolean calendarQueueEnabled = false;
 
-	/** The future event queue. */
-	protected static FutureQueue future;
+	/** Whether the events are recycled. */
+	private static boolean eventPoolingEnabled = false;
 
-	/** The deferred event queue. */
-	protected static DeferredQueue deferred;
+	/** Whether released events are checked for later use instead of being recycled. */
+	private static boolean eventPoolDebugEnabled = false;
 
-	/** The simulation clock. */
-	private static double clock;
+	/** Whether the delays between entities are recorded. */
+	private static boolean lookaheadAuditEnabled = false;
 
-	/** Flag for checking if the simulation is running. */
-	private static boolean running;
+	/** The file the processed events are recorded to, or <tt>null</tt> if they are not recorded. */
+	private static String eventTraceFile = null;
 
-	/** The entities by name. */
-	private static Map<String, SimEntity> entitiesByName;
+	/** Whether the wall-clock time of the simulations is profiled. */
+	private static boolean profilerEnabled = false;
 
-	// The predicates used in entity wait methods
-	/** The wait predicates. */
-	private static Map<Integer, Predicate> waitPredicates;
+	/** The stream the profile reports are printed to, or <tt>null</tt> for the standard output. */
+	private static PrintStream profilerOutput = null;
 
-	/** The paused. */
-	private static boolean paused = false;
+	/** Whether the simulations are exposed through JMX. */
+	private static boolean jmxEnabled = false;
 
-	/** The pause at. */
-	private static long pauseAt = -1;
+	/**
+	 * Gets the simulation context of the calling thread, on which the static methods of this class
+	 * operate.
+	 * 
+	 * @return the context bound to the calling thread, or the default context
+	 * @see SimulationContext#call(java.util.concurrent.Callable)
+	 */
+	public static SimulationContext getContext() {
+		return SimulationContext.current();
+	}
 
-	/** The abrupt terminate. */
-	private static boolean abruptTerminate = false;
+	/**
+	 * Binds a simulation context to the calling thread. The simulations started afterwards on this
+	 * thread, and the entities they create, use this context.
+	 * 
+	 * @param context the context, or <tt>null</tt> to use the default context
+	 */
+	public static void setContext(SimulationContext context) {
+		SimulationContext.bind(context);
+	}
+
+	/**
+	 * Gets the context of the calling thread.
+	 */
+	private static SimulationContext context() {
+		return SimulationContext.current();
+	}
 
 	/**
 	 * Initialise the simulation for stand alone simulations. This function should be called at the
 	 * start of the simulation.
 	 */
 	protected static void initialize() {
-		Log.printLine("Initialising...");
-		entities = new ArrayList<SimEntity>();
-		entitiesByName = new LinkedHashMap<String, SimEntity>();
-		future = new FutureQueue();
-		deferred = new DeferredQueue();
-		waitPredicates = new HashMap<Integer, Predicate>();
-		clock = 0;
-		running = false;
+		SimulationContext c = context();
+		LOG.info("Initialising...");
+		c.entities = new ArrayList<SimEntity>();
+		c.entitiesByName = new LinkedHashMap<String, SimEntity>();
+		c.future = new IndexedEventQueue(calendarQueueEnabled ? new CalendarQueue() : new FutureQueue());
+		c.deferred = new DeferredQueue();
+		c.waitPredicates = new HashMap<Integer, Predicate>();
+		c.runnable = new BitSet();
+		c.eventPool = eventPoolingEnabled ? new SimEventPool(eventPoolDebugEnabled) : null;
+		c.lookaheadAudit = lookaheadAuditEnabled ? new LookaheadAudit() : null;
+		c.eventTrace = openEventTrace();
+		c.profiler = profilerEnabled ? new KernelProfiler() : null;
+		if (c.metrics != null) {
+			c.metrics.unregisterAll();
+		}
+		c.metrics = jmxEnabled ? new SimulationMetrics(c) : null;
+		c.clock = 0;
+		c.running = false;
+		c.finished = false;
+		c.resetSequences();
+	}
+
+	/**
+	 * Selects the future event queue used by the next simulations. The default queue is a
+	 * {@link FutureQueue}; a {@link CalendarQueue} is faster when most events are scheduled close to
+	 * the current simulation time. Both queues deliver the events in the same order. This method
+	 * has to be called before {@link #init(int, Calendar, boolean)}.
+	 * 
+	 * @param enabled <tt>true</tt> to use a calendar queue, <tt>false</tt> to use a tree-based queue
+	 */
+	public static void setCalendarQueueEnabled(boolean enabled) {
+		calendarQueueEnabled = enabled;
+	}
+
+	/**
+	 * Checks if the future event queue is a calendar queue.
+	 * 
+	 * @return true, if a calendar queue is used
+	 */
+	public static boolean isCalendarQueueEnabled() {
+		return calendarQueueEnabled;
+	}
+
+	/**
+	 * Enables or disables the recycling of events for the next simulations; it is disabled by
+	 * default. When enabled, an event is returned to a pool as soon as its destination entity has
+	 * processed it, so entities must not keep references to the events they receive (see
+	 * {@link SimEntity#processEvent(SimEvent)}); run once with
+	 * {@link #setEventPoolDebugEnabled(boolean)} to check that they do not. This method has to be
+	 * called before {@link #init(int, Calendar, boolean)}.
+	 * 
+	 * @param enabled <tt>true</tt> to recycle the events
+	 * @see SimEventPool
+	 */
+	public static void setEventPoolingEnabled(boolean enabled) {
+		eventPoolingEnabled = enabled;
+	}
+
+	/**
+	 * Checks if the events are recycled.
+	 * 
+	 * @return true, if event pooling is enabled
+	 */
+	public static boolean isEventPoolingEnabled() {
+		return eventPoolingEnabled;
+	}
+
+	/**
+	 * Enables or disables the debug mode of the event pool for the next simulations. In debug mode,
+	 * released events are not recycled; any access to them throws an
+	 * {@link IllegalStateException}, which reveals entities that keep references to the events they
+	 * receive. This method has to be called before {@link #init(int, Calendar, boolean)}.
+	 * 
+	 * @param enabled <tt>true</tt> to detect the use of released events
+	 */
+	public static void setEventPoolDebugEnabled(boolean enabled) {
+		eventPoolDebugEnabled = enabled;
+	}
+
+	/**
+	 * Checks if the event pool runs in debug mode.
+	 * 
+	 * @return true, if the use of released events is detected
+	 */
+	public static boolean isEventPoolDebugEnabled() {
+		return eventPoolDebugEnabled;
+	}
+
+	/**
+	 * Enables or disables the recording of the smallest delay between each pair of entities for the
+	 * next simulations. The resulting {@link LookaheadAudit} tells whether the entities can be
+	 * split into partitions that only interact with a positive lookahead, as required by a
+	 * conservative parallel execution, and which event tags prevent it. This method has to be
+	 * called before {@link #init(int, Calendar, boolean)}.
+	 * 
+	 * @param enabled <tt>true</tt> to record the delays
+	 */
+	public static void setLookaheadAuditEnabled(boolean enabled) {
+		lookaheadAuditEnabled = enabled;
+	}
+
+	/**
+	 * Checks if the delays between entities are recorded.
+	 * 
+	 * @return true, if the lookahead audit is enabled
+	 */
+	public static boolean isLookaheadAuditEnabled() {
+		return lookaheadAuditEnabled;
+	}
+
+	/**
+	 * Gets the lookahead audit of the current simulation, or of the last one once it has finished.
+	 * 
+	 * @return the audit, or <tt>null</tt> if it was not enabled
+	 */
+	public static LookaheadAudit getLookaheadAudit() {
+		return context().lookaheadAudit;
+	}
+
+	/**
+	 * Sets the file every event processed by the next simulations is recorded to, for offline
+	 * analysis with {@link EventTraceReader}. The file is overwritten by each simulation, so
+	 * simulations running concurrently must not record their events. This method has to be called
+	 * before {@link #init(int, Calendar, boolean)} or {@link #restoreCheckpoint(String)}.
+	 * 
+	 * @param fileName the name of the file, or <tt>null</tt> to stop recording the events
+	 * @see EventTraceRecorder
+	 */
+	public static void setEventTraceFile(String fileName) {
+		eventTraceFile = fileName;
+	}
+
+	/**
+	 * Gets the file the processed events are recorded to.
+	 * 
+	 * @return the name of the file, or <tt>null</tt> if the events are not recorded
+	 */
+	public static String getEventTraceFile() {
+		return eventTraceFile;
+	}
+
+	/**
+	 * Enables or disables the profiling of the next simulations. The profiler counts the events,
+	 * measures the time the entities spend handling them and samples the depth of the queues; its
+	 * report is printed to the standard output when the simulation finishes, even if the
+	 * {@link Log} is disabled. This method has to be called before
+	 * {@link #init(int, Calendar, boolean)} or {@link #restoreCheckpoint(String)}.
+	 * 
+	 * @param enabled <tt>true</tt> to profile the simulations
+	 * @see KernelProfiler
+	 * @see #setProfilerOutput(PrintStream)
+	 */
+	public static void setProfilerEnabled(boolean enabled) {
+		profilerEnabled = enabled;
+	}
+
+	/**
+	 * Sets the stream the profile reports are printed to when the simulations finish.
+	 * 
+	 * @param output the stream, or <tt>null</tt> for the standard output
+	 */
+	public static void setProfilerOutput(PrintStream output) {
+		profilerOutput = output;
+	}
+
+	/**
+	 * Checks if the simulations are profiled.
+	 * 
+	 * @return true, if the profiler is enabled
+	 */
+	public static boolean isProfilerEnabled() {
+		return profilerEnabled;
+	}
+
+	/**
+	 * Gets the profiler of the current simulation, or of the last one once it has finished.
+	 * 
+	 * @return the profiler, or <tt>null</tt> if it was not enabled
+	 */
+	public static KernelProfiler getProfiler() {
+		return context().profiler;
+	}
+
+	/**
+	 * Enables or disables the JMX MBeans of the next simulations: the kernel, and the entities
+	 * registering their own, are exposed through the platform MBean server while the simulation
+	 * runs. This method has to be called before {@link #init(int, Calendar, boolean)} or
+	 * {@link #restoreCheckpoint(String)}.
+	 * 
+	 * @param enabled <tt>true</tt> to register the MBeans
+	 * @see SimulationMetrics
+	 */
+	public static void setJmxEnabled(boolean enabled) {
+		jmxEnabled = enabled;
+	}
+
+	/**
+	 * Checks if the simulations are exposed through JMX.
+	 * 
+	 * @return true, if the MBeans are registered
+	 */
+	public static boolean isJmxEnabled() {
+		return jmxEnabled;
+	}
+
+	/**
+	 * Gets the JMX metrics of the current simulation.
+	 * 
+	 * @return the metrics, or <tt>null</tt> if JMX is not enabled or the simulation has finished
+	 */
+	public static SimulationMetrics getMetrics() {
+		return context().metrics;
+	}
+
+	/**
+	 * Registers the MBean of an entity with the current simulation; it is unregistered when the
+	 * simulation finishes. Does nothing if JMX is not enabled, so entities usually call it from
+	 * {@link SimEntity#startEntity()} after checking {@link #isJmxEnabled()}.
+	 * 
+	 * @param entity the entity
+	 * @param type the type of the MBean, such as its class name
+	 * @param mbean the MBean
+	 */
+	public static void registerMBean(SimEntity entity, String type, Object mbean) {
+		SimulationContext c = context();
+		if (c.metrics != null) {
+			c.metrics.register(entity, type, mbean);
+		}
+	}
+
+	/**
+	 * Sets the seed of the random number streams of the simulations run by the calling thread. It
+	 * has to be called before the simulation starts, since the stochastic components obtain their
+	 * streams when they are first used; it is kept by the following simulations of the thread.
+	 * 
+	 * @param seed the seed
+	 * @see RandomStreams
+	 */
+	public static void setRandomSeed(long seed) {
+		context().randomStreams = new RandomStreams(seed);
+	}
+
+	/**
+	 * Gets the seed of the random number streams of the calling thread.
+	 * 
+	 * @return the seed
+	 */
+	public static long getRandomSeed() {
+		return context().randomStreams.getSeed();
+	}
+
+	/**
+	 * Creates the generator of a random number stream of the current simulation.
+	 * 
+	 * @param owner the owner of the stream, such as the name of an entity
+	 * @param purpose what the numbers are used for
+	 * @return the generator
+	 * @see RandomStreams#stream(String, String)
+	 */
+	public static Random getRandom(String owner, String purpose) {
+		return context().randomStreams.stream(owner, purpose);
+	}
+
+	/**
+	 * Creates the generator of a random number stream for a component without a name. The
+	 * components of a kind are told apart by their creation order, which has to be the same in
+	 * the runs to compare.
+	 * 
+	 * @param kind the kind of component, such as its class name
+	 * @return the generator
+	 */
+	public static Random getRandom(String kind) {
+		SimulationContext c = context();
+		return c.randomStreams.stream(kind + "#" + c.nextId("random:" + kind), "");
+	}
+
+	/**
+	 * Opens the event trace of a new simulation.
+	 * 
+	 * @return the recorder, or <tt>null</tt> if the events are not recorded
+	 */
+	private static EventTraceRecorder openEventTrace() {
+		if (eventTraceFile == null) {
+			return null;
+		}
+		try {
+			return new EventTraceRecorder(eventTraceFile);
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not create the event trace " + eventTraceFile, e);
+		}
 	}
 
 	// The two standard predicates
@@ -372,7 +666,7 @@ public class CloudSim {
 	 * @return the simulation time
 	 */
 	public static double clock() {
-		return clock;
+		return context().clock;
 	}
 
 	/**
@@ -381,7 +675,7 @@ public class CloudSim {
 	 * @return The number of entities
 	 */
 	public static int getNumEntities() {
-		return entities.size();
+		return context().entities.size();
 	}
 
 	/**
@@ -391,7 +685,7 @@ public class CloudSim {
 	 * @return The entity, or if it could not be found
 	 */
 	public static SimEntity getEntity(int id) {
-		return entities.get(id);
+		return context().entities.get(id);
 	}
 
 	/**
@@ -401,7 +695,7 @@ public class CloudSim {
 	 * @return The entity
 	 */
 	public static SimEntity getEntity(String name) {
-		return entitiesByName.get(name);
+		return context().entitiesByName.get(name);
 	}
 
 	/**
@@ -411,7 +705,8 @@ public class CloudSim {
 	 * @return The entity's unique id number
 	 */
 	public static int getEntityId(String name) {
-		SimEntity obj = entitiesByName.get(name);
+		SimulationContext c = context();
+		SimEntity obj = c.entitiesByName.get(name);
 		if (obj == null) {
 			return NOT_FOUND;
 		} else {
@@ -458,10 +753,11 @@ public class CloudSim {
 	 * @return the entity iterator
 	 */
 	public static List<SimEntity> getEntityList() {
+		SimulationContext c = context();
 		// create a new list to prevent the user from changing
 		// the list of entities used by Simulation
 		List<SimEntity> list = new LinkedList<SimEntity>();
-		list.addAll(entities);
+		list.addAll(c.entities);
 		return list;
 	}
 
@@ -474,17 +770,19 @@ public class CloudSim {
 	 * @param e The new entity
 	 */
 	public static void addEntity(SimEntity e) {
+		SimulationContext c = context();
 		SimEvent evt;
-		if (running) {
+		if (c.running) {
 			// Post an event to make this entity
-			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, 0, e);
-			future.addEvent(evt);
+			evt = newEvent(SimEvent.CREATE, c.clock, 1, 0, 0, e);
+			c.future.addEvent(evt);
 		}
 		if (e.getId() == -1) { // Only add once!
-			int id = entities.size();
+			int id = c.entities.size();
 			e.setId(id);
-			entities.add(e);
-			entitiesByName.put(e.getName(), e);
+			c.entities.add(e);
+			c.entitiesByName.put(e.getName(), e);
+			markRunnable(id);
 		}
 	}
 
@@ -498,7 +796,7 @@ public class CloudSim {
 		if (e == null) {
 			throw new IllegalArgumentException("Adding null entity.");
 		} else {
-			printMessage("Adding: " + e.getName());
+			LOG.debug("Adding: {}", e.getName());
 		}
 		e.startEntity();
 	}
@@ -510,54 +808,59 @@ public class CloudSim {
 	 * @return true, if successful otherwise
 	 */
 	public static boolean runClockTick() {
+		return runClockTick(context(), Double.POSITIVE_INFINITY, Long.MAX_VALUE) < 0;
+	}
+
+	/**
+	 * Runs the entities with something to process, then processes the future events of the next
+	 * time, within the given limits.
+	 * 
+	 * @param c the context
+	 * @param until the time after which no event is processed
+	 * @param maxEvents the largest number of events to process
+	 * @return the number of events processed, or -1 if there are no more future events
+	 */
+	private static long runClockTick(SimulationContext c, double until, long maxEvents) {
 		SimEntity ent;
-		boolean queue_empty;
 
-		int entities_size = entities.size();
+		if (c.profiler != null) {
+			c.profiler.sampleQueues(c.future.size(), c.deferred.size());
+		}
 
-		for (int i = 0; i < entities_size; i++) {
-			ent = entities.get(i);
+		// Only entities with something to process are visited, in id order
+		for (int i = c.runnable.nextSetBit(0); i >= 0; i = c.runnable.nextSetBit(i + 1)) {
+			ent = c.entities.get(i);
 			if (ent.getState() == SimEntity.RUNNABLE) {
 				ent.run();
 			}
+			if (ent.getState() != SimEntity.RUNNABLE
+					|| (ent.getEventBuffer() == null && c.deferred.size(i) == 0)) {
+				c.runnable.clear(i);
+			}
 		}
 
 		// If there are more future events then deal with them
-		if (future.size() > 0) {
-			List<SimEvent> toRemove = new ArrayList<SimEvent>();
-			Iterator<SimEvent> fit = future.iterator();
-			queue_empty = false;
-			SimEvent first = fit.next();
-			processEvent(first);
-			future.remove(first);
-
-			fit = future.iterator();
-
-			// Check if next events are at same time...
-			boolean trymore = fit.hasNext();
-			while (trymore) {
-				SimEvent next = fit.next();
-				if (next.eventTime() == first.eventTime()) {
-					processEvent(next);
-					toRemove.add(next);
-					trymore = fit.hasNext();
-				} else {
-					trymore = false;
-				}
-			}
-
-			future.removeAll(toRemove);
-
-		} else {
-			queue_empty = true;
-			running = false;
+		if (c.future.size() == 0) {
+			c.running = false;
 			printMessage("Simulation: No more future events");
+			return -1;
+		}
+		SimEvent next = c.future.peek();
+		double time = next.eventTime();
+		if (time > until) {
+			return 0;
 		}
 
-		return queue_empty;
+		// Drain the events at same time, up to the limit
+		long processed = 0;
+		while (processed < maxEvents && next != null && next.eventTime() == time) {
+			processEvent(c.future.poll());
+			processed++;
+			next = c.future.peek();
+		}
+		return processed;
 	}
 
-	/* myCode */
 //	public static boolean runClockTick() {
 //		SimEntity ent;
 //		boolean queue_empty;
@@ -620,6 +923,43 @@ public class CloudSim {
             System.out.print("Simulation completed.");
 	}
 
+	/**
+	 * Gets a new event, recycled from the event pool if pooling is enabled.
+	 */
+	private static SimEvent newEvent(int evtype, double time, int src, int dest, int tag, Object data) {
+		SimulationContext c = context();
+		if (c.eventPool == null) {
+			return new SimEvent(evtype, time, src, dest, tag, data);
+		}
+		return c.eventPool.acquire(evtype, time, src, dest, tag, data);
+	}
+
+	/**
+	 * Gives an event back to the event pool once it has been processed or cancelled. Entities must
+	 * not use the event afterwards. This method should <b>not</b> be called from user simulations.
+	 * 
+	 * @param e the event
+	 */
+	static void releaseEvent(SimEvent e) {
+		SimulationContext c = context();
+		if (c.eventPool != null) {
+			c.eventPool.release(e);
+		}
+	}
+
+	/**
+	 * Marks an entity as having work to do in the next clock tick. It is called when the entity
+	 * becomes runnable or receives a deferred event.
+	 * 
+	 * @param id the entity id
+	 */
+	static void markRunnable(int id) {
+		SimulationContext c = context();
+		if (c.runnable != null && id >= 0) {
+			c.runnable.set(id);
+		}
+	}
+
 	/**
 	 * Used to hold an entity for some time.
 	 * 
@@ -627,9 +967,10 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void hold(int src, long delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
-		future.addEvent(e);
-		entities.get(src).setState(SimEntity.HOLDING);
+		SimulationContext c = context();
+		SimEvent e = newEvent(SimEvent.HOLD_DONE, c.clock + delay, src, -1, -1, null);
+		c.future.addEvent(e);
+		c.entities.get(src).setState(SimEntity.HOLDING);
 	}
 
 	/**
@@ -639,9 +980,10 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void pause(int src, double delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
-		future.addEvent(e);
-		entities.get(src).setState(SimEntity.HOLDING);
+		SimulationContext c = context();
+		SimEvent e = newEvent(SimEvent.HOLD_DONE, c.clock + delay, src, -1, -1, null);
+		c.future.addEvent(e);
+		c.entities.get(src).setState(SimEntity.HOLDING);
 	}
 
 	/**
@@ -655,16 +997,76 @@ public class CloudSim {
 	 */
 //        public static int eCounter=-1;
 	public static void send(int src, int dest, double delay, int tag, Object data) {
+		SimulationContext c = context();
 		if (delay < 0) {
 			throw new IllegalArgumentException("Send delay can't be negative.");
 		}
                    
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
+		SimEvent e = newEvent(SimEvent.SEND, c.clock + delay, src, dest, tag, data);
+		if (c.lookaheadAudit != null) {
+			c.lookaheadAudit.record(src, dest, tag, delay);
+		}
                 ////////////////////////////////////////////////////////////////////////////////added////////
                 
 //                e.CustomtoString(String.valueOf(++eCounter)+": Cloudsim(future queue event added)\n");
                 ////////////////////////////////////////////////////////////////////////////////////////////
-		future.addEvent(e);
+		c.future.addEvent(e);
+	}
+
+	/**
+	 * Used to send a coalesced timer event from an entity to itself. If the given timer event is
+	 * still in the future event queue, it is moved in place to the new time and no event is
+	 * created; otherwise a new event is sent. In both cases the event is ordered as a newly sent
+	 * event, so this is equivalent to cancelling the pending timer and sending a new one.
+	 * 
+	 * @param timer the previous event of the timer, or <tt>null</tt>
+	 * @param src the entity owning the timer
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 * @return the pending event of the timer
+	 */
+	public static SimEvent reschedule(SimEvent timer, int src, double delay, int tag, Object data) {
+		SimulationContext c = context();
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+
+		if (timer != null && isPending(timer) && c.future.remove(timer)) {
+			timer.reschedule(c.clock + delay, data);
+			c.future.addEvent(timer);
+			return timer;
+		}
+
+		SimEvent e = new SimEvent(SimEvent.SEND, c.clock + delay, src, src, tag, data);
+		e.pinned = true;
+		c.future.addEvent(e);
+		return e;
+	}
+
+	/**
+	 * Checks if an event is still in the future event queue.
+	 * 
+	 * @param e the event
+	 * @return true, if the event has not been delivered or cancelled yet
+	 */
+	public static boolean isPending(SimEvent e) {
+		return e.indexChain != null;
+	}
+
+	/**
+	 * Removes an event from the future event queue.
+	 * 
+	 * @param e the event
+	 * @return true, if the event was in the future event queue
+	 */
+	public static boolean cancel(SimEvent e) {
+		SimulationContext c = context();
+		if (isPending(e) && c.future.remove(e)) {
+			releaseEvent(e);
+			return true;
+		}
+		return false;
 	}
 
 	/**
@@ -677,12 +1079,16 @@ public class CloudSim {
 	 * @param data the data
 	 */
 	public static void sendFirst(int src, int dest, double delay, int tag, Object data) {
+		SimulationContext c = context();
 		if (delay < 0) {
 			throw new IllegalArgumentException("Send delay can't be negative.");
 		}
 
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
-                future.addEventFirst(e);
+		SimEvent e = newEvent(SimEvent.SEND, c.clock + delay, src, dest, tag, data);
+		if (c.lookaheadAudit != null) {
+			c.lookaheadAudit.record(src, dest, tag, delay);
+		}
+                c.future.addEventFirst(e);
 	}
 
 	/**
@@ -694,10 +1100,11 @@ public class CloudSim {
 	 * @param p the p
 	 */
 	public static void wait(int src, Predicate p) {
-		entities.get(src).setState(SimEntity.WAITING);
+		SimulationContext c = context();
+		c.entities.get(src).setState(SimEntity.WAITING);
 		if (p != SIM_ANY) {
 			// If a predicate has been used store it in order to check it
-			waitPredicates.put(src, p);
+			c.waitPredicates.put(src, p);
 		}
 	}
 
@@ -709,12 +1116,14 @@ public class CloudSim {
 	 * @return the int
 	 */
 	public static int waiting(int d, Predicate p) {
+		SimulationContext c = context();
+		if (p == SIM_ANY) {
+			return c.deferred.size(d);
+		}
 		int count = 0;
-		SimEvent event;
-		Iterator<SimEvent> iterator = deferred.iterator();
+		Iterator<SimEvent> iterator = c.deferred.iterator(d);
 		while (iterator.hasNext()) {
-			event = iterator.next();
-			if ((event.getDestination() == d) && (p.match(event))) {
+			if (p.match(iterator.next())) {
 				count++;
 			}
 		}
@@ -726,19 +1135,22 @@ public class CloudSim {
 	 * 
 	 * @param src the src
 	 * @param p the p
-	 * @return the sim event
+	 * @return the sim event, or <tt>null</tt> if no event matches
 	 */
 	public static SimEvent select(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iterator = deferred.iterator();
+		SimulationContext c = context();
+		if (p == SIM_ANY) {
+			return c.deferred.poll(src);
+		}
+		Iterator<SimEvent> iterator = c.deferred.iterator(src);
 		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestination() == src && p.match(ev)) {
+			SimEvent ev = iterator.next();
+			if (p.match(ev)) {
 				iterator.remove();
-				break;
+				return ev;
 			}
 		}
-		return ev;
+		return null;
 	}
 
 	/**
@@ -746,60 +1158,110 @@ public class CloudSim {
 	 * 
 	 * @param src the src
 	 * @param p the p
-	 * @return the sim event
+	 * @return the sim event, or <tt>null</tt> if no event matches
 	 */
 	public static SimEvent findFirstDeferred(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iterator = deferred.iterator();
+		SimulationContext c = context();
+		if (p == SIM_ANY) {
+			return c.deferred.peek(src);
+		}
+		Iterator<SimEvent> iterator = c.deferred.iterator(src);
 		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestination() == src && p.match(ev)) {
-				break;
+			SimEvent ev = iterator.next();
+			if (p.match(ev)) {
+				return ev;
 			}
 		}
-		return ev;
+		return null;
 	}
 
 	/**
-	 * Removes an event from the event queue.
+	 * Removes an event from the event queue. Events selected by a {@link PredicateType} are looked
+	 * up in the (source, tag) index of the queue; other predicates are matched against every event
+	 * of the queue.
 	 * 
 	 * @param src the src
 	 * @param p the p
-	 * @return the sim event
+	 * @return the sim event, or <tt>null</tt> if no event matches
 	 */
 	public static SimEvent cancel(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iter = future.iterator();
+		SimulationContext c = context();
+		if (p.getClass() == PredicateType.class) {
+			PredicateType predicate = (PredicateType) p;
+			SimEvent first = null;
+			for (int i = 0; i < predicate.getTagCount(); i++) {
+				SimEvent ev = c.future.first(src, predicate.getTag(i));
+				if (ev != null && (first == null || ev.compareTo(first) < 0)) {
+					first = ev;
+				}
+			}
+			if (first != null) {
+				c.future.remove(first);
+			}
+			return first;
+		}
+
+		Iterator<SimEvent> iter = c.future.iterator();
 		while (iter.hasNext()) {
-			ev = iter.next();
+			SimEvent ev = iter.next();
 			if (ev.getSource() == src && p.match(ev)) {
 				iter.remove();
-				break;
+				return ev;
 			}
 		}
-
-		return ev;
+		return null;
 	}
 
 	/**
 	 * Removes all events that match a given predicate from the future event queue returns true if
-	 * at least one event has been cancelled; false otherwise.
+	 * at least one event has been cancelled; false otherwise. Events selected by a
+	 * {@link PredicateType} are looked up in the (source, tag) index of the queue; other predicates
+	 * are matched against every event of the queue.
 	 * 
 	 * @param src the src
 	 * @param p the p
 	 * @return true, if successful
 	 */
 	public static boolean cancelAll(int src, Predicate p) {
-		SimEvent ev = null;
-		int previousSize = future.size();
-		Iterator<SimEvent> iter = future.iterator();
+		SimulationContext c = context();
+		if (p.getClass() == PredicateType.class) {
+			PredicateType predicate = (PredicateType) p;
+			boolean cancelled = false;
+			for (int i = 0; i < predicate.getTagCount(); i++) {
+				cancelled |= cancelAll(src, predicate.getTag(i));
+			}
+			return cancelled;
+		}
+
+		int previousSize = c.future.size();
+		Iterator<SimEvent> iter = c.future.iterator();
 		while (iter.hasNext()) {
-			ev = iter.next();
+			SimEvent ev = iter.next();
 			if (ev.getSource() == src && p.match(ev)) {
 				iter.remove();
+				releaseEvent(ev);
 			}
 		}
-		return previousSize < future.size();
+		return previousSize > c.future.size();
+	}
+
+	/**
+	 * Removes all events sent by an entity with a given tag from the future event queue. The events
+	 * are found through the (source, tag) index of the queue, without scanning it.
+	 * 
+	 * @param src the id of the source entity
+	 * @param tag the tag of the events
+	 * @return true, if at least one event has been cancelled
+	 */
+	public static boolean cancelAll(int src, int tag) {
+		SimulationContext c = context();
+		boolean cancelled = false;
+		SimEvent ev;
+		while ((ev = c.future.removeFirstIndexed(src, tag)) != null) {
+			releaseEvent(ev);
+			cancelled = true;
+		}
+		return cancelled;
 	}
 
 	//
@@ -812,13 +1274,23 @@ public class CloudSim {
 	 * @param e the e
 	 */
 	private static void processEvent(SimEvent e) {
+		SimulationContext c = context();
 		int dest, src;
 		SimEntity dest_ent;
 		// Update the system's clock
-		if (e.eventTime() < clock) {
+		if (e.eventTime() < c.clock) {
 			throw new IllegalArgumentException("Past event detected.");
 		}
-		clock = e.eventTime();
+		c.clock = e.eventTime();
+		if (c.eventTrace != null) {
+			c.eventTrace.record(e);
+		}
+		if (c.profiler != null) {
+			c.profiler.eventProcessed();
+		}
+		if (c.metrics != null) {
+			c.metrics.eventProcessed();
+		}
 
 		// Ok now process it
 		switch (e.getType()) {
@@ -827,6 +1299,7 @@ public class CloudSim {
 
 			case SimEvent.CREATE:
 				SimEntity newe = (SimEntity) e.getData();
+				releaseEvent(e);
 				addEntityDynamically(newe);
 				break;
 
@@ -837,19 +1310,22 @@ public class CloudSim {
 					throw new IllegalArgumentException("Attempt to send to a null entity detected.");
 				} else {
 					int tag = e.getTag();
-					dest_ent = entities.get(dest);
+					dest_ent = c.entities.get(dest);
 					if (dest_ent.getState() == SimEntity.WAITING) {
 						Integer destObj = Integer.valueOf(dest);
-						Predicate p = waitPredicates.get(destObj);
+						Predicate p = c.waitPredicates.get(destObj);
 						if ((p == null) || (tag == 9999) || (p.match(e))) {
-							dest_ent.setEventBuffer((SimEvent) e.clone());
+							// the event is owned by the kernel: no need for a copy
+							dest_ent.setEventBuffer(e);
 							dest_ent.setState(SimEntity.RUNNABLE);
-							waitPredicates.remove(destObj);
+							c.waitPredicates.remove(destObj);
 						} else {
-							deferred.addEvent(e);
+							c.deferred.addEvent(e);
+							markRunnable(dest);
 						}
 					} else {
-						deferred.addEvent(e);
+						c.deferred.addEvent(e);
+						markRunnable(dest);
 					}
 				}
 				break;
@@ -859,8 +1335,9 @@ public class CloudSim {
 				if (src < 0) {
 					throw new IllegalArgumentException("Null entity holding.");
 				} else {
-					entities.get(src).setState(SimEntity.RUNNABLE);
+					c.entities.get(src).setState(SimEntity.RUNNABLE);
 				}
+				releaseEvent(e);
 				break;
 
 			default:
@@ -873,9 +1350,13 @@ public class CloudSim {
 	 * simulations.
 	 */
 	public static void runStart() {
-		running = true;
+		SimulationContext c = context();
+		c.running = true;
+		if (c.profiler != null) {
+			c.profiler.start();
+		}
 		// Start all the entities
-		for (SimEntity ent : entities) {
+		for (SimEntity ent : c.entities) {
 			ent.startEntity();
 		}
 
@@ -889,7 +1370,7 @@ public class CloudSim {
 	 * @return if the simulation is still running, otherwise
 	 */
 	public static boolean running() {
-		return running;
+		return context().running;
 	}
 
 	/**
@@ -898,8 +1379,11 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation() {
-		paused = true;
-		return paused;
+		SimulationContext c = context();
+		synchronized (c) {
+			c.paused = true;
+		}
+		return true;
 	}
 
 	/**
@@ -909,10 +1393,24 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation(long time) {
-		if (time <= clock) {
+		return pauseSimulation((double) time);
+	}
+
+	/**
+	 * This method is called if one wants to pause the simulation at a given time. The simulation
+	 * is paused once the events up to that time have been processed, and its clock is set to the
+	 * time.
+	 * 
+	 * @param time the time at which the simulation has to be paused
+	 * @return true, if successful otherwise.
+	 * @see #awaitPause()
+	 */
+	public static boolean pauseSimulation(double time) {
+		SimulationContext c = context();
+		if (time <= c.clock) {
 			return false;
 		} else {
-			pauseAt = time;
+			c.pauseAt = time;
 		}
 		return true;
 	}
@@ -923,13 +1421,19 @@ public class CloudSim {
 	 * @return if the simulation has been restarted or or otherwise.
 	 */
 	public static boolean resumeSimulation() {
-		paused = false;
+		SimulationContext c = context();
+		synchronized (c) {
+			c.paused = false;
 
-		if (pauseAt <= clock) {
-			pauseAt = -1;
+			if (c.pauseAt <= c.clock) {
+				c.pauseAt = -1;
+			}
+			c.resumes++;
+			c.suspended = false;
+			c.notifyAll();
 		}
 
-		return !paused;
+		return true;
 	}
 
 	/**
@@ -939,43 +1443,226 @@ public class CloudSim {
 	 * @return the double last clock value
 	 */
 	public static double run() {
-		if (!running) {
+		SimulationContext c = context();
+		if (!c.running) {
 			runStart();
 		}
+		advance(c, Double.POSITIVE_INFINITY, Long.MAX_VALUE);
+
+		double clock = clock();
+
+		finishSimulation();
+		runStop();
+
+		return clock;
+	}
+
+	/**
+	 * Runs the simulation up to a given time, on the calling thread, and returns without finishing
+	 * it: the events up to that time are processed and handled by the entities, and the clock is
+	 * advanced to the time. The simulation is started by the first call; it is continued by the
+	 * next calls to this method or to {@link #step(int)}, and run to completion by
+	 * {@link #startSimulation()}. This lets a driver, such as a controller tuning the policies of
+	 * the simulated system, observe and change the simulation between slices of simulated time.
+	 * 
+	 * @param time the simulation time to stop at
+	 * @return <tt>true</tt> if the simulation can go on, <tt>false</tt> if it is over (it has then
+	 *         been finished, as by {@link #startSimulation()})
+	 */
+	public static boolean runUntil(double time) {
+		return runSlice(time, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Processes a given number of future events, on the calling thread, and returns without
+	 * finishing the simulation; the entities handle the processed events before this method
+	 * returns. See {@link #runUntil(double)}.
+	 * 
+	 * @param events the number of events to process
+	 * @return <tt>true</tt> if the simulation can go on, <tt>false</tt> if it is over
+	 */
+	public static boolean step(int events) {
+		if (events <= 0) {
+			throw new IllegalArgumentException("The number of events should be positive, but is:" + events);
+		}
+		return runSlice(Double.POSITIVE_INFINITY, events);
+	}
+
+	/**
+	 * Runs a slice of the simulation.
+	 * 
+	 * @param until the time to stop at
+	 * @param maxEvents the number of events to process
+	 * @return <tt>true</tt> if the simulation can go on
+	 */
+	private static boolean runSlice(double until, long maxEvents) {
+		SimulationContext c = context();
+		if (c.entities == null) {
+			throw new IllegalStateException("The simulation is not initialised");
+		}
+		if (!c.running) {
+			runStart();
+		}
+		if (advance(c, until, maxEvents)) {
+			finishSimulation();
+			runStop();
+			return false;
+		}
+		if (until != Double.POSITIVE_INFINITY && until > c.clock) {
+			c.clock = until;
+		}
+		return true;
+	}
+
+	/**
+	 * Runs clock ticks until the simulation is over or a limit is reached. The simulation is
+	 * suspended on the way if it is paused.
+	 * 
+	 * @param c the context
+	 * @param until the time after which no event is processed
+	 * @param maxEvents the largest number of events to process
+	 * @return <tt>true</tt> if the simulation is over, <tt>false</tt> if a limit was reached
+	 */
+	private static boolean advance(SimulationContext c, double until, long maxEvents) {
+		long remaining = maxEvents;
 		while (true) {
-			if (runClockTick() || abruptTerminate) {
-				break;
+			// the simulation pauses like a slice ends, once the events up to the time are handled
+			double pauseAt = c.pauseAt;
+			double limit = pauseAt >= 0 && pauseAt < until ? pauseAt : until;
+			long processed = runClockTick(c, limit, remaining);
+			if (processed < 0 || c.abruptTerminate) {
+				return true;
+			}
+			remaining -= processed;
+
+			// all the events up to the checkpoint time have left the future queue
+			if (c.checkpointFile != null && (c.future.size() == 0 || c.future.peek().eventTime() > c.checkpointAt)) {
+				writeCheckpoint(c);
 			}
 
 			// this block allows termination of simulation at a specific time
-			if (terminateAt > 0.0 && clock >= terminateAt) {
+			if (c.terminateAt >= 0.0 && c.clock >= c.terminateAt) {
+				c.clock = c.terminateAt;
 				terminateSimulation();
-				clock = terminateAt;
-				break;
+				return true;
 			}
 
-			if (pauseAt != -1
-					&& ((future.size() > 0 && clock <= pauseAt && pauseAt <= future.iterator().next()
-							.eventTime()) || future.size() == 0 && pauseAt <= clock)) {
+			// the tick that reached a limit has run the entities on the events processed so far
+			boolean limitReached = processed == 0 && c.future.peek().eventTime() > limit;
+			if (limitReached && limit == pauseAt) {
+				c.clock = pauseAt;
 				pauseSimulation();
-				clock = pauseAt;
 			}
 
-			while (paused) {
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
+			if (c.paused) {
+				awaitResume(c);
+			}
+
+			if (processed == 0 && (remaining == 0 || limitReached && limit == until)) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Suspends the simulation thread until the simulation is resumed. Interrupting the thread
+	 * terminates the simulation.
+	 * 
+	 * @param c the context
+	 */
+	private static void awaitResume(SimulationContext c) {
+		synchronized (c) {
+			long resumes = c.resumes;
+			c.suspended = true;
+			c.notifyAll();
+			try {
+				while (c.paused && c.resumes == resumes) {
+					c.wait();
 				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				c.abruptTerminate = true;
+			} finally {
+				c.suspended = false;
 			}
 		}
+	}
 
-		double clock = clock();
+	/**
+	 * Waits until the simulation thread has actually paused, after a call to
+	 * {@link #pauseSimulation()} or once the time given to {@link #pauseSimulation(double)} is
+	 * reached, or until the simulation is over. The simulation can then be inspected and changed
+	 * safely until {@link #resumeSimulation()} is called; a driver stepping through the
+	 * simulation sets the next pause time before resuming it. The calling thread must be bound to
+	 * the context of the simulation (see {@link #setContext(SimulationContext)}).
+	 * 
+	 * @return <tt>true</tt> if the simulation is paused, <tt>false</tt> if it is over
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public static boolean awaitPause() throws InterruptedException {
+		SimulationContext c = context();
+		synchronized (c) {
+			while (!c.suspended && !c.finished) {
+				c.wait();
+			}
+			return c.suspended;
+		}
+	}
 
-		finishSimulation();
-		runStop();
+	/**
+	 * Schedules a checkpoint of the current simulation. The whole simulation state is saved to a file
+	 * between two clock ticks, as soon as every event up to the given time has been taken from the
+	 * future event queue; the simulation then goes on normally. The checkpoint can be restored later
+	 * with {@link #restoreCheckpoint(String)}, possibly several times, to run different policies
+	 * from the same state.
+	 * 
+	 * @param time the simulation time of the checkpoint
+	 * @param fileName the name of the file
+	 * @see SimulationCheckpoint
+	 */
+	public static void checkpointAt(double time, String fileName) {
+		SimulationContext c = context();
+		c.checkpointAt = time;
+		c.checkpointFile = fileName;
+	}
 
-		return clock;
+	/**
+	 * Restores a checkpoint and binds it to the calling thread. The simulation is resumed where it
+	 * was saved by calling {@link #startSimulation()}; its entities can be looked up by name (see
+	 * {@link #getEntity(String)}) and reconfigured before that.
+	 * 
+	 * @param fileName the name of the file
+	 * @return the restored context
+	 * @throws IOException if the checkpoint can not be read
+	 * @see #checkpointAt(double, String)
+	 */
+	public static SimulationContext restoreCheckpoint(String fileName) throws IOException {
+		SimulationContext c = SimulationCheckpoint.read(fileName);
+		if (c.eventPool == null && eventPoolingEnabled) {
+			c.eventPool = new SimEventPool(eventPoolDebugEnabled);
+		}
+		c.eventTrace = openEventTrace();
+		c.profiler = profilerEnabled ? new KernelProfiler() : null;
+		c.metrics = jmxEnabled ? new SimulationMetrics(c) : null;
+		setContext(c);
+		LOG.info("Simulation: Restored checkpoint {} at time {}", fileName, c.clock);
+		return c;
+	}
+
+	/**
+	 * Writes the checkpoint scheduled in a context.
+	 * 
+	 * @param c the context
+	 */
+	private static void writeCheckpoint(SimulationContext c) {
+		String fileName = c.checkpointFile;
+		c.checkpointFile = null;
+		try {
+			SimulationCheckpoint.write(c, fileName);
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not write the checkpoint " + fileName, e);
+		}
+		LOG.info("Simulation: Saved checkpoint {} at time {}", fileName, c.clock);
 	}
 
 	/**
@@ -983,39 +1670,68 @@ public class CloudSim {
 	 * in user simulations.
 	 */
 	public static void finishSimulation() {
+		SimulationContext c = context();
 		// Allow all entities to exit their body method
-		if (!abruptTerminate) {
-			for (SimEntity ent : entities) {
+		if (!c.abruptTerminate) {
+			for (SimEntity ent : c.entities) {
 				if (ent.getState() != SimEntity.FINISHED) {
 					ent.run();
 				}
 			}
 		}
 
-		for (SimEntity ent : entities) {
+		for (SimEntity ent : c.entities) {
 			ent.shutdownEntity();
 		}
 
+		if (c.eventTrace != null) {
+			try {
+				c.eventTrace.close(c.entities);
+			} catch (IOException e) {
+				LOG.error("Could not write the event trace: {}", e.getMessage());
+			}
+			c.eventTrace = null;
+		}
+
+		if (c.profiler != null) {
+			c.profiler.stop();
+			PrintStream output = profilerOutput != null ? profilerOutput : System.out;
+			output.println(c.profiler.getReport());
+		}
+
+		if (c.metrics != null) {
+			c.metrics.unregisterAll();
+			c.metrics = null;
+		}
+
 		// reset all static variables
 		// Private data members
-		entities = null;
-		entitiesByName = null;
-		future = null;
-		deferred = null;
-		clock = 0L;
-		running = false;
-
-		waitPredicates = null;
-		paused = false;
-		pauseAt = -1;
-		abruptTerminate = false;
+		c.entities = null;
+		c.entitiesByName = null;
+		c.future = null;
+		c.deferred = null;
+		c.clock = 0L;
+		c.running = false;
+
+		c.waitPredicates = null;
+		c.runnable = null;
+		c.eventPool = null;
+		c.paused = false;
+		c.pauseAt = -1;
+		c.terminateAt = -1;
+		c.abruptTerminate = false;
+
+		synchronized (c) {
+			c.finished = true;
+			c.notifyAll();
+		}
 	}
 
 	/**
 	 * Abruptally terminate.
 	 */
 	public static void abruptallyTerminate() {
-		abruptTerminate = true;
+		context().abruptTerminate = true;
 	}
 
 	/**
@@ -1024,7 +1740,7 @@ public class CloudSim {
 	 * @param message the message
 	 */
 	private static void printMessage(String message) {
-		Log.printLine(message);
+		LOG.info(message);
 	}
 
 	/**
@@ -1033,7 +1749,7 @@ public class CloudSim {
 	 * @return true, if is paused
 	 */
 	public static boolean isPaused() {
-		return paused;
+		return context().paused;
 	}
 
 }
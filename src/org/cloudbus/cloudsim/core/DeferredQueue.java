@@ -8,81 +8,256 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.ListIterator;
+import java.util.NoSuchElementException;
 
 /**
- * This class implements the deferred event queue used by {@link Simulation}. The event queue uses a
- * linked list to store the events.
- * 
+ * This class implements the deferred event queue used by {@link Simulation}. The events are kept
+ * in one queue per destination entity, indexed by the entity id, so that an entity finds its own
+ * events without scanning the events of the others. Each queue is ordered by event time; events
+ * with the same time keep their arrival order.
+ *
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  * @see Simulation
  * @see SimEvent
  */
-public class DeferredQueue {
+public class DeferredQueue implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 
-	/** The list. */
-	private final List<SimEvent> list = new LinkedList<SimEvent>();
+	/** The queues, by destination entity id. */
+	private EventList[] lists = new EventList[16];
 
-	/** The max time. */
-	private double maxTime = -1;
+	/** The total number of events. */
+	private int size = 0;
 
 	/**
 	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order
 	 * of the events.
-	 * 
+	 *
 	 * @param newEvent The event to be added to the queue.
 	 */
 	public void addEvent(SimEvent newEvent) {
-		// The event has to be inserted as the last of all events
-		// with the same event_time(). Yes, this matters.
-		double eventTime = newEvent.eventTime();
-		if (eventTime >= maxTime) {
-			list.add(newEvent);
-			maxTime = eventTime;
-			return;
+		int dest = newEvent.getDestination();
+		if (dest >= lists.length) {
+			lists = Arrays.copyOf(lists, Math.max(dest + 1, lists.length * 2));
 		}
+		EventList list = lists[dest];
+		if (list == null) {
+			list = new EventList();
+			lists[dest] = list;
+		}
+		list.add(newEvent);
+		size++;
+	}
 
-		ListIterator<SimEvent> iterator = list.listIterator();
-		SimEvent event;
-		while (iterator.hasNext()) {
-			event = iterator.next();
-			if (event.eventTime() > eventTime) {
-				iterator.previous();
-				iterator.add(newEvent);
-				return;
-			}
+	/**
+	 * Returns the first event sent to an entity, without removing it.
+	 *
+	 * @param dest the id of the destination entity
+	 * @return the event, or <tt>null</tt> if there is none
+	 */
+	public SimEvent peek(int dest) {
+		EventList list = getList(dest);
+		return list == null || list.size() == 0 ? null : list.events[list.head];
+	}
+
+	/**
+	 * Removes and returns the first event sent to an entity.
+	 *
+	 * @param dest the id of the destination entity
+	 * @return the event, or <tt>null</tt> if there is none
+	 */
+	public SimEvent poll(int dest) {
+		EventList list = getList(dest);
+		if (list == null || list.size() == 0) {
+			return null;
 		}
+		size--;
+		return list.remove(list.head);
+	}
 
-		list.add(newEvent);
+	/**
+	 * Returns an iterator to the events sent to an entity, in time order. The iterator supports
+	 * removal.
+	 *
+	 * @param dest the id of the destination entity
+	 * @return the iterator
+	 */
+	public Iterator<SimEvent> iterator(int dest) {
+		final EventList list = getList(dest);
+		return new Iterator<SimEvent>() {
+
+			private int next = list == null ? 0 : list.head;
+
+			private boolean removable = false;
+
+			@Override
+			public boolean hasNext() {
+				return list != null && next < list.tail;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				removable = true;
+				return list.events[next++];
+			}
+
+			@Override
+			public void remove() {
+				if (!removable) {
+					throw new IllegalStateException();
+				}
+				removable = false;
+				next--;
+				list.remove(next);
+				size--;
+				if (next < list.head) {
+					next = list.head;
+				}
+			}
+		};
 	}
 
 	/**
-	 * Returns an iterator to the events in the queue.
-	 * 
+	 * Returns an iterator to the events in the queue, grouped by destination entity. The iterator
+	 * does not support removal.
+	 *
 	 * @return the iterator
 	 */
 	public Iterator<SimEvent> iterator() {
-		return list.iterator();
+		return new Iterator<SimEvent>() {
+
+			private int dest = -1;
+
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				while (dest < lists.length && (dest < 0 || lists[dest] == null || next >= lists[dest].tail)) {
+					dest++;
+					if (dest < lists.length && lists[dest] != null) {
+						next = lists[dest].head;
+					}
+				}
+				return dest < lists.length;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return lists[dest].events[next++];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
 	}
 
 	/**
 	 * Returns the size of this event queue.
-	 * 
+	 *
 	 * @return the number of events in the queue.
 	 */
 	public int size() {
-		return list.size();
+		return size;
+	}
+
+	/**
+	 * Returns the number of events sent to an entity.
+	 *
+	 * @param dest the id of the destination entity
+	 * @return the number of events
+	 */
+	public int size(int dest) {
+		EventList list = getList(dest);
+		return list == null ? 0 : list.size();
 	}
 
 	/**
 	 * Clears the queue.
 	 */
 	public void clear() {
-		list.clear();
+		Arrays.fill(lists, null);
+		size = 0;
+	}
+
+	private EventList getList(int dest) {
+		return dest >= 0 && dest < lists.length ? lists[dest] : null;
+	}
+
+	/**
+	 * The events sent to one entity: an array of events sorted by time, consumed from its head.
+	 */
+	private static final class EventList implements Serializable {
+
+		/** The Constant serialVersionUID. */
+		private static final long serialVersionUID = 1L;
+
+		/** The events; the valid ones are in [head, tail). */
+		private SimEvent[] events = new SimEvent[8];
+
+		/** The position of the first event. */
+		private int head;
+
+		/** The position after the last event. */
+		private int tail;
+
+		int size() {
+			return tail - head;
+		}
+
+		/**
+		 * Inserts the event as the last of all events with the same time. Yes, this matters.
+		 */
+		void add(SimEvent event) {
+			double eventTime = event.eventTime();
+			int pos = tail;
+			while (pos > head && events[pos - 1].eventTime() > eventTime) {
+				pos--;
+			}
+
+			if (tail == events.length) {
+				if (head > events.length / 2) {
+					System.arraycopy(events, head, events, 0, tail - head);
+					Arrays.fill(events, tail - head, tail, null);
+					pos -= head;
+					tail -= head;
+					head = 0;
+				} else {
+					events = Arrays.copyOf(events, events.length * 2);
+				}
+			}
+			System.arraycopy(events, pos, events, pos + 1, tail - pos);
+			events[pos] = event;
+			tail++;
+		}
+
+		SimEvent remove(int pos) {
+			SimEvent event = events[pos];
+			if (pos == head) {
+				events[head++] = null;
+			} else {
+				System.arraycopy(events, pos + 1, events, pos, tail - pos - 1);
+				events[--tail] = null;
+			}
+			if (head == tail) {
+				head = 0;
+				tail = 0;
+			}
+			return event;
+		}
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,326 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class reads an event trace written by {@link EventTraceRecorder}. The records are read
+ * from memory mappings of the file, in regions of 16M records so that a trace can be larger than
+ * 2 GB, and accessed by index. It is also a command line tool printing
+ * the records, one per line, optionally filtered by entity, tag or time:
+ *
+ * <pre>
+ * java org.cloudbus.cloudsim.core.EventTraceReader trace.bin [-entity id|name] [-tag tag]
+ *         [-from time] [-to time] [-limit n]
+ * </pre>
+ *
+ * An entity matches the events it sent or received.
+ */
+public class EventTraceReader {
+
+	/** The number of records of each mapped region of the file. */
+	private static final int REGION_RECORDS = 1 << 24;
+
+	/** The records, in regions of {@link #REGION_RECORDS} records. */
+	private final ByteBuffer[] regions;
+
+	/** The number of records. */
+	private final long count;
+
+	/** The names of the entities, by id, or <tt>null</tt> if the simulation did not finish. */
+	private final String[] names;
+
+	/**
+	 * Opens a trace.
+	 *
+	 * @param fileName the name of the trace file
+	 * @throws IOException if the file can not be read or is not an event trace
+	 */
+	public EventTraceReader(String fileName) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < EventTraceRecorder.HEADER_SIZE) {
+				throw new IOException(fileName + " is not an event trace");
+			}
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, EventTraceRecorder.HEADER_SIZE);
+			if (header.getInt() != EventTraceRecorder.MAGIC) {
+				throw new IOException(fileName + " is not an event trace");
+			}
+			int version = header.getInt();
+			if (version != EventTraceRecorder.VERSION) {
+				throw new IOException("Unsupported event trace version " + version + " in " + fileName);
+			}
+			count = header.getLong();
+			long traceEnd = header.getLong();
+			long end = EventTraceRecorder.HEADER_SIZE + count * EventTraceRecorder.RECORD_SIZE;
+			if (count < 0 || end > size || traceEnd > size) {
+				throw new IOException("Event trace " + fileName + " is truncated");
+			}
+
+			regions = new ByteBuffer[(int) ((count + REGION_RECORDS - 1) / REGION_RECORDS)];
+			for (int i = 0; i < regions.length; i++) {
+				long first = (long) i * REGION_RECORDS;
+				long records = Math.min(REGION_RECORDS, count - first);
+				regions[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+						EventTraceRecorder.HEADER_SIZE + first * EventTraceRecorder.RECORD_SIZE,
+						records * EventTraceRecorder.RECORD_SIZE);
+			}
+
+			// the names are only appended once the simulation has finished
+			if (traceEnd >= end + 4) {
+				ByteBuffer table = ByteBuffer.allocate((int) (traceEnd - end));
+				while (table.hasRemaining()) {
+					if (channel.read(table, end + table.position()) < 0) {
+						throw new IOException("Event trace " + fileName + " is truncated");
+					}
+				}
+				table.flip();
+				names = new String[table.getInt()];
+				for (int i = 0; i < names.length; i++) {
+					byte[] name = new byte[table.getShort() & 0xFFFF];
+					table.get(name);
+					names[i] = new String(name, StandardCharsets.UTF_8);
+				}
+			} else {
+				names = null;
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of records.
+	 *
+	 * @return the number of records
+	 */
+	public long size() {
+		return count;
+	}
+
+	/**
+	 * Gets the time of an event.
+	 *
+	 * @param i the index of the record
+	 * @return the simulation time at which the event was processed
+	 */
+	public double getTime(long i) {
+		return region(i).getDouble(offset(i));
+	}
+
+	/**
+	 * Gets the type of an event, such as {@link SimEvent#SEND}.
+	 *
+	 * @param i the index of the record
+	 * @return the type
+	 */
+	public int getType(long i) {
+		return region(i).getInt(offset(i) + 8);
+	}
+
+	/**
+	 * Gets the source of an event.
+	 *
+	 * @param i the index of the record
+	 * @return the id of the entity that sent the event
+	 */
+	public int getSource(long i) {
+		return region(i).getInt(offset(i) + 12);
+	}
+
+	/**
+	 * Gets the destination of an event.
+	 *
+	 * @param i the index of the record
+	 * @return the id of the entity the event was sent to
+	 */
+	public int getDestination(long i) {
+		return region(i).getInt(offset(i) + 16);
+	}
+
+	/**
+	 * Gets the tag of an event.
+	 *
+	 * @param i the index of the record
+	 * @return the tag
+	 */
+	public int getTag(long i) {
+		return region(i).getInt(offset(i) + 20);
+	}
+
+	/**
+	 * Gets the payload id of an event, i.e. the identity hash code of its data.
+	 *
+	 * @param i the index of the record
+	 * @return the payload id, or 0 if the event had no data
+	 */
+	public int getPayloadId(long i) {
+		return region(i).getInt(offset(i) + 24);
+	}
+
+	/**
+	 * Checks if the trace has the names of the entities, which are only written once the
+	 * simulation has finished.
+	 *
+	 * @return true, if the names are known
+	 */
+	public boolean hasEntityNames() {
+		return names != null;
+	}
+
+	/**
+	 * Gets the name of an entity.
+	 *
+	 * @param id the id of the entity
+	 * @return the name, or <tt>null</tt> if it is not known
+	 */
+	public String getEntityName(int id) {
+		return names == null || id < 0 || id >= names.length ? null : names[id];
+	}
+
+	/**
+	 * Gets the id of an entity.
+	 *
+	 * @param name the name of the entity
+	 * @return the id, or -1 if it is not known
+	 */
+	public int getEntityId(String name) {
+		if (names != null) {
+			for (int i = 0; i < names.length; i++) {
+				if (names[i].equals(name)) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	private ByteBuffer region(long i) {
+		if (i < 0 || i >= count) {
+			throw new IndexOutOfBoundsException("Record " + i + " of " + count);
+		}
+		return regions[(int) (i / REGION_RECORDS)];
+	}
+
+	private static int offset(long i) {
+		return (int) (i % REGION_RECORDS) * EventTraceRecorder.RECORD_SIZE;
+	}
+
+	private String entity(int id) {
+		String name = getEntityName(id);
+		return name == null ? Integer.toString(id) : name;
+	}
+
+	private static String type(int type) {
+		switch (type) {
+			case SimEvent.SEND:
+				return "SEND";
+			case SimEvent.HOLD_DONE:
+				return "HOLD_DONE";
+			case SimEvent.CREATE:
+				return "CREATE";
+			default:
+				return Integer.toString(type);
+		}
+	}
+
+	/**
+	 * Prints the records of a trace.
+	 *
+	 * @param args the trace file followed by the options
+	 * @throws IOException if the trace can not be read
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: EventTraceReader <trace file> [-entity id|name] [-tag tag] [-from time]"
+					+ " [-to time] [-limit n]");
+			System.exit(1);
+		}
+		EventTraceReader trace = new EventTraceReader(args[0]);
+		String entityArg = null;
+		int tag = Integer.MIN_VALUE;
+		double from = Double.NEGATIVE_INFINITY;
+		double to = Double.POSITIVE_INFINITY;
+		long limit = Long.MAX_VALUE;
+		for (int i = 1; i < args.length; i += 2) {
+			if (i + 1 == args.length) {
+				throw new IllegalArgumentException("Missing value of option " + args[i]);
+			}
+			String value = args[i + 1];
+			switch (args[i]) {
+				case "-entity":
+					entityArg = value;
+					break;
+				case "-tag":
+					tag = Integer.parseInt(value);
+					break;
+				case "-from":
+					from = Double.parseDouble(value);
+					break;
+				case "-to":
+					to = Double.parseDouble(value);
+					break;
+				case "-limit":
+					limit = Long.parseLong(value);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		int entity = -1;
+		if (entityArg != null) {
+			entity = trace.getEntityId(entityArg);
+			if (entity < 0) {
+				try {
+					entity = Integer.parseInt(entityArg);
+				} catch (NumberFormatException e) {
+					if (!trace.hasEntityNames()) {
+						throw new IllegalArgumentException("The trace has no entity names, since the simulation did not"
+								+ " finish: select the entity " + entityArg + " by id");
+					}
+					throw new IllegalArgumentException("Unknown entity " + entityArg);
+				}
+			}
+		}
+
+		PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out,
+				StandardCharsets.UTF_8), 1 << 16));
+		out.println("time\ttype\tsource\tdestination\ttag\tpayload");
+		long printed = 0;
+		for (long i = 0; i < trace.size() && printed < limit; i++) {
+			double time = trace.getTime(i);
+			if (time < from) {
+				continue;
+			}
+			if (time > to) {
+				break;
+			}
+			int src = trace.getSource(i);
+			int dest = trace.getDestination(i);
+			if (entity >= 0 && src != entity && dest != entity) {
+				continue;
+			}
+			if (tag != Integer.MIN_VALUE && trace.getTag(i) != tag) {
+				continue;
+			}
+			out.println(time + "\t" + type(trace.getType(i)) + "\t" + trace.entity(src) + "\t" + trace.entity(dest)
+					+ "\t" + trace.getTag(i) + "\t" + Integer.toHexString(trace.getPayloadId(i)));
+			printed++;
+		}
+		out.flush();
+	}
+
+}
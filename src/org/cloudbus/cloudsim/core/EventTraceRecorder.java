@@ -0,0 +1,181 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * This class records every event processed by the kernel to a binary file, for offline analysis
+ * of a run with {@link EventTraceReader}. The records have a fixed width and are first written
+ * to a preallocated buffer; when the buffer is full, the region of the file following the
+ * records already written is mapped and the buffer is copied to it at once, so that recording an
+ * event costs a few stores and the simulation only makes a system call every time the buffer
+ * fills. The buffer is linear, not a ring: it is flushed as a whole when it is full, and every
+ * event of the run is kept. The file grows by the size of the records flushed, and so ends with
+ * the last record or, once the simulation has finished, the names.
+ * <p>
+ * The file starts with a header (magic number, format version, number of records, end of the
+ * trace) followed by the records and, once the simulation has finished, by the names of the
+ * entities:
+ *
+ * <pre>
+ * record  := time (double) type (int) source (int) destination (int) tag (int) payload (int)
+ * names   := count (int) { length (short) UTF-8 bytes }
+ * </pre>
+ *
+ * The end of the trace recorded in the header is 0 until the names are written.
+ *
+ * The payload id is the identity hash code of the data of the event, or 0 if it has none; it
+ * tells the events carrying the same object apart within a run, not across runs.
+ *
+ * @see CloudSim#setEventTraceFile(String)
+ */
+public class EventTraceRecorder {
+
+	/** The magic number starting a trace file ("SSTR"). */
+	static final int MAGIC = 0x53535452;
+
+	/** The version of the file format. */
+	static final int VERSION = 2;
+
+	/** The size of the header: magic number, version, number of records and end of the trace. */
+	static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+
+	/** The size of a record. */
+	static final int RECORD_SIZE = 8 + 4 + 4 + 4 + 4 + 4;
+
+	/** The file channel. */
+	private final FileChannel channel;
+
+	/** The buffer the records are written to. */
+	private final ByteBuffer buffer;
+
+	/** The mapped header of the file. */
+	private final MappedByteBuffer header;
+
+	/** The number of records flushed to the file. */
+	private long flushed = 0;
+
+	/**
+	 * Creates a recorder buffering 64K records.
+	 *
+	 * @param fileName the name of the trace file, which is overwritten
+	 * @throws IOException if the file can not be created
+	 */
+	public EventTraceRecorder(String fileName) throws IOException {
+		this(fileName, 1 << 16);
+	}
+
+	/**
+	 * Creates a recorder.
+	 *
+	 * @param fileName the name of the trace file, which is overwritten
+	 * @param bufferedRecords the number of records buffered before they are flushed to the file
+	 * @throws IOException if the file can not be created
+	 */
+	public EventTraceRecorder(String fileName, int bufferedRecords) throws IOException {
+		if (bufferedRecords <= 0) {
+			throw new IllegalArgumentException("The number of buffered records should be positive, but is:"
+					+ bufferedRecords);
+		}
+		channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		buffer = ByteBuffer.allocate(bufferedRecords * RECORD_SIZE);
+		header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+		header.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, 0).putLong(16, 0);
+	}
+
+	/**
+	 * Records an event.
+	 *
+	 * @param e the event, just taken from the future queue
+	 */
+	void record(SimEvent e) {
+		if (!buffer.hasRemaining()) {
+			flush();
+		}
+		Object data = e.getData();
+		buffer.putDouble(e.eventTime()).putInt(e.getType()).putInt(e.getSource()).putInt(e.getDestination())
+				.putInt(e.getTag()).putInt(data == null ? 0 : System.identityHashCode(data));
+	}
+
+	/**
+	 * Gets the number of events recorded so far.
+	 *
+	 * @return the number of records
+	 */
+	public long getRecordCount() {
+		return flushed + buffer.position() / RECORD_SIZE;
+	}
+
+	/**
+	 * Copies the buffered records to the file and updates the number of records of the header, so
+	 * that the trace can be read even if the simulation does not finish.
+	 */
+	void flush() {
+		try {
+			buffer.flip();
+			if (buffer.hasRemaining()) {
+				channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + flushed * RECORD_SIZE, buffer.remaining())
+						.put(buffer);
+			}
+			flushed += buffer.position() / RECORD_SIZE;
+			buffer.clear();
+			header.putLong(8, flushed);
+		} catch (IOException ex) {
+			throw new IllegalStateException("Could not write the event trace", ex);
+		}
+	}
+
+	/**
+	 * Flushes the records, appends the names of the entities and records the end of the trace.
+	 *
+	 * @param entities the entities of the simulation, by id
+	 * @throws IOException if the file can not be written
+	 */
+	void close(List<SimEntity> entities) throws IOException {
+		try {
+			flush();
+			long end = HEADER_SIZE + flushed * RECORD_SIZE;
+			ByteBuffer names = ByteBuffer.allocate(1 << 12);
+			names.putInt(entities.size());
+			for (SimEntity entity : entities) {
+				byte[] name = entity.getName().getBytes(StandardCharsets.UTF_8);
+				if (names.remaining() < 2 + name.length) {
+					names = grow(names, 2 + name.length);
+				}
+				names.putShort((short) name.length).put(name);
+			}
+			names.flip();
+			long position = end;
+			while (names.hasRemaining()) {
+				position += channel.write(names, position);
+			}
+			header.putLong(16, position);
+			header.force();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+		ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+		buffer.flip();
+		larger.put(buffer);
+		return larger;
+	}
+
+}
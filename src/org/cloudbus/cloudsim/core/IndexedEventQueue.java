@@ -0,0 +1,350 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * This class decorates an {@link EventQueue} with a secondary index of the events by source entity
+ * and tag. Each (source, tag) pair owns a chain of events linked through the events themselves, so
+ * maintaining the index does not allocate. It allows {@link CloudSim#cancelAll} and
+ * {@link CloudSim#cancel} to find the events of an entity with a given tag without scanning the
+ * whole queue. The delivery order is the one of the decorated queue. The index is not serialized; it
+ * is rebuilt from the decorated queue when a checkpoint is restored.
+ *
+ * @see EventQueue
+ * @see CloudSim#cancelAll(int, org.cloudbus.cloudsim.core.predicates.Predicate)
+ */
+public class IndexedEventQueue implements EventQueue {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The initial capacity of the index table (a power of 2). */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** The decorated queue. */
+	private final EventQueue queue;
+
+	/** The keys of the index table, combining the source and the tag. */
+	private transient long[] keys = new long[INITIAL_CAPACITY];
+
+	/** The chains of the index table; a null chain marks a free slot. */
+	private transient Chain[] chains = new Chain[INITIAL_CAPACITY];
+
+	/** The number of chains in the index table. Chains are kept when they become empty. */
+	private transient int numChains = 0;
+
+	/**
+	 * Creates an indexed queue.
+	 *
+	 * @param queue the queue holding the events
+	 */
+	public IndexedEventQueue(EventQueue queue) {
+		this.queue = queue;
+	}
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		queue.addEvent(newEvent);
+		link(newEvent);
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		queue.addEventFirst(newEvent);
+		link(newEvent);
+	}
+
+	@Override
+	public SimEvent peek() {
+		return queue.peek();
+	}
+
+	@Override
+	public SimEvent poll() {
+		SimEvent event = queue.poll();
+		if (event != null) {
+			unlink(event);
+		}
+		return event;
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		final Iterator<SimEvent> iterator = queue.iterator();
+		return new Iterator<SimEvent>() {
+
+			private SimEvent last;
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public SimEvent next() {
+				last = iterator.next();
+				return last;
+			}
+
+			@Override
+			public void remove() {
+				iterator.remove();
+				unlink(last);
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return queue.size();
+	}
+
+	@Override
+	public boolean remove(SimEvent event) {
+		if (queue.remove(event)) {
+			unlink(event);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean removeAll(Collection<SimEvent> events) {
+		boolean changed = false;
+		for (SimEvent event : events) {
+			changed |= remove(event);
+		}
+		return changed;
+	}
+
+	@Override
+	public void clear() {
+		queue.clear();
+		for (Chain chain : chains) {
+			if (chain != null) {
+				for (SimEvent event = chain.head; event != null;) {
+					SimEvent next = event.indexNext;
+					event.indexChain = null;
+					event.indexPrev = null;
+					event.indexNext = null;
+					event = next;
+				}
+				chain.head = null;
+				chain.tail = null;
+				chain.size = 0;
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of events sent by an entity with a given tag.
+	 *
+	 * @param src the id of the source entity
+	 * @param tag the tag
+	 * @return the number of events
+	 */
+	public int count(int src, int tag) {
+		Chain chain = find(src, tag, false);
+		return chain == null ? 0 : chain.size;
+	}
+
+	/**
+	 * Gets the first event, in delivery order, sent by an entity with a given tag. This operation
+	 * takes a time proportional to the number of such events.
+	 *
+	 * @param src the id of the source entity
+	 * @param tag the tag
+	 * @return the event, or <tt>null</tt> if there is none
+	 */
+	public SimEvent first(int src, int tag) {
+		Chain chain = find(src, tag, false);
+		if (chain == null) {
+			return null;
+		}
+		SimEvent first = chain.head;
+		for (SimEvent event = chain.head; event != null; event = event.indexNext) {
+			if (event.compareTo(first) < 0) {
+				first = event;
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Removes all the events sent by an entity with a given tag.
+	 *
+	 * @param src the id of the source entity
+	 * @param tag the tag
+	 * @return the number of events removed
+	 */
+	public int removeAll(int src, int tag) {
+		Chain chain = find(src, tag, false);
+		if (chain == null) {
+			return 0;
+		}
+		int removed = 0;
+		while (chain.head != null) {
+			SimEvent event = chain.head;
+			queue.remove(event);
+			unlink(event);
+			removed++;
+		}
+		return removed;
+	}
+
+	/**
+	 * Removes one of the events sent by an entity with a given tag, in no particular order.
+	 *
+	 * @param src the id of the source entity
+	 * @param tag the tag
+	 * @return the event removed, or <tt>null</tt> if there is none
+	 */
+	public SimEvent removeFirstIndexed(int src, int tag) {
+		Chain chain = find(src, tag, false);
+		if (chain == null || chain.head == null) {
+			return null;
+		}
+		SimEvent event = chain.head;
+		queue.remove(event);
+		unlink(event);
+		return event;
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		keys = new long[INITIAL_CAPACITY];
+		chains = new Chain[INITIAL_CAPACITY];
+		for (Iterator<SimEvent> iterator = queue.iterator(); iterator.hasNext();) {
+			link(iterator.next());
+		}
+	}
+
+	/**
+	 * Adds an event to the chain of its source and tag.
+	 *
+	 * @param event the event
+	 */
+	private void link(SimEvent event) {
+		Chain chain = find(event.getSource(), event.getTag(), true);
+		event.indexChain = chain;
+		event.indexPrev = chain.tail;
+		event.indexNext = null;
+		if (chain.tail == null) {
+			chain.head = event;
+		} else {
+			chain.tail.indexNext = event;
+		}
+		chain.tail = event;
+		chain.size++;
+	}
+
+	/**
+	 * Removes an event from its chain, if any.
+	 *
+	 * @param event the event
+	 */
+	private void unlink(SimEvent event) {
+		Chain chain = event.indexChain;
+		if (chain == null) {
+			return;
+		}
+		if (event.indexPrev == null) {
+			chain.head = event.indexNext;
+		} else {
+			event.indexPrev.indexNext = event.indexNext;
+		}
+		if (event.indexNext == null) {
+			chain.tail = event.indexPrev;
+		} else {
+			event.indexNext.indexPrev = event.indexPrev;
+		}
+		chain.size--;
+		event.indexChain = null;
+		event.indexPrev = null;
+		event.indexNext = null;
+	}
+
+	/**
+	 * Looks up the chain of a source and tag in the open addressing index table.
+	 *
+	 * @param src the id of the source entity
+	 * @param tag the tag
+	 * @param create whether to create the chain if it does not exist
+	 * @return the chain, or <tt>null</tt> if it does not exist and <tt>create</tt> is false
+	 */
+	private Chain find(int src, int tag, boolean create) {
+		long key = ((long) src << 32) | (tag & 0xFFFFFFFFL);
+		int mask = chains.length - 1;
+		int slot = hash(key) & mask;
+		while (chains[slot] != null) {
+			if (keys[slot] == key) {
+				return chains[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (!create) {
+			return null;
+		}
+
+		Chain chain = new Chain();
+		keys[slot] = key;
+		chains[slot] = chain;
+		if (++numChains > chains.length / 2) {
+			grow();
+		}
+		return chain;
+	}
+
+	/**
+	 * Doubles the capacity of the index table.
+	 */
+	private void grow() {
+		long[] oldKeys = keys;
+		Chain[] oldChains = chains;
+		keys = new long[oldKeys.length * 2];
+		chains = new Chain[oldChains.length * 2];
+		int mask = chains.length - 1;
+		for (int i = 0; i < oldChains.length; i++) {
+			if (oldChains[i] != null) {
+				int slot = hash(oldKeys[i]) & mask;
+				while (chains[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				chains[slot] = oldChains[i];
+			}
+		}
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * The events of the queue sent by one entity with one tag, in insertion order.
+	 */
+	static final class Chain {
+
+		/** The first event of the chain. */
+		SimEvent head;
+
+		/** The last event of the chain. */
+		SimEvent tail;
+
+		/** The number of events of the chain. */
+		int size;
+	}
+
+}
@@ -0,0 +1,405 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class accounts for the wall-clock time of a simulation: it counts the events processed by
+ * the kernel, measures the time spent by the entities handling them, by entity class and tag, and
+ * samples the depth of the future and deferred queues at every clock tick. The report is printed
+ * to the standard output, or the stream set with {@link CloudSim#setProfilerOutput}, when the
+ * simulation finishes; it can also be read programmatically through {@link CloudSim#getProfiler()}.
+ * <p>
+ * The tags are reported by name when their constants class has been registered with
+ * {@link #addTagNames(Class)}; the {@link CloudSimTags} are registered by default.
+ *
+ * @see CloudSim#setProfilerEnabled(boolean)
+ */
+public class KernelProfiler {
+
+	/** The names of the tags, shared by all the simulations. */
+	private static final Map<Integer, String> TAG_NAMES = new ConcurrentHashMap<Integer, String>();
+
+	static {
+		// TRUE, FALSE and DEFAULT_BAUD_RATE are not tags and would hide the real ones
+		addTagNames(CloudSimTags.class, "TRUE", "FALSE", "DEFAULT_BAUD_RATE");
+	}
+
+	/** The handler counters of each entity, by entity id. */
+	private final List<Map<Integer, long[]>> handlers = new ArrayList<Map<Integer, long[]>>();
+
+	/** The classes of the entities, by entity id. */
+	private final List<Class<?>> entityClasses = new ArrayList<Class<?>>();
+
+	/** The depths of the future queue. */
+	private final DepthHistogram futureDepths = new DepthHistogram();
+
+	/** The depths of the deferred queue. */
+	private final DepthHistogram deferredDepths = new DepthHistogram();
+
+	/** The number of events processed by the kernel. */
+	private long events = 0;
+
+	/** The wall-clock time at which the simulation started, in nanoseconds. */
+	private long startNanos = -1;
+
+	/** The wall-clock time at which the simulation finished, in nanoseconds. */
+	private long stopNanos = -1;
+
+	/**
+	 * Registers the names of the tags declared as <tt>public static final int</tt> constants of a
+	 * class. A tag keeps the first name registered for it.
+	 *
+	 * @param tags the class declaring the tags
+	 * @param excluded the constants of the class that are not tags
+	 */
+	public static void addTagNames(Class<?> tags, String... excluded) {
+		List<String> skipped = Arrays.asList(excluded);
+		for (Field field : tags.getDeclaredFields()) {
+			int modifiers = field.getModifiers();
+			if (field.getType() == int.class && Modifier.isPublic(modifiers) && Modifier.isStatic(modifiers)
+					&& Modifier.isFinal(modifiers) && !skipped.contains(field.getName())) {
+				try {
+					TAG_NAMES.putIfAbsent(field.getInt(null), field.getName());
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the name of a tag.
+	 *
+	 * @param tag the tag
+	 * @return the name, or the number if the tag has no name
+	 */
+	public static String getTagName(int tag) {
+		String name = TAG_NAMES.get(tag);
+		return name == null ? Integer.toString(tag) : name;
+	}
+
+	/**
+	 * Marks the start of the simulation.
+	 */
+	void start() {
+		if (startNanos < 0) {
+			startNanos = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Marks the end of the simulation.
+	 */
+	void stop() {
+		stopNanos = System.nanoTime();
+	}
+
+	/**
+	 * Counts an event processed by the kernel.
+	 */
+	void eventProcessed() {
+		events++;
+	}
+
+	/**
+	 * Samples the depths of the queues at the start of a clock tick.
+	 *
+	 * @param future the number of future events
+	 * @param deferred the number of deferred events
+	 */
+	void sampleQueues(int future, int deferred) {
+		futureDepths.add(future);
+		deferredDepths.add(deferred);
+	}
+
+	/**
+	 * Records the handling of an event by an entity.
+	 *
+	 * @param entity the entity
+	 * @param tag the tag of the event
+	 * @param nanos the wall-clock time spent in the handler
+	 */
+	void eventHandled(SimEntity entity, int tag, long nanos) {
+		int id = entity.getId();
+		while (handlers.size() <= id) {
+			handlers.add(null);
+			entityClasses.add(null);
+		}
+		Map<Integer, long[]> byTag = handlers.get(id);
+		if (byTag == null) {
+			byTag = new HashMap<Integer, long[]>();
+			handlers.set(id, byTag);
+			entityClasses.set(id, entity.getClass());
+		}
+		long[] counters = byTag.get(tag);
+		if (counters == null) {
+			counters = new long[2];
+			byTag.put(tag, counters);
+		}
+		counters[0]++;
+		counters[1] += nanos;
+	}
+
+	/**
+	 * Gets the number of events processed by the kernel.
+	 *
+	 * @return the number of events
+	 */
+	public long getEventCount() {
+		return events;
+	}
+
+	/**
+	 * Gets the wall-clock time of the simulation, up to now if it has not finished.
+	 *
+	 * @return the time in seconds
+	 */
+	public double getWallTime() {
+		if (startNanos < 0) {
+			return 0;
+		}
+		return ((stopNanos < 0 ? System.nanoTime() : stopNanos) - startNanos) / 1e9;
+	}
+
+	/**
+	 * Gets the number of events processed by the kernel per second of wall-clock time.
+	 *
+	 * @return the throughput
+	 */
+	public double getEventsPerSecond() {
+		double wallTime = getWallTime();
+		return wallTime > 0 ? events / wallTime : 0;
+	}
+
+	/**
+	 * Gets the handler statistics by entity class and tag, the most expensive first.
+	 *
+	 * @return the statistics
+	 */
+	public List<HandlerStats> getHandlerStats() {
+		Map<String, HandlerStats> merged = new LinkedHashMap<String, HandlerStats>();
+		for (int id = 0; id < handlers.size(); id++) {
+			Map<Integer, long[]> byTag = handlers.get(id);
+			if (byTag == null) {
+				continue;
+			}
+			Class<?> entityClass = entityClasses.get(id);
+			for (Map.Entry<Integer, long[]> entry : byTag.entrySet()) {
+				String key = entityClass.getName() + "#" + entry.getKey();
+				HandlerStats stats = merged.get(key);
+				if (stats == null) {
+					stats = new HandlerStats(entityClass, entry.getKey());
+					merged.put(key, stats);
+				}
+				stats.count += entry.getValue()[0];
+				stats.nanos += entry.getValue()[1];
+			}
+		}
+		List<HandlerStats> list = new ArrayList<HandlerStats>(merged.values());
+		Collections.sort(list, new Comparator<HandlerStats>() {
+
+			@Override
+			public int compare(HandlerStats a, HandlerStats b) {
+				return Long.compare(b.nanos, a.nanos);
+			}
+		});
+		return list;
+	}
+
+	/**
+	 * Gets the wall-clock time spent by an entity handling events.
+	 *
+	 * @param id the id of the entity
+	 * @return the time in seconds
+	 */
+	public double getEntityTime(int id) {
+		if (id < 0 || id >= handlers.size() || handlers.get(id) == null) {
+			return 0;
+		}
+		long nanos = 0;
+		for (long[] counters : handlers.get(id).values()) {
+			nanos += counters[1];
+		}
+		return nanos / 1e9;
+	}
+
+	/**
+	 * Gets the histogram of the depths of the future queue, sampled at every clock tick.
+	 *
+	 * @return the histogram
+	 */
+	public DepthHistogram getFutureQueueDepths() {
+		return futureDepths;
+	}
+
+	/**
+	 * Gets the histogram of the depths of the deferred queue, sampled at every clock tick.
+	 *
+	 * @return the histogram
+	 */
+	public DepthHistogram getDeferredQueueDepths() {
+		return deferredDepths;
+	}
+
+	/**
+	 * Formats the report.
+	 *
+	 * @return the report
+	 */
+	public String getReport() {
+		StringBuilder report = new StringBuilder();
+		List<HandlerStats> stats = getHandlerStats();
+		long totalNanos = 0;
+		for (HandlerStats s : stats) {
+			totalNanos += s.nanos;
+		}
+		report.append(String.format("Kernel profile: %d events in %.3f s (%.0f events/s), %.3f s in handlers%n",
+				events, getWallTime(), getEventsPerSecond(), totalNanos / 1e9));
+		report.append(String.format("  %-32s %-32s %12s %12s %10s %7s%n", "entity class", "tag", "events",
+				"time (ms)", "mean (us)", "share"));
+		for (HandlerStats s : stats) {
+			report.append(String.format("  %-32s %-32s %12d %12.3f %10.3f %6.1f%%%n", s.getEntityClass()
+					.getSimpleName(), s.getTagName(), s.count, s.nanos / 1e6, s.getMeanTime() * 1e6,
+					totalNanos > 0 ? 100.0 * s.nanos / totalNanos : 0));
+		}
+		report.append("  future queue depth:   ").append(futureDepths).append(String.format("%n"));
+		report.append("  deferred queue depth: ").append(deferredDepths);
+		return report.toString();
+	}
+
+	@Override
+	public String toString() {
+		return getReport();
+	}
+
+	/**
+	 * The events handled by the entities of a class with a tag.
+	 */
+	public static class HandlerStats {
+
+		private final Class<?> entityClass;
+
+		private final int tag;
+
+		private long count;
+
+		private long nanos;
+
+		HandlerStats(Class<?> entityClass, int tag) {
+			this.entityClass = entityClass;
+			this.tag = tag;
+		}
+
+		public Class<?> getEntityClass() {
+			return entityClass;
+		}
+
+		public int getTag() {
+			return tag;
+		}
+
+		public String getTagName() {
+			return KernelProfiler.getTagName(tag);
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * Gets the wall-clock time spent handling the events.
+		 *
+		 * @return the time in seconds
+		 */
+		public double getTime() {
+			return nanos / 1e9;
+		}
+
+		/**
+		 * Gets the mean wall-clock time spent handling an event.
+		 *
+		 * @return the time in seconds
+		 */
+		public double getMeanTime() {
+			return count == 0 ? 0 : nanos / 1e9 / count;
+		}
+
+	}
+
+	/**
+	 * A histogram of queue depths, with power-of-two buckets: bucket 0 counts the empty queues and
+	 * bucket <i>i</i> the depths in [2<sup>i-1</sup>, 2<sup>i</sup>).
+	 */
+	public static class DepthHistogram {
+
+		private final long[] buckets = new long[32];
+
+		private long samples = 0;
+
+		private long sum = 0;
+
+		private int max = 0;
+
+		void add(int depth) {
+			buckets[32 - Integer.numberOfLeadingZeros(depth)]++;
+			samples++;
+			sum += depth;
+			if (depth > max) {
+				max = depth;
+			}
+		}
+
+		/**
+		 * Gets the number of samples of a bucket.
+		 *
+		 * @param bucket the bucket
+		 * @return the number of samples
+		 */
+		public long getCount(int bucket) {
+			return buckets[bucket];
+		}
+
+		public long getSamples() {
+			return samples;
+		}
+
+		public double getMean() {
+			return samples == 0 ? 0 : (double) sum / samples;
+		}
+
+		public int getMax() {
+			return max;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder text = new StringBuilder(String.format("mean=%.1f max=%d", getMean(), max));
+			for (int i = 0; i < buckets.length; i++) {
+				if (buckets[i] > 0) {
+					text.append(' ').append(i == 0 ? "0" : "<" + (1L << i)).append(':').append(buckets[i]);
+				}
+			}
+			return text.toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class records, for each ordered pair of entities, the smallest delay of the events sent from
+ * one to the other. A conservative parallel execution can only advance partitions of entities
+ * independently within a window as long as the events exchanged between partitions are delayed by
+ * at least the window length (the lookahead); this audit measures the lookahead a model actually
+ * offers for a given partitioning of its entities, and which event tags keep it from being
+ * positive.
+ * <p>
+ * In the ServiceSim models, the packets between network devices are delayed by the latency of
+ * their channel, but the service provider and the devices exchange events with no delay: the
+ * provider hands the requests of the end users to the devices with <tt>sendNow</tt>, and the
+ * devices answer with zero-delay {@link CloudSimTags#VM_CREATE_ACK} and
+ * {@link CloudSimTags#CLOUDLET_RETURN} events. A device also announces the instances it adds or
+ * removes to the other devices with zero-delay {@code Service_DISCOVERY_ADD} and
+ * {@code Service_DISCOVERY_DEL} events. Unless these events are given a delay, the lookahead
+ * between a partition of devices and the provider, or another partition, is zero.
+ * <p>
+ * Events sent by an entity to itself are not recorded.
+ *
+ * @see CloudSim#setLookaheadAuditEnabled(boolean)
+ */
+public class LookaheadAudit implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The smallest delays, by (source, destination) pair. */
+	private final Map<Long, double[]> minDelays = new HashMap<Long, double[]>();
+
+	/** The smallest delays, by tag. */
+	private final Map<Integer, double[]> minTagDelays = new HashMap<Integer, double[]>();
+
+	/** The number of entity ids covered by the recorded events, i.e. the largest id plus one. */
+	private int entities = 0;
+
+	/**
+	 * Records an event.
+	 *
+	 * @param src the id of the source entity
+	 * @param dest the id of the destination entity
+	 * @param tag the tag of the event
+	 * @param delay the delay of the event
+	 */
+	void record(int src, int dest, int tag, double delay) {
+		if (src < 0 || dest < 0 || src == dest) {
+			return;
+		}
+		entities = Math.max(entities, Math.max(src, dest) + 1);
+		record(minDelays, key(src, dest), delay);
+		record(minTagDelays, tag, delay);
+	}
+
+	private static <K> void record(Map<K, double[]> minDelays, K key, double delay) {
+		double[] min = minDelays.get(key);
+		if (min == null) {
+			minDelays.put(key, new double[] { delay });
+		} else if (delay < min[0]) {
+			min[0] = delay;
+		}
+	}
+
+	/**
+	 * Gets the smallest delay of the events sent from an entity to another.
+	 *
+	 * @param src the id of the source entity
+	 * @param dest the id of the destination entity
+	 * @return the delay, or {@link Double#POSITIVE_INFINITY} if no event was sent
+	 */
+	public double getMinDelay(int src, int dest) {
+		double[] min = minDelays.get(key(src, dest));
+		return min == null ? Double.POSITIVE_INFINITY : min[0];
+	}
+
+	/**
+	 * Gets the number of entity ids the recorded events cover, i.e. the length a partitioning given
+	 * to {@link #getLookahead(int[])} should have at least.
+	 *
+	 * @return the largest recorded entity id plus one
+	 */
+	public int getNumEntities() {
+		return entities;
+	}
+
+	/**
+	 * Gets the lookahead of a partitioning of the entities, i.e. the smallest delay of the events
+	 * exchanged between entities of different partitions.
+	 *
+	 * @param partitionOf the partition of each entity, by entity id
+	 * @return the lookahead, or {@link Double#POSITIVE_INFINITY} if the partitions did not interact
+	 * @throws IllegalArgumentException if the array does not give the partition of every entity
+	 */
+	public double getLookahead(int[] partitionOf) {
+		if (partitionOf.length < entities) {
+			throw new IllegalArgumentException("The partitions should cover the " + entities
+					+ " entities, but cover:" + partitionOf.length);
+		}
+		double lookahead = Double.POSITIVE_INFINITY;
+		for (Map.Entry<Long, double[]> entry : minDelays.entrySet()) {
+			int src = (int) (entry.getKey() >> 32);
+			int dest = (int) (long) entry.getKey();
+			if (partitionOf[src] != partitionOf[dest] && entry.getValue()[0] < lookahead) {
+				lookahead = entry.getValue()[0];
+			}
+		}
+		return lookahead;
+	}
+
+	/**
+	 * Gets the pairs of entities that exchanged events with a delay smaller than a given lookahead.
+	 * These interactions prevent the entities from being simulated in different partitions.
+	 *
+	 * @param lookahead the lookahead
+	 * @return the pairs, as {source id, destination id}
+	 */
+	public List<int[]> getPairsBelow(double lookahead) {
+		List<int[]> pairs = new ArrayList<int[]>();
+		for (Map.Entry<Long, double[]> entry : minDelays.entrySet()) {
+			if (entry.getValue()[0] < lookahead) {
+				pairs.add(new int[] { (int) (entry.getKey() >> 32), (int) (long) entry.getKey() });
+			}
+		}
+		return pairs;
+	}
+
+	/**
+	 * Gets the tags of the events exchanged between entities with a delay smaller than a given
+	 * lookahead.
+	 *
+	 * @param lookahead the lookahead
+	 * @return the tags
+	 */
+	public List<Integer> getTagsBelow(double lookahead) {
+		List<Integer> tags = new ArrayList<Integer>();
+		for (Map.Entry<Integer, double[]> entry : minTagDelays.entrySet()) {
+			if (entry.getValue()[0] < lookahead) {
+				tags.add(entry.getKey());
+			}
+		}
+		return tags;
+	}
+
+	private static Long key(int src, int dest) {
+		return ((long) src << 32) | (dest & 0xFFFFFFFFL);
+	}
+
+}
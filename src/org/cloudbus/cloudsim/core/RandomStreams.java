@@ -0,0 +1,95 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.Serializable;
+import java.util.Random;
+
+/**
+ * This class derives the random number generators of a simulation from a single seed. Each
+ * stochastic component draws from its own stream, identified by an owner (typically the name of
+ * an entity) and a purpose; the seed of a stream only depends on the simulation seed and on these
+ * keys, not on the order in which the streams are created or on how many numbers the other
+ * streams draw. A run is therefore reproducible from its seed, and two runs with the same seed
+ * and different policies see the same arrivals (common random numbers), as long as the workload
+ * streams are not shared with the policies.
+ *
+ * @see CloudSim#setRandomSeed(long)
+ * @see CloudSim#getRandom(String, String)
+ */
+public final class RandomStreams implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The seed used when none is set. */
+	public static final long DEFAULT_SEED = 0x5EED5EEDL;
+
+	/** The simulation seed. */
+	private final long seed;
+
+	/**
+	 * Creates the streams of a simulation.
+	 *
+	 * @param seed the simulation seed
+	 */
+	public RandomStreams(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Gets the simulation seed.
+	 *
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Creates the generator of a stream. Each call returns a new generator, starting at the
+	 * beginning of the stream; components keep the generator they obtained.
+	 *
+	 * @param owner the owner of the stream, such as the name of an entity
+	 * @param purpose what the numbers are used for
+	 * @return the generator
+	 */
+	public Random stream(String owner, String purpose) {
+		return new Random(deriveSeed(owner, purpose));
+	}
+
+	/**
+	 * Derives the seed of a stream (64-bit FNV-1a hashes of the keys, mixed into the simulation
+	 * seed with the SplitMix64 finalizer).
+	 *
+	 * @param owner the owner of the stream
+	 * @param purpose what the numbers are used for
+	 * @return the seed of the stream
+	 */
+	public long deriveSeed(String owner, String purpose) {
+		return mix(mix(seed ^ hash(owner)) ^ hash(purpose));
+	}
+
+	private static long hash(String key) {
+		long h = 0xCBF29CE484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			h ^= key.charAt(i);
+			h *= 0x100000001B3L;
+		}
+		return h;
+	}
+
+	private static long mix(long z) {
+		z += 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}
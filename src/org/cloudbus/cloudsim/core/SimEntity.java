@@ -12,6 +12,10 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.NetworkTopology;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
 
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * This class represents a simulation entity. An entity handles events and can send events to other
  * entities. When this class is extended, there are a few methods that need to be implemented:
@@ -28,7 +32,13 @@ import org.cloudbus.cloudsim.core.predicates.Predicate;
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  */
-public abstract class SimEntity implements Cloneable {
+public abstract class SimEntity implements Cloneable, Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The log category of the simulation kernel. */
+	private static final Log.Category LOG = Log.getCategory("kernel");
 
 	/** The name. */
 	private String name;
@@ -42,6 +52,12 @@ public abstract class SimEntity implements Cloneable {
 	/** The entity's current state. */
 	private int state;
 
+	/** The pending events of the coalesced timers, by tag. */
+	private Map<Integer, SimEvent> timers;
+
+	/** The simulation context the entity belongs to. */
+	private final SimulationContext context;
+
 	/**
 	 * Creates a new entity.
 	 * 
@@ -54,6 +70,7 @@ public abstract class SimEntity implements Cloneable {
 		this.name = name;
 		id = -1;
 		state = RUNNABLE;
+		context = CloudSim.getContext();
 		CloudSim.addEntity(this);
 	}
 
@@ -66,6 +83,16 @@ public abstract class SimEntity implements Cloneable {
 		return name;
 	}
 
+	/**
+	 * Gets the simulation context the entity belongs to, i.e. the context of the thread that created
+	 * it.
+	 * 
+	 * @return the context
+	 */
+	public SimulationContext getContext() {
+		return context;
+	}
+
 	/**
 	 * Get the unique id number assigned to this entity.
 	 * 
@@ -275,6 +302,92 @@ public abstract class SimEntity implements Cloneable {
 		scheduleFirst(dest, 0, tag, null);
 	}
 
+	/**
+	 * Schedule a coalesced timer: an event sent by the entity to itself, of which at most one is
+	 * pending per tag. If an event of the timer is already pending, it is moved to the new time
+	 * and carries the new data, instead of being cancelled and sent again. Calling this method
+	 * repeatedly therefore debounces the timer.
+	 * 
+	 * @param tag An user-defined number representing the type of event.
+	 * @param delay How long from the current simulation time the event should be received
+	 * @param data The data to be sent with the event.
+	 */
+	public void scheduleCoalesced(int tag, double delay, Object data) {
+		if (!CloudSim.running()) {
+			return;
+		}
+		if (timers == null) {
+			timers = new HashMap<Integer, SimEvent>();
+		}
+		timers.put(tag, CloudSim.reschedule(timers.get(tag), id, delay, tag, data));
+	}
+
+	/**
+	 * Schedule a coalesced timer with <b>no</b> data.
+	 * 
+	 * @param tag An user-defined number representing the type of event.
+	 * @param delay How long from the current simulation time the event should be received
+	 * @see #scheduleCoalesced(int, double, Object)
+	 */
+	public void scheduleCoalesced(int tag, double delay) {
+		scheduleCoalesced(tag, delay, null);
+	}
+
+	/**
+	 * Move the pending event of a coalesced timer to a new time, keeping its data.
+	 * 
+	 * @param tag the tag of the timer
+	 * @param delay How long from the current simulation time the event should be received
+	 * @return true, if the timer was pending; false otherwise (no event is scheduled then)
+	 */
+	public boolean rescheduleTimer(int tag, double delay) {
+		SimEvent timer = getPendingTimer(tag);
+		if (timer == null || !CloudSim.running()) {
+			return false;
+		}
+		timers.put(tag, CloudSim.reschedule(timer, id, delay, tag, timer.getData()));
+		return true;
+	}
+
+	/**
+	 * Cancel the pending event of a coalesced timer.
+	 * 
+	 * @param tag the tag of the timer
+	 * @return true, if the timer was pending
+	 */
+	public boolean cancelTimer(int tag) {
+		SimEvent timer = getPendingTimer(tag);
+		if (timer == null) {
+			return false;
+		}
+		timers.remove(tag);
+		return CloudSim.cancel(timer);
+	}
+
+	/**
+	 * Check if a coalesced timer has an event in the future queue.
+	 * 
+	 * @param tag the tag of the timer
+	 * @return true, if the timer is pending
+	 */
+	public boolean isTimerPending(int tag) {
+		return getPendingTimer(tag) != null;
+	}
+
+	/**
+	 * Gets the pending event of a coalesced timer.
+	 * 
+	 * @param tag the tag of the timer
+	 * @return the event, or <tt>null</tt> if the timer is not pending
+	 */
+	private SimEvent getPendingTimer(int tag) {
+		if (timers == null) {
+			return null;
+		}
+		SimEvent timer = timers.get(tag);
+		return timer != null && CloudSim.isPending(timer) ? timer : null;
+	}
+
 	/**
 	 * Set the entity to be inactive for a time period.
 	 * 
@@ -345,13 +458,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the simulation event
 	 */
 	public SimEvent getNextEvent(Predicate p) {
-		if (!CloudSim.running()) {
-			return null;
-		}
-		if (numEventsWaiting(p) > 0) {
-			return selectEvent(p);
-		}
-		return null;
+		return selectEvent(p);
 	}
 
 	/**
@@ -388,6 +495,10 @@ public abstract class SimEntity implements Cloneable {
 	/**
 	 * This method is invoked by the {@link Simulation} class whenever there is an event in the
 	 * deferred queue, which needs to be processed by the entity.
+	 * <p>
+	 * The event must not be kept, e.g. in a field or a collection, once this method returns: when
+	 * {@link CloudSim#setEventPoolingEnabled(boolean) event pooling} is enabled, it is recycled for
+	 * another event right away. Keep the data it carries instead.
 	 * 
 	 * @param ev the event to be processed by the entity
 	 */
@@ -399,11 +510,24 @@ public abstract class SimEntity implements Cloneable {
 	 */
 	public abstract void shutdownEntity();
 
+	/**
+	 * Processes the buffered and deferred events of the entity. It is invoked by {@link CloudSim}
+	 * in the clock ticks where the entity is runnable and has events to process.
+	 */
 	public void run() {
 		SimEvent ev = evbuf != null ? evbuf : getNextEvent();
 
 		while (ev != null) {
-			processEvent(ev);
+			KernelProfiler profiler = context.profiler;
+			if (profiler == null) {
+				processEvent(ev);
+			} else {
+				int tag = ev.getTag();
+				long start = System.nanoTime();
+				processEvent(ev);
+				profiler.eventHandled(this, tag, System.nanoTime() - start);
+			}
+			CloudSim.releaseEvent(ev);
 			if (state != RUNNABLE) {
 				break;
 			}
@@ -428,6 +552,7 @@ public abstract class SimEntity implements Cloneable {
 		SimEntity copy = (SimEntity) super.clone();
 		copy.setName(name);
 		copy.setEventBuffer(null);
+		copy.timers = null;
 		return copy;
 	}
 
@@ -481,6 +606,9 @@ public abstract class SimEntity implements Cloneable {
 	 */
 	protected void setState(int state) {
 		this.state = state;
+		if (state == RUNNABLE) {
+			CloudSim.markRunnable(id);
+		}
 	}
 
 	/**
@@ -532,7 +660,7 @@ public abstract class SimEntity implements Cloneable {
 		}
 
 		if (entityId < 0) {
-			Log.printLine(getName() + ".send(): Error - " + "invalid entity id " + entityId);
+			LOG.error("{}.send(): Error - invalid entity id {}", getName(), entityId);
 			return;
 		}
 
@@ -8,6 +8,8 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.io.Serializable;
+
 /**
  * This class represents a simulation event which is passed between the entities in the simulation.
  * tartibe ejra bar asase 1- clock ejra 2- Id entity 3- serial
@@ -15,13 +17,16 @@ package org.cloudbus.cloudsim.core;
  * @see Simulation
  * @see SimEntity
  */
-public class SimEvent implements Cloneable, Comparable<SimEvent> {
+public class SimEvent implements Cloneable, Comparable<SimEvent>, Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 
 	/** internal event type **/
-	private final int etype;
+	private int etype;
 
 	/** time at which event should occur **/
-	private final double time;
+	private double time;
 
 	/** time that the event was removed from the queue for service **/
 	private double endWaitingTime;
@@ -33,13 +38,36 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	private int entDst;
 
 	/** the user defined type of the event **/
-	private final int tag;
+	private int tag;
 
 	/** any data the event is carrying **/
-	private final Object data;
+	private Object data;
 
 	private long serial = -1;
 
+	// Links of the (source, tag) index of the future queue, see IndexedEventQueue; they are rebuilt
+	// when a checkpoint is restored
+
+	/** the index chain holding this event, or null if the event is not indexed **/
+	transient IndexedEventQueue.Chain indexChain;
+
+	/** the previous event of the index chain **/
+	transient SimEvent indexPrev;
+
+	/** the next event of the index chain **/
+	transient SimEvent indexNext;
+
+	// Life cycle of pooled events, see SimEventPool
+
+	/** whether the event is owned by a timer and must never be recycled **/
+	boolean pinned;
+
+	/** whether the event is in the pool, waiting to be acquired again **/
+	boolean pooled;
+
+	/** whether the event has been released in debug mode; any further use is an error **/
+	boolean released;
+
 	// Internal event types
 
 	public static final int ENULL = 0;
@@ -82,10 +110,61 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		data = null;
 	}
 
+	/**
+	 * Resets all the fields of a recycled event.
+	 */
+	void init(int evtype, double time, int src, int dest, int tag, Object edata) {
+		etype = evtype;
+		this.time = time;
+		endWaitingTime = -1.0;
+		entSrc = src;
+		entDst = dest;
+		this.tag = tag;
+		data = edata;
+		serial = -1;
+		indexChain = null;
+		indexPrev = null;
+		indexNext = null;
+		pinned = false;
+		pooled = false;
+		released = false;
+	}
+
+	/**
+	 * Checks that the event has not been released to the pool, when the pool runs in debug mode.
+	 */
+	private void checkNotReleased() {
+		if (released) {
+			throw new IllegalStateException("Simulation event used after release: the event was "
+					+ "returned to the pool after being processed and must not be kept by entities.");
+		}
+	}
+
 	protected void setSerial(long serial) {
 		this.serial = serial;
 	}
 
+	/**
+	 * Moves the event to another time, with new data. Only allowed while the event is not in the
+	 * future queue, see {@link CloudSim#reschedule(SimEvent, int, double, int, Object)}.
+	 * 
+	 * @param time the new event time
+	 * @param data the new data
+	 */
+	void reschedule(double time, Object data) {
+		this.time = time;
+		this.data = data;
+	}
+
+	/**
+	 * Gets the serial number assigned by the future queue, used to order events with the same time.
+	 * 
+	 * @return the serial
+	 */
+	protected long getSerial() {
+		return serial;
+	}
+
 	/**
 	 * Used to set the time at which this event finished waiting in the event
 	 * 
@@ -107,6 +186,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	 * @return
 	 */
 	public int getType() {
+		checkNotReleased();
 		return etype;
 	}
 
@@ -138,6 +218,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	 * @return the id number
 	 */
 	public int getDestination() {
+		checkNotReleased();
 		return entDst;
 	}
 
@@ -147,6 +228,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	 * @return the id number
 	 */
 	public int getSource() {
+		checkNotReleased();
 		return entSrc;
 	}
 
@@ -156,6 +238,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	 * @return The simulation time
 	 */
 	public double eventTime() {
+		checkNotReleased();
 		return time;
 	}
 
@@ -165,6 +248,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	 * @return The simulation time
 	 */
 	public double endWaitingTime() {
+		checkNotReleased();
 		return endWaitingTime;
 	}
 
@@ -174,6 +258,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	 * @return The tag
 	 */
 	public int type() {
+		checkNotReleased();
 		return tag;
 	}
 
@@ -183,6 +268,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	 * @return the id number
 	 */
 	public int scheduledBy() {
+		checkNotReleased();
 		return entSrc;
 	}
 
@@ -192,6 +278,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	 * @return The tag
 	 */
 	public int getTag() {
+		checkNotReleased();
 		return tag;
 	}
 
@@ -201,6 +288,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	 * @return A reference to the data
 	 */
 	public Object getData() {
+		checkNotReleased();
 		return data;
 	}
 
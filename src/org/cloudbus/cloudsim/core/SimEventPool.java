@@ -0,0 +1,113 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * This class recycles the {@link SimEvent} objects used by {@link CloudSim}. The life cycle of a
+ * pooled event is:
+ * <ol>
+ * <li>it is acquired by the kernel when an entity sends it;
+ * <li>it waits in the future queue and then in the deferred queue of its destination;
+ * <li>it is delivered to {@link SimEntity#processEvent(SimEvent)};
+ * <li>it is released to the pool as soon as <tt>processEvent</tt> returns, or when it is cancelled.
+ * </ol>
+ * Entities must therefore not keep references to the events they receive; they may keep the data
+ * carried by the events. In debug mode, released events are never recycled: they are marked so that
+ * any later access to them throws an {@link IllegalStateException}, which reveals entities that
+ * hold on to events.
+ * <p>
+ * Events owned by coalesced timers are never recycled.
+ *
+ * @see CloudSim#setEventPoolingEnabled(boolean)
+ * @see CloudSim#setEventPoolDebugEnabled(boolean)
+ */
+final class SimEventPool implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The maximal number of free events kept by the pool. */
+	private static final int MAX_FREE = 1 << 16;
+
+	/** Whether released events are poisoned instead of being recycled. */
+	private final boolean debug;
+
+	/** The free events; they are not saved in checkpoints. */
+	private transient SimEvent[] free = new SimEvent[256];
+
+	/** The number of free events. */
+	private transient int numFree = 0;
+
+	/**
+	 * Creates a pool.
+	 *
+	 * @param debug whether released events are poisoned instead of being recycled
+	 */
+	SimEventPool(boolean debug) {
+		this.debug = debug;
+	}
+
+	/**
+	 * Gets an event, recycled if possible.
+	 */
+	SimEvent acquire(int evtype, double time, int src, int dest, int tag, Object edata) {
+		if (numFree == 0) {
+			return new SimEvent(evtype, time, src, dest, tag, edata);
+		}
+		SimEvent event = free[--numFree];
+		free[numFree] = null;
+		event.init(evtype, time, src, dest, tag, edata);
+		return event;
+	}
+
+	/**
+	 * Gives an event back to the pool. The event must not be used afterwards.
+	 *
+	 * @param event the event
+	 */
+	void release(SimEvent event) {
+		if (event.pinned || event.pooled || event.released) {
+			return;
+		}
+		if (debug) {
+			event.released = true;
+			return;
+		}
+		if (numFree == MAX_FREE) {
+			return;
+		}
+		// do not retain the data of the simulation
+		event.init(SimEvent.ENULL, -1, -1, -1, -1, null);
+		event.pooled = true;
+		if (numFree == free.length) {
+			free = Arrays.copyOf(free, free.length * 2);
+		}
+		free[numFree++] = event;
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		free = new SimEvent[256];
+	}
+
+	/**
+	 * Gets the number of free events.
+	 *
+	 * @return the number of free events
+	 */
+	int getNumFree() {
+		return numFree;
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * This class saves the whole state of a simulation to a file and restores it, so that several runs
+ * can branch from the same warm state instead of replaying the warm-up phase. The state is the
+ * {@link SimulationContext} of the simulation: the clock, the future and deferred queues and every
+ * entity with everything it references (devices, schedulers, channels, packets, random number
+ * generators...). Every object reachable from the entities and from the data of the pending events
+ * must therefore be serializable.
+ * <p>
+ * The file starts with a fixed header (magic number, format version, simulation clock) followed by
+ * the deflate-compressed serialized context; it is written and read through a {@link FileChannel}.
+ * A checkpoint is only meaningful for the code that wrote it: restoring it after the simulation
+ * classes have changed fails.
+ *
+ * @see CloudSim#checkpointAt(double, String)
+ * @see CloudSim#restoreCheckpoint(String)
+ */
+public final class SimulationCheckpoint {
+
+	/** The magic number starting a checkpoint file ("SSCK"). */
+	private static final int MAGIC = 0x5353434B;
+
+	/** The version of the file format. */
+	private static final int VERSION = 1;
+
+	/** The size of the header: magic number, version and clock. */
+	private static final int HEADER_SIZE = 4 + 4 + 8;
+
+	private SimulationCheckpoint() {
+	}
+
+	/**
+	 * Saves a simulation context. It must not be called while the context is processing a clock
+	 * tick; use {@link CloudSim#checkpointAt(double, String)} to save a running simulation.
+	 *
+	 * @param context the context
+	 * @param fileName the name of the file
+	 * @throws IOException if the file can not be written, or if an object of the simulation is not
+	 *             serializable
+	 */
+	public static void write(SimulationContext context, String fileName) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(VERSION).putDouble(context.clock);
+			header.flip();
+			while (header.hasRemaining()) {
+				channel.write(header);
+			}
+
+			Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+			try {
+				ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(
+						new DeflaterOutputStream(Channels.newOutputStream(channel), deflater, 1 << 16), 1 << 16));
+				out.writeObject(context);
+				out.close();
+			} finally {
+				deflater.end();
+			}
+		}
+	}
+
+	/**
+	 * Restores a simulation context. The context is not bound to any thread.
+	 *
+	 * @param fileName the name of the file
+	 * @return the context
+	 * @throws IOException if the file can not be read or is not a checkpoint
+	 */
+	public static SimulationContext read(String fileName) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			readHeader(channel, fileName);
+
+			Inflater inflater = new Inflater();
+			try {
+				ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(
+						new InflaterInputStream(Channels.newInputStream(channel), inflater, 1 << 16), 1 << 16));
+				return (SimulationContext) in.readObject();
+			} catch (ClassNotFoundException e) {
+				throw new IOException("Checkpoint " + fileName + " refers to an unknown class", e);
+			} finally {
+				inflater.end();
+			}
+		}
+	}
+
+	/**
+	 * Reads the simulation clock of a checkpoint without restoring it.
+	 *
+	 * @param fileName the name of the file
+	 * @return the simulation time at which the checkpoint was taken
+	 * @throws IOException if the file can not be read or is not a checkpoint
+	 */
+	public static double readClock(String fileName) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			return readHeader(channel, fileName);
+		}
+	}
+
+	/**
+	 * Reads and checks the header of a checkpoint.
+	 *
+	 * @return the simulation clock saved in the header
+	 */
+	private static double readHeader(FileChannel channel, String fileName) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while (header.hasRemaining() && channel.read(header) >= 0) {
+		}
+		header.flip();
+		if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+			throw new IOException(fileName + " is not a simulation checkpoint");
+		}
+		int version = header.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported checkpoint version " + version + " in " + fileName);
+		}
+		return header.getDouble();
+	}
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+
+/**
+ * This class holds the state of one simulation: the clock, the event queues, the entities and the
+ * id sequences of the simulated objects. The static methods of {@link CloudSim} operate on the
+ * context bound to the calling thread, or on the default context if none is bound, so that
+ * existing simulations keep working unchanged while independent simulations can run concurrently
+ * in one JVM, each on its own thread:
+ *
+ * <pre>
+ * double endTime = new SimulationContext().call(new Callable&lt;Double&gt;() {
+ * 	public Double call() {
+ * 		CloudSim.init(1, null, false);
+ * 		// create the entities ...
+ * 		return CloudSim.startSimulation();
+ * 	}
+ * });
+ * </pre>
+ *
+ * Entities are bound to the context in which they are created (see {@link SimEntity#getContext()}).
+ * The configuration flags of {@link CloudSim}, such as
+ * {@link CloudSim#setCalendarQueueEnabled(boolean)}, and the {@link org.cloudbus.cloudsim.Log} are
+ * still shared by all the contexts.
+ * <p>
+ * A context is serializable, which is how {@link SimulationCheckpoint} saves a whole simulation.
+ *
+ * @see CloudSim#getContext()
+ */
+public class SimulationContext implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The context used by the threads that are not bound to any context. */
+	private static final SimulationContext DEFAULT = new SimulationContext();
+
+	/** The context bound to each thread, if any. */
+	private static final ThreadLocal<SimulationContext> BOUND = new ThreadLocal<SimulationContext>();
+
+	/** Whether a context has ever been bound; until then the lookup skips the thread local. */
+	private static volatile boolean bindingUsed = false;
+
+	// The state of the simulation, managed by CloudSim
+
+	/** The id of the client entity. */
+	int clientId = -1;
+
+	/** The id of CIS entity. */
+	int cisId = -1;
+
+	/** The id of CloudSimShutdown entity. */
+	int shutdownId = -1;
+
+	/** The CIS object. */
+	CloudInformationService cis = null;
+
+	/** The trace flag. */
+	boolean traceFlag = false;
+
+	/** The calendar. */
+	Calendar calendar = null;
+
+	/** The termination time. */
+	double terminateAt = -1;
+
+	/** The minimal time between events. */
+	double minTimeBetweenEvents = 0.1;
+
+	/** The entities. */
+	List<SimEntity> entities;
+
+	/** The future event queue, indexed by source entity and tag. */
+	IndexedEventQueue future;
+
+	/** The pool recycling the events, or <tt>null</tt> if pooling is disabled. */
+	SimEventPool eventPool;
+
+	/** The lookahead audit, if enabled. */
+	LookaheadAudit lookaheadAudit;
+
+	/** The recorder of the processed events, if enabled. */
+	transient EventTraceRecorder eventTrace;
+
+	/** The profiler, if enabled. */
+	transient KernelProfiler profiler;
+
+	/** The JMX metrics, if enabled. */
+	transient SimulationMetrics metrics;
+
+	/** The deferred event queue. */
+	DeferredQueue deferred;
+
+	/** The simulation clock. */
+	double clock;
+
+	/** Flag for checking if the simulation is running. */
+	boolean running;
+
+	/** The entities by name. */
+	Map<String, SimEntity> entitiesByName;
+
+	/** The wait predicates. */
+	Map<Integer, Predicate> waitPredicates;
+
+	/** The ids of the entities that may have work to do in the next tick. */
+	BitSet runnable;
+
+	/** The paused. */
+	volatile boolean paused = false;
+
+	/** The pause at. */
+	volatile double pauseAt = -1;
+
+	/** Whether the simulation thread is suspended because the simulation is paused. */
+	transient boolean suspended;
+
+	/** The number of times the simulation has been resumed. */
+	transient long resumes;
+
+	/** Whether the simulation has finished. */
+	transient boolean finished;
+
+	/** The abrupt terminate. */
+	boolean abruptTerminate = false;
+
+	/** The time of the next checkpoint, if any. */
+	transient double checkpointAt = -1;
+
+	/** The file of the next checkpoint, or <tt>null</tt> if none is scheduled. */
+	transient String checkpointFile;
+
+	/** The random number streams. */
+	RandomStreams randomStreams = new RandomStreams(RandomStreams.DEFAULT_SEED);
+
+	/** The id sequences, by name. */
+	private final Map<String, int[]> sequences = new HashMap<String, int[]>();
+
+	/**
+	 * Gets the context of the calling thread.
+	 *
+	 * @return the bound context, or the default one
+	 */
+	static SimulationContext current() {
+		if (!bindingUsed) {
+			return DEFAULT;
+		}
+		SimulationContext context = BOUND.get();
+		return context == null ? DEFAULT : context;
+	}
+
+	/**
+	 * Gets the default context, used by the threads that are not bound to any context.
+	 *
+	 * @return the default context
+	 */
+	public static SimulationContext getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Binds a context to the calling thread.
+	 *
+	 * @param context the context, or <tt>null</tt> to use the default context
+	 */
+	static void bind(SimulationContext context) {
+		if (context == null || context == DEFAULT) {
+			BOUND.remove();
+		} else {
+			bindingUsed = true;
+			BOUND.set(context);
+		}
+	}
+
+	/**
+	 * Runs a task with this context bound to the calling thread. The previous context of the thread
+	 * is restored afterwards.
+	 *
+	 * @param task the task, typically a whole simulation
+	 * @return the result of the task
+	 * @throws Exception the exception thrown by the task
+	 */
+	public <T> T call(Callable<T> task) throws Exception {
+		SimulationContext previous = current();
+		bind(this);
+		try {
+			return task.call();
+		} finally {
+			bind(previous);
+		}
+	}
+
+	/**
+	 * Gets the next value of an id sequence of this context, starting at 0. The sequences are
+	 * reset when the simulation is initialised.
+	 *
+	 * @param sequence the name of the sequence
+	 * @return the id
+	 */
+	public int nextId(String sequence) {
+		int[] next = sequences.get(sequence);
+		if (next == null) {
+			next = new int[1];
+			sequences.put(sequence, next);
+		}
+		return next[0]++;
+	}
+
+	/**
+	 * Resets the id sequences.
+	 */
+	void resetSequences() {
+		sequences.clear();
+	}
+
+}
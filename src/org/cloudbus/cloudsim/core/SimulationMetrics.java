@@ -0,0 +1,182 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * This class exposes a running simulation through JMX, so that it can be watched with JConsole or
+ * any other JMX client. The kernel itself is registered as
+ * <tt>org.cloudbus.cloudsim:type=Simulation,simulation=&lt;id&gt;</tt>; the entities register their
+ * own MBeans with {@link CloudSim#registerMBean(SimEntity, String, Object)}, under the same
+ * simulation id, and all of them are unregistered when the simulation finishes. The id tells apart
+ * the simulations run concurrently in the same JVM.
+ * <p>
+ * The attributes are read by the JMX threads while the simulation runs: the counters updated on the
+ * hot path are striped ({@link LongAdder}), so that counting an event costs an uncontended
+ * increment, and the gauges (clock, queue sizes) are sampled when they are read, without any
+ * synchronisation; they may therefore be slightly stale.
+ *
+ * @see CloudSim#setJmxEnabled(boolean)
+ */
+public class SimulationMetrics implements SimulationMetricsMXBean {
+
+	private static final Log.Category LOG = Log.getCategory("kernel");
+
+	/** The domain of the object names. */
+	public static final String DOMAIN = "org.cloudbus.cloudsim";
+
+	/** The id of the next simulation. */
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+	/** The context of the simulation. */
+	private final SimulationContext context;
+
+	/** The id of the simulation in the object names. */
+	private final int id;
+
+	/** The number of events processed by the kernel. */
+	private final LongAdder events = new LongAdder();
+
+	/** The wall-clock time at which the simulation was initialised, in nanoseconds. */
+	private final long startNanos = System.nanoTime();
+
+	/** The wall-clock time of the previous sample of the recent throughput, in nanoseconds. */
+	private long sampleNanos = startNanos;
+
+	/** The number of events at the previous sample of the recent throughput. */
+	private long sampleEvents = 0;
+
+	/** The names of the registered MBeans. */
+	private final List<ObjectName> registered = new ArrayList<ObjectName>();
+
+	/**
+	 * Creates the metrics of a simulation and registers the kernel MBean.
+	 *
+	 * @param context the context of the simulation
+	 */
+	SimulationMetrics(SimulationContext context) {
+		this.context = context;
+		id = NEXT_ID.getAndIncrement();
+		register("type=Simulation,simulation=" + id, this);
+	}
+
+	/**
+	 * Gets the id of the simulation in the object names.
+	 *
+	 * @return the id
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Registers the MBean of an entity, as
+	 * <tt>org.cloudbus.cloudsim:type=&lt;type&gt;,simulation=&lt;id&gt;,name=&lt;entity name&gt;</tt>.
+	 *
+	 * @param entity the entity
+	 * @param type the type of the MBean
+	 * @param mbean the MBean
+	 */
+	void register(SimEntity entity, String type, Object mbean) {
+		register("type=" + type + ",simulation=" + id + ",name=" + ObjectName.quote(entity.getName()), mbean);
+	}
+
+	private synchronized void register(String properties, Object mbean) {
+		try {
+			ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+			ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, name);
+			registered.add(name);
+		} catch (JMException e) {
+			LOG.error("Could not register the MBean {}: {}", properties, e.getMessage());
+		}
+	}
+
+	/**
+	 * Unregisters all the MBeans of the simulation.
+	 */
+	synchronized void unregisterAll() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (ObjectName name : registered) {
+			try {
+				server.unregisterMBean(name);
+			} catch (JMException e) {
+				LOG.error("Could not unregister the MBean {}: {}", name, e.getMessage());
+			}
+		}
+		registered.clear();
+	}
+
+	/**
+	 * Counts an event processed by the kernel.
+	 */
+	void eventProcessed() {
+		events.increment();
+	}
+
+	@Override
+	public double getClock() {
+		return context.clock;
+	}
+
+	@Override
+	public long getEventCount() {
+		return events.sum();
+	}
+
+	@Override
+	public double getEventsPerSecond() {
+		double wallTime = (System.nanoTime() - startNanos) / 1e9;
+		return wallTime > 0 ? events.sum() / wallTime : 0;
+	}
+
+	@Override
+	public synchronized double getRecentEventsPerSecond() {
+		long now = System.nanoTime();
+		long count = events.sum();
+		double rate = now > sampleNanos ? (count - sampleEvents) / ((now - sampleNanos) / 1e9) : 0;
+		sampleNanos = now;
+		sampleEvents = count;
+		return rate;
+	}
+
+	@Override
+	public int getFutureQueueSize() {
+		IndexedEventQueue future = context.future;
+		return future == null ? 0 : future.size();
+	}
+
+	@Override
+	public int getDeferredQueueSize() {
+		DeferredQueue deferred = context.deferred;
+		return deferred == null ? 0 : deferred.size();
+	}
+
+	@Override
+	public int getEntityCount() {
+		List<SimEntity> entities = context.entities;
+		return entities == null ? 0 : entities.size();
+	}
+
+	@Override
+	public boolean isPaused() {
+		return context.paused;
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+/**
+ * The management interface of a simulation kernel, registered as
+ * <tt>org.cloudbus.cloudsim:type=Simulation,simulation=&lt;id&gt;</tt>.
+ *
+ * @see SimulationMetrics
+ */
+public interface SimulationMetricsMXBean {
+
+	/**
+	 * Gets the simulation clock.
+	 *
+	 * @return the clock
+	 */
+	double getClock();
+
+	/**
+	 * Gets the number of events processed by the kernel.
+	 *
+	 * @return the number of events
+	 */
+	long getEventCount();
+
+	/**
+	 * Gets the number of events processed per second of wall-clock time since the simulation was
+	 * initialised.
+	 *
+	 * @return the throughput
+	 */
+	double getEventsPerSecond();
+
+	/**
+	 * Gets the number of events processed per second of wall-clock time since the previous call of
+	 * this method.
+	 *
+	 * @return the throughput
+	 */
+	double getRecentEventsPerSecond();
+
+	int getFutureQueueSize();
+
+	int getDeferredQueueSize();
+
+	int getEntityCount();
+
+	boolean isPaused();
+
+}
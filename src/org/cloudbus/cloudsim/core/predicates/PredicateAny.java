@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.core.predicates;
 
+import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.SimEvent;
 
 /**
@@ -23,6 +24,9 @@ import org.cloudbus.cloudsim.core.SimEvent;
  */
 public class PredicateAny extends Predicate {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * The match function called by <code>Simulation</code>, not used directly by the user.
 	 * 
@@ -34,4 +38,13 @@ public class PredicateAny extends Predicate {
 		return true;
 	}
 
+	/**
+	 * Keeps the shared instance unique when a checkpoint is restored.
+	 * 
+	 * @return the shared instance
+	 */
+	private Object readResolve() {
+		return CloudSim.SIM_ANY;
+	}
+
 }
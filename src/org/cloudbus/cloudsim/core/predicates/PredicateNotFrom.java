@@ -20,6 +20,9 @@ import org.cloudbus.cloudsim.core.SimEvent;
  */
 public class PredicateNotFrom extends Predicate {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	/** The ids. */
 	private final int[] ids;
 
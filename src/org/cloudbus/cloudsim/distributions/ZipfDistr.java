@@ -11,6 +11,8 @@ package org.cloudbus.cloudsim.distributions;
 
 import java.util.Random;
 
+import org.cloudbus.cloudsim.core.CloudSim;
+
 /**
  * The Class ZipfDistr.
  * 
@@ -55,7 +57,7 @@ public class ZipfDistr implements ContinuousDistribution {
 		if (shape <= 0.0) {
 			throw new IllegalArgumentException("Mean must be greated than 0.0 and population greater than 0");
 		}
-		numGen = new Random(System.currentTimeMillis());
+		numGen = CloudSim.getRandom("ZipfDistr");
 		this.shape = shape;
 		computeDen(shape, population);
 	}
@@ -22,6 +22,10 @@ import java.util.*;
 
 public class EndUser extends SimEntity {
 
+    private static final long serialVersionUID = 1L;
+
+    private static final Log.Category LOG = Log.getCategory("endUser");
+
     private int userId; // serviceProvider
 
     private double[][] dataset;
@@ -50,6 +54,9 @@ public class EndUser extends SimEntity {
 
     String path;
 
+    // the workload stream, obtained when first used so that the seed can be set after construction
+    private Random random;
+
     /**
      * Creates a new entity.
      *
@@ -184,7 +191,7 @@ public class EndUser extends SimEntity {
 
     @Override
     public void startEntity() {
-        Log.printLine(getName() + " is starting...");
+        LOG.info("{} is starting...", getName());
         if (flag == 0){
             workloadGenerator();
         }else if (flag == 1){
@@ -231,7 +238,7 @@ public class EndUser extends SimEntity {
     }
     protected void processOtherEvent(SimEvent ev) {
         if (ev == null) {
-            Log.printLine(getName() + ".processOtherEvent(): Error - an event is null.");
+            LOG.error("{}.processOtherEvent(): Error - an event is null.", getName());
         }
     }
 
@@ -294,7 +301,7 @@ public class EndUser extends SimEntity {
             dataset[i][6] = ((ArrayList<Double>)dataList.get(i)).get(6); //block
         }
 
-        Log.printLine("workload dataset rows = " + dataset.length);
+        LOG.info("workload dataset rows = {}", dataset.length);
         return dataset;
 
     }
@@ -307,7 +314,7 @@ public class EndUser extends SimEntity {
         double currentTime = CloudSim.clock();
         if (currentTime < simLimited){
             //
-            Random random = new Random();
+            Random random = workloadRandom();
             int totalNum;
             if (high == low){
                 totalNum = low;
@@ -321,8 +328,7 @@ public class EndUser extends SimEntity {
                     EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                     Servicechain servicechain = new Servicechain(random.nextInt(serviceChainRange));
                     Location location = new Location(-1,-1,random.nextInt(blockRange));
-                    NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                    NetworkConstants.currentAppId++;
+                    NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                     Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                     send(userId, i * timeInterval, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
                 }
@@ -344,8 +350,7 @@ public class EndUser extends SimEntity {
             EndUserInformation endUserInformation = new EndUserInformation(endUserId,userLevel);
             Servicechain servicechain = new Servicechain(serviceChainId);
             Location location = new Location(latitude,longitude,block);
-            NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-            NetworkConstants.currentAppId++;
+            NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
             Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
             send(userId, delay, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
         }
@@ -355,7 +360,7 @@ public class EndUser extends SimEntity {
         double currentTime = CloudSim.clock();
         if (currentTime < simLimited){
             //
-            Random random = new Random();
+            Random random = workloadRandom();
             int totalNum = random.nextInt(high-low) + low;
 
             double interval = 0;
@@ -365,8 +370,7 @@ public class EndUser extends SimEntity {
                 this.endUserId ++;
                 Servicechain servicechain = new Servicechain(random.nextInt(serviceChainRange));
                 Location location = new Location(-1,-1,random.nextInt(blockRange));
-                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                NetworkConstants.currentAppId++;
+                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                 Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                 send(userId, totalTime, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
                 interval = nextTime(totalNum);
@@ -381,7 +385,7 @@ public class EndUser extends SimEntity {
         double currentTime = CloudSim.clock();
         if (currentTime < simLimited){
             //
-            Random random = new Random();
+            Random random = workloadRandom();
             int totalNum;
             if (high == low){
                 totalNum = low;
@@ -410,12 +414,11 @@ public class EndUser extends SimEntity {
                         }
                     }
                     if (servicechainId == -1){
-                        Log.printLine("service chain id generate error");
+                        LOG.error("service chain id generate error");
                         return;
                     }
                     Servicechain servicechain = new Servicechain(servicechainId);
-                    NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                    NetworkConstants.currentAppId++;
+                    NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                     Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                     send(userId, i * timeInterval, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
                 }
@@ -425,9 +428,7 @@ public class EndUser extends SimEntity {
     }
 
     public double nextTime(double rateParameter){
-        Random random = new Random();
-
-        return -Math.log(1.0-random.nextDouble()) / rateParameter;
+        return -Math.log(1.0-workloadRandom().nextDouble()) / rateParameter;
     }
 
 
@@ -447,14 +448,13 @@ public class EndUser extends SimEntity {
             }
             int num1 = getPossionVariable(num);
             for (int i = 0 ; i< num1;i++){
-                Random random = new Random();
+                Random random = workloadRandom();
                 EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                 int block = random.nextInt(blockRange);
                 double timeInterval1 = random.nextDouble()*addIntervalRange;
                 Location location = new Location(-1,-1,block);
                 Servicechain servicechain = new Servicechain(0);
-                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                NetworkConstants.currentAppId++;
+                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                 Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                 send(userId, timeInterval1, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
             }
@@ -463,14 +463,13 @@ public class EndUser extends SimEntity {
             num = 20;
             num1 = getPossionVariable(num);
             for (int i = 0 ; i< num1;i++){
-                Random random = new Random();
+                Random random = workloadRandom();
                 EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                 int block = random.nextInt(blockRange);
                 double timeInterval1 = random.nextDouble()*addIntervalRange;
                 Location location = new Location(-1,-1,block);
                 Servicechain servicechain = new Servicechain(1);
-                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                NetworkConstants.currentAppId++;
+                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                 Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                 send(userId, timeInterval1, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
             }
@@ -486,14 +485,13 @@ public class EndUser extends SimEntity {
             num1 = getPossionVariable(num);
 
             for (int i = 0 ; i< num1;i++){
-                Random random = new Random();
+                Random random = workloadRandom();
                 EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                 int block = random.nextInt(blockRange);
                 double timeInterval1 = random.nextDouble()*addIntervalRange;
                 Location location = new Location(-1,-1,block);
                 Servicechain servicechain = new Servicechain(2);
-                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                NetworkConstants.currentAppId++;
+                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                 Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                 send(userId, timeInterval1, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
             }
@@ -509,14 +507,13 @@ public class EndUser extends SimEntity {
             num1 = getPossionVariable(num);
 
             for (int i = 0 ; i< num1;i++){
-                Random random = new Random();
+                Random random = workloadRandom();
                 EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                 int block = random.nextInt(blockRange);
                 double timeInterval1 = random.nextDouble()*addIntervalRange;
                 Location location = new Location(-1,-1,block);
                 Servicechain servicechain = new Servicechain(3);
-                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                NetworkConstants.currentAppId++;
+                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                 Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                 send(userId, timeInterval1, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
             }
@@ -531,14 +528,13 @@ public class EndUser extends SimEntity {
             num1 = getPossionVariable(num);
 
             for (int i = 0 ; i< num1;i++){
-                Random random = new Random();
+                Random random = workloadRandom();
                 EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                 int block = random.nextInt(blockRange);
                 double timeInterval1 = random.nextDouble()*addIntervalRange;
                 Location location = new Location(-1,-1,block);
                 Servicechain servicechain = new Servicechain(4);
-                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                NetworkConstants.currentAppId++;
+                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                 Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                 send(userId, timeInterval1, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
 
@@ -551,14 +547,13 @@ public class EndUser extends SimEntity {
             num1 = getPossionVariable(num);
 
             for (int i = 0 ; i< num1;i++){
-                Random random = new Random();
+                Random random = workloadRandom();
                 EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                 int block = random.nextInt(blockRange);
                 double timeInterval1 = random.nextDouble()*addIntervalRange;
                 Location location = new Location(-1,-1,block);
                 Servicechain servicechain = new Servicechain(5);
-                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                NetworkConstants.currentAppId++;
+                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                 Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                 send(userId, timeInterval1, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
             }
@@ -577,14 +572,13 @@ public class EndUser extends SimEntity {
             //int num1 = getPossionVariable(num);
             int num1 = num;
             for (int i = 0 ; i< num1;i++){
-                Random random = new Random();
+                Random random = workloadRandom();
                 EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                 int block = random.nextInt(blockRange);
                 double timeInterval1 = random.nextDouble()*addIntervalRange;
                 Location location = new Location(-1,-1,block);
                 Servicechain servicechain = new Servicechain(0);
-                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                NetworkConstants.currentAppId++;
+                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                 Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                 send(userId, timeInterval1, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
             }
@@ -594,14 +588,13 @@ public class EndUser extends SimEntity {
             //num1 = getPossionVariable(num);
             num1 = num;
             for (int i = 0 ; i< num1;i++){
-                Random random = new Random();
+                Random random = workloadRandom();
                 EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                 int block = random.nextInt(blockRange);
                 double timeInterval1 = random.nextDouble()*addIntervalRange;
                 Location location = new Location(-1,-1,block);
                 Servicechain servicechain = new Servicechain(1);
-                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                NetworkConstants.currentAppId++;
+                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                 Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                 send(userId, timeInterval1, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
             }
@@ -617,14 +610,13 @@ public class EndUser extends SimEntity {
             //num1 = getPossionVariable(num);
             num1 = num;
             for (int i = 0 ; i< num1;i++){
-                Random random = new Random();
+                Random random = workloadRandom();
                 EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                 int block = random.nextInt(blockRange);
                 double timeInterval1 = random.nextDouble()*addIntervalRange;
                 Location location = new Location(-1,-1,block);
                 Servicechain servicechain = new Servicechain(2);
-                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                NetworkConstants.currentAppId++;
+                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                 Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                 send(userId, timeInterval1, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
             }
@@ -640,14 +632,13 @@ public class EndUser extends SimEntity {
             //num1 = getPossionVariable(num);
             num1 = num;
             for (int i = 0 ; i< num1;i++){
-                Random random = new Random();
+                Random random = workloadRandom();
                 EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                 int block = random.nextInt(blockRange);
                 double timeInterval1 = random.nextDouble()*addIntervalRange;
                 Location location = new Location(-1,-1,block);
                 Servicechain servicechain = new Servicechain(3);
-                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                NetworkConstants.currentAppId++;
+                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                 Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                 send(userId, timeInterval1, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
             }
@@ -660,14 +651,13 @@ public class EndUser extends SimEntity {
             //num1 = getPossionVariable(num);
             num1 = num;
             for (int i = 0 ; i< num1;i++){
-                Random random = new Random();
+                Random random = workloadRandom();
                 EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                 int block = random.nextInt(blockRange);
                 double timeInterval1 = random.nextDouble()*addIntervalRange;
                 Location location = new Location(-1,-1,block);
                 Servicechain servicechain = new Servicechain(4);
-                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                NetworkConstants.currentAppId++;
+                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                 Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                 send(userId, timeInterval1, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
             }
@@ -677,14 +667,13 @@ public class EndUser extends SimEntity {
             //num1 = getPossionVariable(num);
             num1 = num;
             for (int i = 0 ; i< num1;i++){
-                Random random = new Random();
+                Random random = workloadRandom();
                 EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                 int block = random.nextInt(blockRange);
                 double timeInterval1 = random.nextDouble()*addIntervalRange;
                 Location location = new Location(-1,-1,block);
                 Servicechain servicechain = new Servicechain(5);
-                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                NetworkConstants.currentAppId++;
+                NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                 Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                 send(userId, timeInterval1, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
             }
@@ -704,13 +693,12 @@ public class EndUser extends SimEntity {
                     int serchainId = serchainIdToDelay.getKey();
                     double delay = serchainIdToDelay.getValue();
 
-                    Random random = new Random();
+                    Random random = workloadRandom();
                     EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                     int block = random.nextInt(blockRange);
                     Location location = new Location(-1,-1,4);
                     Servicechain servicechain = new Servicechain(serchainId);
-                    NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                    NetworkConstants.currentAppId++;
+                    NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                     Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                     send(userId, delay, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
                 }
@@ -732,7 +720,7 @@ public class EndUser extends SimEntity {
                     int serchainId = serchainIdToDelay.getKey();
                     double delay = serchainIdToDelay.getValue();
 
-                    Random random = new Random();
+                    Random random = workloadRandom();
                     EndUserInformation endUserInformation = new EndUserInformation(endUserId++,random.nextInt(1));
                     int block = random.nextInt(blockRange);
                     if (serchainId == 1 || serchainId == 5){
@@ -744,8 +732,7 @@ public class EndUser extends SimEntity {
                     }
                     Location location = new Location(-1,-1,block);
                     Servicechain servicechain = new Servicechain(serchainId);
-                    NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.currentAppId,servicechain,endUserInformation);
-                    NetworkConstants.currentAppId++;
+                    NetworkPacket networkPacket = new NetworkPacket(userId, NetworkConstants.REQUEST,NetworkConstants.nextAppId(),servicechain,endUserInformation);
                     Pair<Location,NetworkPacket> data = new Pair<>(location, networkPacket);
                     send(userId, delay, ServiceSimEvents.EndUserRequest_ARRIVAL, data);
                 }
@@ -755,9 +742,9 @@ public class EndUser extends SimEntity {
         }
     }
 
-    private static int getPossionVariable(double lamda) {
+    private int getPossionVariable(double lamda) {
         int x = 0;
-        double y = Math.random(), cdf = getPossionProbability(x, lamda);
+        double y = workloadRandom().nextDouble(), cdf = getPossionProbability(x, lamda);
         while (cdf < y) {
             x++;
             cdf += getPossionProbability(x, lamda);
@@ -774,6 +761,17 @@ public class EndUser extends SimEntity {
     }
 
 
+    /**
+     * Gets the random number stream of the generated workload. It is keyed by the name of the end
+     * user, so runs with the same seed generate the same requests whatever the policies.
+     */
+    protected Random workloadRandom() {
+        if (random == null) {
+            random = CloudSim.getRandom(getName(), "workload");
+        }
+        return random;
+    }
+
     public int getUserId() {
         return userId;
     }
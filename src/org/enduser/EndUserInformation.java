@@ -1,6 +1,10 @@
 package org.enduser;
 
-public class EndUserInformation {
+import java.io.Serializable;
+
+public class EndUserInformation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private int enduserId;
 
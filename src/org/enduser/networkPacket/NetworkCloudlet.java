@@ -33,6 +33,9 @@ import java.util.Map;
  */
 public class NetworkCloudlet extends Cloudlet implements Comparable<Object> {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	// appId is not enough. "serviceChainId, endUserId, endUserLevel" for routing.
 	public int appId;
 
@@ -8,14 +8,22 @@
 
 package org.enduser.networkPacket;
 
+import org.cloudbus.cloudsim.core.CloudSim;
+
 public class NetworkConstants {
 
 	/* Request or Response */
 	public static int REQUEST = 0;
 	public static int RESPONSE = 1;
 
-	public static int currentCloudletId = 0;
-	public static int currentAppId = 0;
+	/* ids of the cloudlets and applications, scoped to the simulation context */
+	public static int nextCloudletId() {
+		return CloudSim.getContext().nextId("cloudletId");
+	}
+
+	public static int nextAppId() {
+		return CloudSim.getContext().nextId("appId");
+	}
 
 	// stage type
 	public static final int EXECUTION = 0; 
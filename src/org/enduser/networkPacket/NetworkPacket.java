@@ -1,10 +1,14 @@
 package org.enduser.networkPacket;
 
+import java.io.Serializable;
+
 import org.enduser.EndUserInformation;
 import org.infrastructureProvider.entities.Vm;
 import org.serviceProvider.services.Servicechain;
 
-public class NetworkPacket {
+public class NetworkPacket implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     public int userId; // serviceProvider
 
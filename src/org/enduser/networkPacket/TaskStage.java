@@ -8,6 +8,8 @@
 
 package org.enduser.networkPacket;
 
+import java.io.Serializable;
+
 /**
  * TaskStage represents various stages a {@link NetworkCloudlet} can have during execution. 
  * Four stage types which are possible: {@link NetworkConstants#EXECUTION},
@@ -25,7 +27,10 @@ package org.enduser.networkPacket;
  * @since CloudSim Toolkit 1.0
  * @todo Attributes should be defined as private.
  */
-public class TaskStage {
+public class TaskStage implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 
         /**
          * The task type, either {@link NetworkConstants#EXECUTION}, 
@@ -0,0 +1,21 @@
+package org.experiment;
+
+import org.serviceProvider.ServiceProvider;
+
+/**
+ * One simulation scenario of a parameter sweep. The sweep calls {@link #build(SweepPoint)} once
+ * per run, on the thread running it, after CloudSim has been initialised in a fresh simulation
+ * context; the experiment creates its devices, service provider and end users there, and the
+ * sweep then runs the simulation.
+ */
+public interface Experiment {
+
+    /**
+     * Creates the entities of one run.
+     *
+     * @param point the parameters, replication and seed of the run
+     * @return the service provider whose request latencies are reported
+     * @throws Exception if the scenario can not be built
+     */
+    ServiceProvider build(SweepPoint point) throws Exception;
+}
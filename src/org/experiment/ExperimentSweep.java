@@ -0,0 +1,264 @@
+package org.experiment;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.serviceProvider.ServiceProvider;
+import org.utils.LatencySummary;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs an {@link Experiment} over a grid of parameters and a number of replications, several runs
+ * at a time. Each run has its own {@link SimulationContext}, so the runs are independent even
+ * though they share the JVM, and the per-run latency summaries are gathered in one result table:
+ *
+ * <pre>
+ * ExperimentSweep sweep = new ExperimentSweep(experiment);
+ * sweep.addParameter("scheduler", PolicyConstants.TimeShared, PolicyConstants.TimeSharedWithLimit);
+ * sweep.addParameter("workload", "workloadTest1.csv", "workloadTest2.csv");
+ * sweep.setReplications(5);
+ * ExperimentSweep.writeTable(sweep.run(), "sweep.csv");
+ * </pre>
+ *
+ * The seed of a run only depends on the base seed and the replication number, and seeds the random
+ * streams of the run (see {@link CloudSim#getRandom(String, String)}), so that the parameter
+ * combinations are compared on the same random streams.
+ */
+public class ExperimentSweep {
+
+    private final Experiment experiment;
+
+    private final Map<String, List<Object>> parameters = new LinkedHashMap<>();
+
+    private int replications = 1;
+
+    private long baseSeed = 0;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private boolean logEnabled = false;
+
+    public ExperimentSweep(Experiment experiment) {
+        this.experiment = experiment;
+    }
+
+    /**
+     * Adds a dimension to the parameter grid.
+     *
+     * @param name   the name of the parameter, also used as column of the result table
+     * @param values the values taken by the parameter
+     */
+    public void addParameter(String name, Object... values) {
+        addParameter(name, Arrays.asList(values));
+    }
+
+    public void addParameter(String name, List<?> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("No value for sweep parameter: " + name);
+        }
+        parameters.put(name, new ArrayList<Object>(values));
+    }
+
+    public void setReplications(int replications) {
+        if (replications < 1) {
+            throw new IllegalArgumentException("The number of replications should be positive, but is:" + replications);
+        }
+        this.replications = replications;
+    }
+
+    public void setBaseSeed(long baseSeed) {
+        this.baseSeed = baseSeed;
+    }
+
+    /**
+     * Sets the number of runs executed at the same time (the number of available processors by
+     * default).
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads should be positive, but is:" + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Enables the {@link Log} output during the sweep. It is disabled by default since the output of
+     * concurrent runs would be interleaved.
+     */
+    public void setLogEnabled(boolean logEnabled) {
+        this.logEnabled = logEnabled;
+    }
+
+    /**
+     * Gets the runs of the sweep: every combination of the parameter values, in the order the
+     * parameters were added (the last one varying fastest), for every replication.
+     */
+    public List<SweepPoint> getPoints() {
+        List<Map<String, Object>> grid = new ArrayList<>();
+        grid.add(new LinkedHashMap<String, Object>());
+        for (Map.Entry<String, List<Object>> parameter : parameters.entrySet()) {
+            List<Map<String, Object>> next = new ArrayList<>();
+            for (Map<String, Object> combination : grid) {
+                for (Object value : parameter.getValue()) {
+                    Map<String, Object> extended = new LinkedHashMap<>(combination);
+                    extended.put(parameter.getKey(), value);
+                    next.add(extended);
+                }
+            }
+            grid = next;
+        }
+
+        List<SweepPoint> points = new ArrayList<>();
+        for (Map<String, Object> combination : grid) {
+            for (int replication = 0; replication < replications; replication++) {
+                points.add(new SweepPoint(points.size(), replication, seedOf(replication), combination));
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Runs the sweep and waits for all the runs to complete. A failed run does not stop the
+     * others; its result carries the exception.
+     *
+     * @return the results, in the order of {@link #getPoints()}
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public List<SweepResult> run() throws InterruptedException {
+        List<SweepPoint> points = getPoints();
+        boolean logDisabled = Log.isDisabled();
+        Log.setDisabled(!logEnabled);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, points.size()));
+        try {
+            List<Future<SweepResult>> futures = new ArrayList<>();
+            for (final SweepPoint point : points) {
+                futures.add(executor.submit(new Callable<SweepResult>() {
+                    @Override
+                    public SweepResult call() {
+                        return runPoint(point);
+                    }
+                }));
+            }
+            List<SweepResult> results = new ArrayList<>();
+            for (Future<SweepResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Sweep run failed unexpectedly", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+            Log.setDisabled(logDisabled);
+        }
+    }
+
+    private SweepResult runPoint(final SweepPoint point) {
+        final long start = System.currentTimeMillis();
+        try {
+            return new SimulationContext().call(new Callable<SweepResult>() {
+                @Override
+                public SweepResult call() throws Exception {
+                    CloudSim.init(1, Calendar.getInstance(), false);
+                    CloudSim.setRandomSeed(point.getSeed());
+                    ServiceProvider serviceProvider = experiment.build(point);
+                    double simulationTime = CloudSim.startSimulation();
+                    return new SweepResult(point, serviceProvider.getLatencySummary(), simulationTime,
+                            System.currentTimeMillis() - start, null);
+                }
+            });
+        } catch (Throwable e) {
+            return new SweepResult(point, null, Double.NaN, System.currentTimeMillis() - start, e);
+        }
+    }
+
+    /**
+     * Derives the seed of a replication from the base seed (SplitMix64 finalizer).
+     */
+    private long seedOf(int replication) {
+        long z = baseSeed + (replication + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Writes the results of a sweep as a CSV table, one row per run.
+     *
+     * @param results  the results
+     * @param fileName the name of the CSV file
+     * @throws IOException if the file can not be written
+     */
+    public static void writeTable(List<SweepResult> results, String fileName) throws IOException {
+        try (Writer writer = new FileWriter(fileName)) {
+            writeTable(results, writer);
+        }
+    }
+
+    public static void writeTable(List<SweepResult> results, Writer writer) throws IOException {
+        List<String> names = new ArrayList<>();
+        for (SweepResult result : results) {
+            for (String name : result.getPoint().getParameters().keySet()) {
+                if (!names.contains(name)) {
+                    names.add(name);
+                }
+            }
+        }
+
+        List<String> header = new ArrayList<>(Arrays.asList("run", "replication", "seed"));
+        header.addAll(names);
+        header.addAll(Arrays.asList("status", "requests", "mean", "p50", "p95", "p99", "max", "simulationTime", "wallTimeMillis"));
+        writeRow(writer, header);
+
+        for (SweepResult result : results) {
+            SweepPoint point = result.getPoint();
+            List<Object> row = new ArrayList<>();
+            row.add(point.getRun());
+            row.add(point.getReplication());
+            row.add(point.getSeed());
+            for (String name : names) {
+                row.add(point.getParameters().get(name));
+            }
+            LatencySummary latency = result.getLatency();
+            if (result.isSuccessful()) {
+                row.addAll(Arrays.<Object>asList("ok", latency.getCount(), latency.getMean(), latency.percentile(50),
+                        latency.percentile(95), latency.percentile(99), latency.getMax()));
+            } else {
+                row.addAll(Arrays.<Object>asList("failed: " + result.getError(), "", "", "", "", "", ""));
+            }
+            row.add(result.getSimulationTime());
+            row.add(result.getWallTimeMillis());
+            writeRow(writer, row);
+        }
+        writer.flush();
+    }
+
+    private static void writeRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.append(',');
+            }
+            String value = String.valueOf(values.get(i));
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+                value = '"' + value.replace("\"", "\"\"") + '"';
+            }
+            writer.append(value);
+        }
+        writer.append('\n');
+    }
+}
@@ -0,0 +1,53 @@
+package org.experiment;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The parameters of one run of a sweep: one combination of the parameter grid, the replication
+ * number and the seed derived from them.
+ */
+public class SweepPoint {
+
+    private final int run;
+    private final int replication;
+    private final long seed;
+    private final Map<String, Object> parameters;
+
+    public SweepPoint(int run, int replication, long seed, Map<String, Object> parameters) {
+        this.run = run;
+        this.replication = replication;
+        this.seed = seed;
+        this.parameters = Collections.unmodifiableMap(new LinkedHashMap<>(parameters));
+    }
+
+    public int getRun() {
+        return run;
+    }
+
+    public int getReplication() {
+        return replication;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String name) {
+        if (!parameters.containsKey(name)) {
+            throw new IllegalArgumentException("Unknown sweep parameter: " + name);
+        }
+        return (T) parameters.get(name);
+    }
+
+    @Override
+    public String toString() {
+        return "run " + run + " (replication " + replication + ", seed " + seed + ") " + parameters;
+    }
+}
@@ -0,0 +1,53 @@
+package org.experiment;
+
+import org.utils.LatencySummary;
+
+/**
+ * The outcome of one run of a sweep.
+ */
+public class SweepResult {
+
+    private final SweepPoint point;
+    private final LatencySummary latency;
+    private final double simulationTime;
+    private final long wallTimeMillis;
+    private final Throwable error;
+
+    public SweepResult(SweepPoint point, LatencySummary latency, double simulationTime, long wallTimeMillis, Throwable error) {
+        this.point = point;
+        this.latency = latency;
+        this.simulationTime = simulationTime;
+        this.wallTimeMillis = wallTimeMillis;
+        this.error = error;
+    }
+
+    public SweepPoint getPoint() {
+        return point;
+    }
+
+    /**
+     * @return the latencies of the completed requests, or null if the run failed
+     */
+    public LatencySummary getLatency() {
+        return latency;
+    }
+
+    public double getSimulationTime() {
+        return simulationTime;
+    }
+
+    public long getWallTimeMillis() {
+        return wallTimeMillis;
+    }
+
+    /**
+     * @return the exception that stopped the run, or null if it succeeded
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+}
@@ -9,7 +9,8 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Storage;
 import org.infrastructureProvider.entities.*;
 import org.infrastructureProvider.policies.PacketSchedulerTimeShared;
-import org.infrastructureProvider.policies.ShortestPathRoutingGenerator;
+import org.infrastructureProvider.policies.DijkstraRoutingGenerator;
+import org.infrastructureProvider.policies.RoutingTable;
 import org.infrastructureProvider.policies.VmAllocationPolicySimple;
 import org.infrastructureProvider.policies.VmSchedulerSpaceShared;
 import org.infrastructureProvider.policies.provisioners.BwProvisionerSimple;
@@ -21,10 +22,11 @@ import org.utils.Location;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 public class CompK8SDevicesProvider1 extends DevicesProvider {
 
+    private static final long serialVersionUID = 1L;
+
     int nodeNum;
 
     public CompK8SDevicesProvider1(int nodeNum) {
@@ -98,7 +100,7 @@ public class CompK8SDevicesProvider1 extends DevicesProvider {
         devices.addAll(router);
 
         // create routingTable and add routngTable to the devices
-        Map<Integer, Map<Integer, Integer>> routingTable = ShortestPathRoutingGenerator.generateRoutingTable(devices);
+        RoutingTable routingTable = DijkstraRoutingGenerator.generateRoutingTable(devices);
         for (int i = 0;i<devices.size();i++){
             devices.get(i).setRoutingTable(routingTable);
         }
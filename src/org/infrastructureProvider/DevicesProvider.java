@@ -1,15 +1,19 @@
 package org.infrastructureProvider;
 
+import java.io.Serializable;
+
 import org.infrastructureProvider.entities.NetworkDevice;
+import org.infrastructureProvider.policies.RoutingTable;
 
 import java.util.List;
-import java.util.Map;
 
-public abstract class DevicesProvider {
+public abstract class DevicesProvider implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private List<? extends NetworkDevice> devices;
 
-    private Map<Integer, Map<Integer, Integer>> routingTable; // now deviceId -> destination deviceId, next deviceId
+    private RoutingTable routingTable; // deviceId -> destination deviceId, next deviceId
 
     public DevicesProvider() {
 
@@ -33,11 +37,11 @@ public abstract class DevicesProvider {
     }
 
 
-    public Map<Integer, Map<Integer, Integer>> getRoutingTable() {
+    public RoutingTable getRoutingTable() {
         return routingTable;
     }
 
-    public void setRoutingTable(Map<Integer, Map<Integer, Integer>> routingTable) {
+    public void setRoutingTable(RoutingTable routingTable) {
         this.routingTable = routingTable;
     }
 
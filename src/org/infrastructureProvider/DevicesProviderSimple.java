@@ -12,10 +12,11 @@ import org.utils.Location;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 public class DevicesProviderSimple extends DevicesProvider {
 
+    private static final long serialVersionUID = 1L;
+
 
     public DevicesProviderSimple() {
         super();
@@ -84,7 +85,7 @@ public class DevicesProviderSimple extends DevicesProvider {
         devices.add(edgeDataCenter3);
 
         // create routingTable and add routngTable to the devices
-        Map<Integer, Map<Integer, Integer>> routingTable = ShortestPathRoutingGenerator.generateRoutingTable(devices);
+        RoutingTable routingTable = DijkstraRoutingGenerator.generateRoutingTable(devices);
         for (int i = 0;i<devices.size();i++){
             devices.get(i).setRoutingTable(routingTable);
         }
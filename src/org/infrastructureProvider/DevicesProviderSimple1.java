@@ -3,7 +3,8 @@ package org.infrastructureProvider;
 import org.cloudbus.cloudsim.Storage;
 import org.infrastructureProvider.entities.*;
 import org.infrastructureProvider.policies.PacketSchedulerTimeShared;
-import org.infrastructureProvider.policies.ShortestPathRoutingGenerator;
+import org.infrastructureProvider.policies.HierarchicalRoutingTable;
+import org.infrastructureProvider.policies.RoutingTable;
 import org.infrastructureProvider.policies.VmAllocationPolicySimple;
 import org.infrastructureProvider.policies.VmSchedulerSpaceShared;
 import org.infrastructureProvider.policies.provisioners.BwProvisionerSimple;
@@ -15,7 +16,6 @@ import org.utils.Location;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 /* small base station(small data center / edge server) num: 32
 * medium base station(medium data center / edge server) num: 4
@@ -24,6 +24,8 @@ import java.util.Map;
 *  */
 public class DevicesProviderSimple1 extends DevicesProvider {
 
+    private static final long serialVersionUID = 1L;
+
     int smallBS;
     int meBS;
     int router;
@@ -108,7 +110,8 @@ public class DevicesProviderSimple1 extends DevicesProvider {
         devices.addAll(router_devices);
         devices.addAll(cloud_devices);
         // create routingTable and add routngTable to the devices
-        Map<Integer, Map<Integer, Integer>> routingTable = ShortestPathRoutingGenerator.generateRoutingTable(devices);
+        // the devices are a tree, which is routed exactly in O(n) memory
+        RoutingTable routingTable = new HierarchicalRoutingTable(devices);
         for (int i = 0;i<devices.size();i++){
             devices.get(i).setRoutingTable(routingTable);
         }
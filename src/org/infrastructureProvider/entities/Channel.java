@@ -1,12 +1,16 @@
 package org.infrastructureProvider.entities;
 
+import java.io.Serializable;
+
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.enduser.networkPacket.NetworkPacket;
 import org.infrastructureProvider.policies.PacketScheduler;
 
 import java.util.List;
 
-public class Channel {
+public class Channel implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private int from;
 
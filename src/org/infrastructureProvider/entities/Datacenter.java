@@ -7,6 +7,7 @@
 
 package org.infrastructureProvider.entities;
 
+import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.*;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
@@ -32,6 +33,12 @@ import java.util.*;
  */
 public class Datacenter extends SimEntity {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The log category. */
+	private static final Log.Category LOG = Log.getCategory("datacenter");
+
 	/** The characteristics. */
 	private DatacenterCharacteristics characteristics;
 
@@ -382,13 +389,13 @@ public class Datacenter extends SimEntity {
 				status = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId,userId)
 						.getCloudletScheduler().getCloudletStatus(cloudletId);
 			} catch (Exception e) {
-				Log.printLine(getName() + ": Error in processing CloudSimTags.CLOUDLET_STATUS");
-				Log.printLine(e.getMessage());
+				LOG.error("{}: Error in processing CloudSimTags.CLOUDLET_STATUS", getName());
+				LOG.error(e.getMessage());
 				return;
 			}
 		} catch (Exception e) {
-			Log.printLine(getName() + ": Error in processing CloudSimTags.CLOUDLET_STATUS");
-			Log.printLine(e.getMessage());
+			LOG.error("{}: Error in processing CloudSimTags.CLOUDLET_STATUS", getName());
+			LOG.error(e.getMessage());
 			return;
 		}
 
@@ -411,7 +418,7 @@ public class Datacenter extends SimEntity {
 	 */
 	protected void processOtherEvent(SimEvent ev) {
 		if (ev == null) {
-			Log.printLine(getName() + ".processOtherEvent(): Error - an event is null.");
+			LOG.error("{}.processOtherEvent(): Error - an event is null.", getName());
 		}
 	}
 
@@ -504,7 +511,7 @@ public class Datacenter extends SimEntity {
 		host.removeMigratingInVm(vm);
 		boolean result = getVmAllocationPolicy().allocateHostForVm(vm, host);
 		if (!result) {
-			Log.printLine("[Datacenter.processVmMigrate] VM allocation to the destination host failed");
+			LOG.error("[Datacenter.processVmMigrate] VM allocation to the destination host failed");
 			System.exit(0);
 		}
 
@@ -521,11 +528,13 @@ public class Datacenter extends SimEntity {
 			sendNow(ev.getSource(), CloudSimTags.VM_CREATE_ACK, data);
 		}
 
-		Log.formatLine(
-				"%.2f: Migration of VM #%d to Host #%d is completed",
-				CloudSim.clock(),
-				vm.getId(),
-				host.getId());
+		if (LOG.isEnabled(Log.Level.INFO)) {
+			LOG.info(String.format(
+					"%.2f: Migration of VM #%d to Host #%d is completed",
+					CloudSim.clock(),
+					vm.getId(),
+					host.getId()));
+		}
 		vm.setInMigration(false);
 	}
 
@@ -558,13 +567,13 @@ public class Datacenter extends SimEntity {
 				userId = cl.getUserId();
 				vmId = cl.getVmId();
 			} catch (Exception e) {
-				Log.printLine(super.getName() + ": Error in processing Cloudlet");
-				Log.printLine(e.getMessage());
+				LOG.error("{}: Error in processing Cloudlet", super.getName());
+				LOG.error(e.getMessage());
 				return;
 			}
 		} catch (Exception e) {
-			Log.printLine(super.getName() + ": Error in processing a Cloudlet.");
-			Log.printLine(e.getMessage());
+			LOG.error("{}: Error in processing a Cloudlet.", super.getName());
+			LOG.error(e.getMessage());
 			return;
 		}
 
@@ -680,11 +689,12 @@ public class Datacenter extends SimEntity {
 			Cloudlet cl = (Cloudlet) ev.getData();
 			// checks whether this Cloudlet has finished or not
 			if (cl.isFinished()) {
-				String name = CloudSim.getEntityName(cl.getUserId());
-				Log.printLine(getName() + ": Warning - Cloudlet #" + cl.getCloudletId() + " owned by " + name
-						+ " is already completed/finished.");
-				Log.printLine("Therefore, it is not being executed again");
-				Log.printLine();
+				if (LOG.isEnabled(Log.Level.WARN)) {
+					String name = CloudSim.getEntityName(cl.getUserId());
+					LOG.warn(getName() + ": Warning - Cloudlet #" + cl.getCloudletId() + " owned by " + name
+							+ " is already completed/finished.");
+				}
+				LOG.warn("Therefore, it is not being executed again");
 
 				// NOTE: If a Cloudlet has finished, then it won't be processed.
 				// So, if ack is required, this method sends back a result.
@@ -742,10 +752,10 @@ public class Datacenter extends SimEntity {
 				sendNow(cl.getUserId(), tag, data);
 			}
 		} catch (ClassCastException c) {
-			Log.printLine(getName() + ".processCloudletSubmit(): " + "ClassCastException error.");
+			LOG.error("{}.processCloudletSubmit(): ClassCastException error.", getName());
 			c.printStackTrace();
 		} catch (Exception e) {
-			Log.printLine(getName() + ".processCloudletSubmit(): " + "Exception error.");
+			LOG.error("{}.processCloudletSubmit(): Exception error.", getName());
 			e.printStackTrace();
 		}
 
@@ -1015,7 +1025,7 @@ public class Datacenter extends SimEntity {
 	 */
 	@Override
 	public void shutdownEntity() {
-		Log.printLine(getName() + " is shutting down...");
+		LOG.info("{} is shutting down...", getName());
 	}
 
 	/*
@@ -1024,7 +1034,7 @@ public class Datacenter extends SimEntity {
 	 */
 	@Override
 	public void startEntity() {
-		Log.printLine(getName() + " is starting...");
+		LOG.info("{} is starting...", getName());
 		// this resource should register to regional GIS.
 		// However, if not specified, then register to system GIS (the
 		// default CloudInformationService) entity.
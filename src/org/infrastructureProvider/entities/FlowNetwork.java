@@ -0,0 +1,364 @@
+package org.infrastructureProvider.entities;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.enduser.networkPacket.NetworkPacket;
+import org.utils.PolicyConstants;
+import org.utils.ServiceSimEvents;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * A flow-level model of the network, as an alternative to sending every packet hop by hop through
+ * the {@link Channel}s. Once attached to the devices, a packet sent to another device becomes a
+ * fluid flow along its whole route: the flows share the bandwidth of the channels they cross with
+ * max-min fairness, and the rates are only recomputed when a flow starts or ends, so that the cost
+ * of a packet does not depend on its size or on the number of hops. A completed flow is delivered
+ * to its destination with the usual {@link ServiceSimEvents#Packet_ARRIVAL} event, after the
+ * latencies of the channels of the route plus the processing time of the devices that forward it.
+ * <p>
+ * This is a cut-through approximation of the per-packet model: a packet is transmitted at the rate
+ * of its bottleneck instead of being stored and forwarded at every hop, and the devices on the
+ * route do not see it. The packet schedulers of the channels are not used.
+ *
+ * <pre>
+ * new FlowNetwork("flowNetwork", devicesProvider.getDevices());
+ * </pre>
+ */
+public class FlowNetwork extends SimEntity {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Log.Category LOG = Log.getCategory("network");
+
+    /* the remaining size under which a flow is completed, as in NetworkPacket */
+    private static final double COMPLETED = 0.0001;
+
+    /* the time under which a flow is completed, to absorb the rounding of the rates */
+    private static final double TIME_TOLERANCE = 1e-9;
+
+    private final Map<Integer, NetworkDevice> devices = new HashMap<>();
+
+    private final Map<Channel, Link> links = new HashMap<>();
+
+    /* the routes, by source and destination device */
+    private final Map<Long, Route> routes = new HashMap<>();
+
+    /* the flows being transmitted, in the order they started, and the ones started since the last update */
+    private final Set<Flow> flows = new LinkedHashSet<>();
+    private final List<Flow> startedFlows = new ArrayList<>();
+
+    private final Set<Link> activeLinks = new LinkedHashSet<>();
+
+    private double lastUpdate;
+
+    private long started;
+
+    public FlowNetwork(String name, List<? extends NetworkDevice> devices) {
+        super(name);
+        for (NetworkDevice device : devices) {
+            this.devices.put(device.getId(), device);
+            device.setFlowNetwork(this);
+        }
+    }
+
+    @Override
+    public void startEntity() {
+        lastUpdate = CloudSim.clock();
+    }
+
+    @Override
+    public void processEvent(SimEvent ev) {
+        switch (ev.getTag()) {
+            case ServiceSimEvents.Flow_UPDATE:
+                updateFlows();
+                break;
+            default:
+                LOG.error("{}: unknown event {}", getName(), ev.getTag());
+                break;
+        }
+    }
+
+    @Override
+    public void shutdownEntity() {
+        if (!flows.isEmpty() && LOG.isDebugEnabled()) {
+            LOG.debug("{}: {} flows still being transmitted", getName(), flows.size());
+        }
+    }
+
+    /**
+     * Starts transmitting a packet from a device to the destination of the packet. The flows started
+     * at the same time are added together, by an update at the current time.
+     */
+    public void startFlow(int source, NetworkPacket networkPacket) {
+        Route route = getRoute(source, networkPacket.getDestination());
+        if (route == null) {
+            if (LOG.isEnabled(Log.Level.ERROR)) {
+                LOG.error(getName() + ": no route from #" + source + " to #" + networkPacket.getDestination() + ", the packet is dropped");
+            }
+            return;
+        }
+        if (route.links.length == 0) {
+            ArrayList<NetworkPacket> packets = new ArrayList<>();
+            packets.add(networkPacket);
+            send(route.destination, 0, ServiceSimEvents.Packet_ARRIVAL, packets);
+            return;
+        }
+        startedFlows.add(new Flow(networkPacket, route, started++));
+        scheduleCoalesced(ServiceSimEvents.Flow_UPDATE, 0);
+    }
+
+    /**
+     * Forgets the routes, e.g. after the routing tables of the devices were changed. The flows being
+     * transmitted keep their route.
+     */
+    public void clearRoutes() {
+        routes.clear();
+    }
+
+    public int getFlowCount() {
+        return flows.size() + startedFlows.size();
+    }
+
+    /**
+     * Advances the flows to the current time, delivers the completed ones, adds the started ones,
+     * recomputes the rates and schedules the next completion.
+     */
+    protected void updateFlows() {
+        double currentTime = CloudSim.clock();
+        double timeSpan = currentTime - lastUpdate;
+        lastUpdate = currentTime;
+
+        List<Flow> completed = null;
+        for (Iterator<Flow> it = flows.iterator(); it.hasNext(); ) {
+            Flow flow = it.next();
+            flow.remaining -= flow.rate * timeSpan;
+            if (flow.remaining <= COMPLETED + flow.rate * TIME_TOLERANCE) {
+                it.remove();
+                for (Link link : flow.route.links) {
+                    link.flows.remove(flow);
+                    if (link.flows.isEmpty()) {
+                        activeLinks.remove(link);
+                    }
+                }
+                if (completed == null) {
+                    completed = new ArrayList<>();
+                }
+                completed.add(flow);
+            }
+        }
+        if (completed != null) {
+            deliver(completed);
+        }
+
+        for (Flow flow : startedFlows) {
+            flows.add(flow);
+            for (Link link : flow.route.links) {
+                link.flows.add(flow);
+                activeLinks.add(link);
+            }
+        }
+        boolean changed = completed != null || !startedFlows.isEmpty();
+        startedFlows.clear();
+
+        if (flows.isEmpty()) {
+            return;
+        }
+        if (changed) {
+            allocateRates();
+        }
+        double next = Double.MAX_VALUE;
+        for (Flow flow : flows) {
+            next = Math.min(next, Math.max(flow.remaining, 0) / flow.rate);
+        }
+        scheduleCoalesced(ServiceSimEvents.Flow_UPDATE, next);
+    }
+
+    /**
+     * Sends the completed flows to their destinations, in the order they started; the flows of the
+     * same route go in the same event.
+     */
+    private void deliver(List<Flow> completed) {
+        Collections.sort(completed, FLOW_ORDER);
+        Map<Route, ArrayList<NetworkPacket>> packets = new LinkedHashMap<>();
+        for (Flow flow : completed) {
+            ArrayList<NetworkPacket> list = packets.get(flow.route);
+            if (list == null) {
+                list = new ArrayList<>();
+                packets.put(flow.route, list);
+            }
+            flow.packet.setRemainSize(0);
+            list.add(flow.packet);
+        }
+        for (Map.Entry<Route, ArrayList<NetworkPacket>> entry : packets.entrySet()) {
+            Route route = entry.getKey();
+            send(route.destination, route.delay, ServiceSimEvents.Packet_ARRIVAL, entry.getValue());
+        }
+    }
+
+    /**
+     * Computes the max-min fair rates of the flows by progressive filling: the link offering the
+     * smallest fair share to its flows is the bottleneck of all of them, which get that share; it is
+     * then removed from the capacity of the other links on their routes, and so on.
+     */
+    private void allocateRates() {
+        PriorityQueue<LinkShare> shares = new PriorityQueue<>();
+        for (Link link : activeLinks) {
+            link.capacity = link.channel.getBandwidth();
+            link.unallocated = link.flows.size();
+            shares.add(new LinkShare(link));
+        }
+        for (Flow flow : flows) {
+            flow.allocated = false;
+        }
+        while (!shares.isEmpty()) {
+            LinkShare bottleneck = shares.poll();
+            Link link = bottleneck.link;
+            if (link.unallocated == 0 || bottleneck.share != link.share()) {
+                continue; // stale
+            }
+            double share = bottleneck.share;
+            for (Flow flow : link.flows) {
+                if (flow.allocated) {
+                    continue;
+                }
+                flow.allocated = true;
+                flow.rate = share;
+                for (Link other : flow.route.links) {
+                    other.capacity -= share;
+                    other.unallocated--;
+                    if (other != link && other.unallocated > 0) {
+                        shares.add(new LinkShare(other));
+                    }
+                }
+            }
+        }
+    }
+
+    private Route getRoute(int source, int destination) {
+        long key = ((long) source << 32) | (destination & 0xFFFFFFFFL);
+        Route route = routes.get(key);
+        if (route == null && !routes.containsKey(key)) {
+            route = findRoute(source, destination);
+            routes.put(key, route);
+        }
+        return route;
+    }
+
+    private Route findRoute(int source, int destination) {
+        List<Link> path = new ArrayList<>();
+        double delay = 0;
+        int current = source;
+        while (current != destination) {
+            NetworkDevice device = devices.get(current);
+            int nexthop = device == null ? -1 : device.getNextHop(destination);
+            Channel channel = nexthop < 0 ? null : device.getChannel(nexthop);
+            if (channel == null || path.size() > devices.size()) {
+                return null;
+            }
+            Link link = links.get(channel);
+            if (link == null) {
+                link = new Link(channel, links.size());
+                links.put(channel, link);
+            }
+            path.add(link);
+            delay += channel.getLatency() + PolicyConstants.PacketArrivalProcess;
+            current = nexthop;
+        }
+        return new Route(destination, path.toArray(new Link[0]), delay);
+    }
+
+    private static final Comparator<Flow> FLOW_ORDER = new FlowOrder();
+
+    private static class FlowOrder implements Comparator<Flow>, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int compare(Flow a, Flow b) {
+            return Long.compare(a.order, b.order);
+        }
+    }
+
+    private static class Route implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final int destination;
+        final Link[] links;
+        /* the latencies of the channels and the processing times of the forwarding devices */
+        final double delay;
+
+        Route(int destination, Link[] links, double delay) {
+            this.destination = destination;
+            this.links = links;
+            this.delay = delay;
+        }
+    }
+
+    private static class Link implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final Channel channel;
+        final int index;
+        final Set<Flow> flows = new LinkedHashSet<>();
+
+        /* the state of the rate allocation */
+        double capacity;
+        int unallocated;
+
+        Link(Channel channel, int index) {
+            this.channel = channel;
+            this.index = index;
+        }
+
+        double share() {
+            return Math.max(capacity, 0) / unallocated;
+        }
+    }
+
+    private static class Flow implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final NetworkPacket packet;
+        final Route route;
+        final long order;
+        double remaining;
+        double rate;
+        boolean allocated;
+
+        Flow(NetworkPacket packet, Route route, long order) {
+            this.packet = packet;
+            this.route = route;
+            this.order = order;
+            this.remaining = packet.getRemainSize();
+        }
+    }
+
+    private static class LinkShare implements Comparable<LinkShare> {
+        final Link link;
+        final double share;
+
+        LinkShare(Link link) {
+            this.link = link;
+            this.share = link.share();
+        }
+
+        @Override
+        public int compareTo(LinkShare other) {
+            int c = Double.compare(share, other.share);
+            return c != 0 ? c : Integer.compare(link.index, other.link.index);
+        }
+    }
+}
@@ -7,6 +7,8 @@
 
 package org.infrastructureProvider.entities;
 
+import java.io.Serializable;
+
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.lists.PeList;
@@ -26,7 +28,13 @@ import java.util.List;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 1.0
  */
-public class Host {
+public class Host implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The log category. */
+	private static final Log.Category LOG = Log.getCategory("datacenter");
 
 	/** The id. */
 	private int id;
@@ -116,27 +124,23 @@ public class Host {
 
 		if (!getVmsMigratingIn().contains(vm)) {
 			if (getStorage() < vm.getSize()) {
-				Log.printLine("[VmScheduler.addMigratingInVm] Allocation of VM #" + vm.getId() + " to Host #"
-						+ getId() + " failed by storage");
+				LOG.error("[VmScheduler.addMigratingInVm] Allocation of VM #{} to Host #{} failed by storage", vm.getId(), getId());
 				System.exit(0);
 			}
 
 			if (!getRamProvisioner().allocateRamForVm(vm, vm.getCurrentRequestedRam())) {
-				Log.printLine("[VmScheduler.addMigratingInVm] Allocation of VM #" + vm.getId() + " to Host #"
-						+ getId() + " failed by RAM");
+				LOG.error("[VmScheduler.addMigratingInVm] Allocation of VM #{} to Host #{} failed by RAM", vm.getId(), getId());
 				System.exit(0);
 			}
 
 			if (!getBwProvisioner().allocateBwForVm(vm, vm.getCurrentRequestedBw())) {
-				Log.printLine("[VmScheduler.addMigratingInVm] Allocation of VM #" + vm.getId() + " to Host #"
-						+ getId() + " failed by BW");
+				LOG.error("[VmScheduler.addMigratingInVm] Allocation of VM #{} to Host #{} failed by BW", vm.getId(), getId());
 				System.exit(0);
 			}
 
 			getVmScheduler().getVmsMigratingIn().add(vm.getUid());
 			if (!getVmScheduler().allocatePesForVm(vm, vm.getCurrentRequestedMips())) {
-				Log.printLine("[VmScheduler.addMigratingInVm] Allocation of VM #" + vm.getId() + " to Host #"
-						+ getId() + " failed by MIPS");
+				LOG.error("[VmScheduler.addMigratingInVm] Allocation of VM #{} to Host #{} failed by MIPS", vm.getId(), getId());
 				System.exit(0);
 			}
 
@@ -203,27 +207,23 @@ public class Host {
 	 */
 	public boolean vmCreate(Vm vm) {
 		if (getStorage() < vm.getSize()) {
-			Log.printLine("[VmScheduler.vmCreate] Allocation of VM #" + vm.getId() + " to Host #" + getId()
-					+ " failed by storage");
+			LOG.debug("[VmScheduler.vmCreate] Allocation of VM #{} to Host #{} failed by storage", vm.getId(), getId());
 			return false;
 		}
 
 		if (!getRamProvisioner().allocateRamForVm(vm, vm.getCurrentRequestedRam())) {
-			Log.printLine("[VmScheduler.vmCreate] Allocation of VM #" + vm.getId() + " to Host #" + getId()
-					+ " failed by RAM");
+			LOG.debug("[VmScheduler.vmCreate] Allocation of VM #{} to Host #{} failed by RAM", vm.getId(), getId());
 			return false;
 		}
 
 		if (!getBwProvisioner().allocateBwForVm(vm, vm.getCurrentRequestedBw())) {
-			Log.printLine("[VmScheduler.vmCreate] Allocation of VM #" + vm.getId() + " to Host #" + getId()
-					+ " failed by BW");
+			LOG.debug("[VmScheduler.vmCreate] Allocation of VM #{} to Host #{} failed by BW", vm.getId(), getId());
 			getRamProvisioner().deallocateRamForVm(vm);
 			return false;
 		}
 
 		if (!getVmScheduler().allocatePesForVm(vm, vm.getCurrentRequestedMips())) {
-			Log.printLine("[VmScheduler.vmCreate] Allocation of VM #" + vm.getId() + " to Host #" + getId()
-					+ " failed by MIPS");
+			LOG.debug("[VmScheduler.vmCreate] Allocation of VM #{} to Host #{} failed by MIPS", vm.getId(), getId());
 			getRamProvisioner().deallocateRamForVm(vm);
 			getBwProvisioner().deallocateBwForVm(vm);
 			return false;
@@ -28,6 +28,12 @@ import java.util.List;
  */
 public class HostDynamicWorkload extends Host {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The log category. */
+	private static final Log.Category LOG = Log.getCategory("datacenter");
+
 	/** The utilization mips. */
 	private double utilizationMips;
 
@@ -82,8 +88,8 @@ public class HostDynamicWorkload extends Host {
 			double totalRequestedMips = vm.getCurrentRequestedTotalMips();
 			double totalAllocatedMips = getVmScheduler().getTotalAllocatedMipsForVm(vm);
 
-			if (!Log.isDisabled()) {
-				Log.formatLine(
+			if (LOG.isDebugEnabled()) {
+				LOG.debug(String.format(
 						"%.2f: [Host #" + getId() + "] Total allocated MIPS for VM #" + vm.getId()
 								+ " (Host #" + vm.getHost().getId()
 								+ ") is %.2f, was requested %.2f out of total %.2f (%.2f%%)",
@@ -91,7 +97,7 @@ public class HostDynamicWorkload extends Host {
 						totalAllocatedMips,
 						totalRequestedMips,
 						vm.getMips(),
-						totalRequestedMips / vm.getMips() * 100);
+						totalRequestedMips / vm.getMips() * 100));
 
 				List<Pe> pes = getVmScheduler().getPesAllocatedForVM(vm);
 				StringBuilder pesString = new StringBuilder();
@@ -99,20 +105,22 @@ public class HostDynamicWorkload extends Host {
 					pesString.append(String.format(" PE #" + pe.getId() + ": %.2f.", pe.getPeProvisioner()
 							.getTotalAllocatedMipsForVm(vm)));
 				}
-				Log.formatLine(
+				LOG.debug(String.format(
 						"%.2f: [Host #" + getId() + "] MIPS for VM #" + vm.getId() + " by PEs ("
 								+ getNumberOfPes() + " * " + getVmScheduler().getPeCapacity() + ")."
 								+ pesString,
-						CloudSim.clock());
+						CloudSim.clock()));
 			}
 
 			if (getVmsMigratingIn().contains(vm)) {
-				Log.formatLine("%.2f: [Host #" + getId() + "] VM #" + vm.getId()
-						+ " is being migrated to Host #" + getId(), CloudSim.clock());
+				if (LOG.isDebugEnabled()) {
+					LOG.debug(String.format("%.2f: [Host #" + getId() + "] VM #" + vm.getId()
+							+ " is being migrated to Host #" + getId(), CloudSim.clock()));
+				}
 			} else {
-				if (totalAllocatedMips + 0.1 < totalRequestedMips) {
-					Log.formatLine("%.2f: [Host #" + getId() + "] Under allocated MIPS for VM #" + vm.getId()
-							+ ": %.2f", CloudSim.clock(), totalRequestedMips - totalAllocatedMips);
+				if (totalAllocatedMips + 0.1 < totalRequestedMips && LOG.isDebugEnabled()) {
+					LOG.debug(String.format("%.2f: [Host #" + getId() + "] Under allocated MIPS for VM #" + vm.getId()
+							+ ": %.2f", CloudSim.clock(), totalRequestedMips - totalAllocatedMips));
 				}
 
 				vm.addStateHistoryEntry(
@@ -122,9 +130,11 @@ public class HostDynamicWorkload extends Host {
 						(vm.isInMigration() && !getVmsMigratingIn().contains(vm)));
 
 				if (vm.isInMigration()) {
-					Log.formatLine(
-							"%.2f: [Host #" + getId() + "] VM #" + vm.getId() + " is in migration",
-							CloudSim.clock());
+					if (LOG.isDebugEnabled()) {
+						LOG.debug(String.format(
+								"%.2f: [Host #" + getId() + "] VM #" + vm.getId() + " is in migration",
+								CloudSim.clock()));
+					}
 					totalAllocatedMips /= 0.9; // performance degradation due to migration - 10%
 				}
 			}
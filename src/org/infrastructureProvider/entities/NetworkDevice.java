@@ -8,11 +8,11 @@ import org.cloudbus.cloudsim.UtilizationModelFull;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEvent;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 import org.cloudbus.cloudsim.lists.VmList;
 import org.enduser.networkPacket.*;
 import org.infrastructureProvider.policies.CloudletScheduler;
 import org.infrastructureProvider.policies.NetworkCloudletScheduler;
+import org.infrastructureProvider.policies.RoutingTable;
 import org.infrastructureProvider.policies.VmAllocationPolicy;
 import org.serviceProvider.capacities.LoadAdmission;
 import org.serviceProvider.capacities.LoadBalance;
@@ -29,6 +29,10 @@ import java.util.*;
 
 public class NetworkDevice extends Datacenter {
 
+    private static final long serialVersionUID = 1L;
+
+    private static final Log.Category LOG = Log.getCategory("network");
+
     private Location location;
 
     private GeoCoverage geoCoverage;
@@ -77,7 +81,10 @@ public class NetworkDevice extends Datacenter {
     private Map<Integer, ArrayList<NetworkCloudlet>> instanceIdToCloudlet = new HashMap<>(); // for cloudlets submit
 
     /* routing */
-    Map<Integer, Map<Integer, Integer>> routingTable;
+    RoutingTable routingTable;
+
+    /* the flow-level network model, if the packets are not sent hop by hop */
+    private FlowNetwork flowNetwork;
 
     /* service related */
 
@@ -119,6 +126,7 @@ public class NetworkDevice extends Datacenter {
                          VmAllocationPolicy vmAllocationPolicy, List<Storage> storageList, double schedulingInterval,
                          Location location, GeoCoverage geoCoverage, String identify, int level) throws Exception {
         super(name, characteristics, vmAllocationPolicy, storageList, schedulingInterval);
+        ServiceSimEvents.registerTagNames();
         this.location = location;
         this.geoCoverage = geoCoverage;
         this.identify = identify;
@@ -127,6 +135,14 @@ public class NetworkDevice extends Datacenter {
 
     }
 
+    @Override
+    public void startEntity() {
+        super.startEntity();
+        if (CloudSim.isJmxEnabled()) {
+            CloudSim.registerMBean(this, "NetworkDevice", new NetworkDeviceMetrics(this));
+        }
+    }
+
     @Override
     protected void processOtherEvent(SimEvent ev){
         switch (ev.getTag()){
@@ -156,6 +172,9 @@ public class NetworkDevice extends Datacenter {
             case ServiceSimEvents.Service_DISCOVERY_DEL:
                 serviceCancellation(ev);
                 break;
+            case ServiceSimEvents.Routing_UPDATE:
+                processRoutingUpdate(ev);
+                break;
             default:
                 super.processOtherEvent(ev);
                 break;
@@ -176,13 +195,7 @@ public class NetworkDevice extends Datacenter {
             int destination = networkPacket.destination;
 
             if (destination != getId()){ // transmit
-                // Get the next hop address according to the routing table
-                int nexthop = routingTable.get(getId()).get(destination);
-
-                CloudSim.cancelAll(getId(), new PredicateType(ServiceSimEvents.Packet_SEND));
-                send(getId(), PolicyConstants.PacketArrivalProcess,ServiceSimEvents.Packet_SEND);
-
-                addPacketToSendMap(nexthop, networkPacket);
+                sendPacket(networkPacket);
 
             }else{
                 networkPacket.setRecvTime(CloudSim.clock());
@@ -204,17 +217,23 @@ public class NetworkDevice extends Datacenter {
 //                    }
                     instanceId = loadBalance.findInstanceId(serviceDiscovery, networkPacket.getDestinationServiceId(),getId());
                     if (instanceId < 0){
-                        Log.printLine(CloudSim.clock() + ": " + getName() + ": can not find instance!" );
+                        if (LOG.isEnabled(Log.Level.WARN)) {
+                            LOG.warn(CloudSim.clock() + ": " + getName() + ": can not find instance!");
+                        }
                         return;
                         // to do: request failed
                     }
                     networkPacket.setDestinationVm(instanceId);
-                    Log.printLine(CloudSim.clock() + ": " + getName() + ": request packet #" + networkPackets.get(i).getAppId()
-                            + " has arrivalled in Datacenter #" + getId() + " and was routed to vm #" + instanceId);
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug(CloudSim.clock() + ": " + getName() + ": request packet #" + networkPackets.get(i).getAppId()
+                                + " has arrivalled in Datacenter #" + getId() + " and was routed to vm #" + instanceId);
+                    }
 
                     // 3. generate cloudlets
                     NetworkCloudlet networkCloudlet = generateCloudlet(networkPacket);
-                    Log.printLine(CloudSim.clock() + ": " + getName() + ": " + networkCloudlet.getCloudletId());
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace(CloudSim.clock() + ": " + getName() + ": " + networkCloudlet.getCloudletId());
+                    }
                     cloudletIdToPacket.put(networkCloudlet.getCloudletId(),networkPacket);
                     if (instanceIdToCloudlet.containsKey(instanceId)){
                         instanceIdToCloudlet.get(instanceId).add(networkCloudlet);
@@ -224,17 +243,15 @@ public class NetworkDevice extends Datacenter {
                         instanceIdToCloudlet.put(instanceId,cloudlets);
                     }
 
-                    CloudSim.cancelAll(getId(), new PredicateType(ServiceSimEvents.Cloudlet_SUBMIT));
-                    send(getId(), PolicyConstants.RequestArrivalProcess,ServiceSimEvents.Cloudlet_SUBMIT);
+                    scheduleCoalesced(ServiceSimEvents.Cloudlet_SUBMIT, PolicyConstants.RequestArrivalProcess);
 
                 }else if (type == NetworkConstants.RESPONSE){
                     getReceivedResponsePackets().add(networkPacket);
 
-                    CloudSim.cancelAll(getId(), new PredicateType(ServiceSimEvents.Cloudlet_UPDATE_FOR_RESPONSE));
-                    send(getId(), PolicyConstants.ResponseDataArrivalProcess,ServiceSimEvents.Cloudlet_UPDATE_FOR_RESPONSE);
+                    scheduleCoalesced(ServiceSimEvents.Cloudlet_UPDATE_FOR_RESPONSE, PolicyConstants.ResponseDataArrivalProcess);
 
                 }else{
-                    System.out.println("NETWORKDEVICE ERROR: Unknown Packet.");
+                    LOG.error("NETWORKDEVICE ERROR: Unknown Packet.");
                 }
             }
 
@@ -246,7 +263,7 @@ public class NetworkDevice extends Datacenter {
     public NetworkCloudlet generateCloudlet(NetworkPacket networkPacket){
         int serviceId = networkPacket.getDestinationServiceId();
         int preServiceId = networkPacket.getSourceServiceId();
-        NetworkCloudlet cl = new NetworkCloudlet(NetworkConstants.currentCloudletId++,
+        NetworkCloudlet cl = new NetworkCloudlet(NetworkConstants.nextCloudletId(),
                 networkPacket.getAppId(),
                 0, // Here, cloudletLength is set to 0.
                 networkPacket.getServiceChainInfo().getPesNumberList().get(serviceId),
@@ -275,10 +292,10 @@ public class NetworkDevice extends Datacenter {
             Channel channel = sameLevelDevicesToChannel.get(key);
 
             Double nextCheckInterval = channel.packetSubmit(getPackets(sendToSameLevelDevicesPktList,key));
-            Log.printLine("packet sending time: "+nextCheckInterval);
+            LOG.trace("packet sending time: {}", nextCheckInterval);
 
             if (nextCheckInterval < 0){
-                Log.printLine("NETWORKDEVICE ERROR: NextCheckInterval error.");
+                LOG.error("NETWORKDEVICE ERROR: NextCheckInterval error.");
             }
 
             send(getId(),nextCheckInterval,ServiceSimEvents.Packet_SEND_CHECK,key);
@@ -294,7 +311,7 @@ public class NetworkDevice extends Datacenter {
             Double nextCheckInterval = channel.packetSubmit(getPackets(sendToChildDevicesPktList,key));
 
             if (nextCheckInterval < 0){
-                System.out.println("NETWORKDEVICE ERROR: NextCheckInterval error.");
+                LOG.error("NETWORKDEVICE ERROR: NextCheckInterval error.");
             }
 
             send(getId(),nextCheckInterval,ServiceSimEvents.Packet_SEND_CHECK,key);
@@ -307,12 +324,10 @@ public class NetworkDevice extends Datacenter {
 
             Channel channel = parentDevicesToChannel.get(key);
 
-            Log.printLine("iiiiiiiii" + channel);
-
             Double nextCheckInterval = channel.packetSubmit(getPackets(sendToParentDevicesPktList,key));
 
             if (nextCheckInterval < 0){
-                System.out.println("NETWORKDEVICE ERROR: NextCheckInterval error.");
+                LOG.error("NETWORKDEVICE ERROR: NextCheckInterval error.");
             }
 
             send(getId(),nextCheckInterval,ServiceSimEvents.Packet_SEND_CHECK,key);
@@ -322,23 +337,16 @@ public class NetworkDevice extends Datacenter {
     }
 
     public void packetSendChecking(SimEvent ev){
-        Log.printLine("packet sending check");
+        LOG.trace("packet sending check");
         int to = (int) ev.getData();
-        Channel channel;
-        if (sameLevelDevicesToChannel.containsKey(to)){
-            channel = sameLevelDevicesToChannel.get(to);
-        }else if (childDevicesToChannel.containsKey(to)){
-            channel = childDevicesToChannel.get(to);
-        }else{
-            channel = parentDevicesToChannel.get(to);
-        }
+        Channel channel = getChannel(to);
 
         Double nextCheckInterval = channel.updatePacketSending();
 
         List<NetworkPacket> networkPackets = channel.getPacketScheduler().getPacketFinishedList();
 
         if (networkPackets.size() > 0){
-            Log.printLine("packet sending has checked");
+            LOG.trace("packet sending has checked");
             send(to, channel.getLatency(), ServiceSimEvents.Packet_ARRIVAL, networkPackets);
             channel.getPacketScheduler().setPacketFinishedList(new ArrayList<>());
         }
@@ -352,15 +360,16 @@ public class NetworkDevice extends Datacenter {
     }
 
     public void cloudletSubmit(){
-        Log.printLine("ssssss");
         for (int key : instanceIdToCloudlet.keySet()){
 
             Host host = getVmAllocationPolicy().getHost(key,instanceIdToCloudlet.get(key).get(0).getUserId());
             Vm vm = host.getVm(key,instanceIdToCloudlet.get(key).get(0).getUserId());
             NetworkCloudletScheduler scheduler = (NetworkCloudletScheduler) vm.getCloudletScheduler();
 
-            Log.printLine(CloudSim.clock() + ": " + getName() + ": some cloudlets"
-                    + "has arrivalled in Datacenter #" + getId() + " and submitted to vm #" + vm.getId());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(CloudSim.clock() + ": " + getName() + ": some cloudlets"
+                        + "has arrivalled in Datacenter #" + getId() + " and submitted to vm #" + vm.getId());
+            }
 
             double nextCheckInterval = scheduler.cloudletSubmit(instanceIdToCloudlet.get(key));
             cloudletProcessChecking(vm);
@@ -409,11 +418,10 @@ public class NetworkDevice extends Datacenter {
                 if (networkPacket.getDestination() == getId()){
                     sendToSelf.add(networkPacket);
                 }else{
-                    int nexthop = routingTable.get(getId()).get(networkPacket.getDestination());
-                    CloudSim.cancelAll(getId(), new PredicateType(ServiceSimEvents.Packet_SEND));
-                    send(getId(), PolicyConstants.PacketArrivalProcess,ServiceSimEvents.Packet_SEND);
-                    Log.printLine("packet generated and send to: "+nexthop);
-                    addPacketToSendMap(nexthop, networkPacket);
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("packet generated and send to: " + networkPacket.getDestination());
+                    }
+                    sendPacket(networkPacket);
                 }
             }
         }
@@ -473,6 +481,58 @@ public class NetworkDevice extends Datacenter {
 
     }
 
+    /**
+     * Sends a packet towards its destination: as a flow if the flow-level network model is used,
+     * otherwise to the next hop given by the routing table.
+     */
+    public void sendPacket(NetworkPacket networkPacket){
+        if (flowNetwork != null){
+            flowNetwork.startFlow(getId(), networkPacket);
+            return;
+        }
+        // Get the next hop address according to the routing table
+        int nexthop = getNextHop(networkPacket.getDestination());
+        if (nexthop < 0){
+            LOG.error("{}: no route to #{}, the packet is dropped", getName(), networkPacket.getDestination());
+            return;
+        }
+
+        scheduleCoalesced(ServiceSimEvents.Packet_SEND, PolicyConstants.PacketArrivalProcess);
+
+        addPacketToSendMap(nexthop, networkPacket);
+    }
+
+    /**
+     * Replaces the routing table by the one pushed by the {@link RoutingService}.
+     */
+    protected void processRoutingUpdate(SimEvent ev){
+        setRoutingTable((RoutingTable) ev.getData());
+        if (flowNetwork != null){
+            flowNetwork.clearRoutes();
+        }
+    }
+
+    /**
+     * Gets the next device to route to towards a destination, or -1 if there is no route.
+     */
+    public int getNextHop(int destination){
+        return routingTable == null ? -1 : routingTable.getNextHop(getId(), destination);
+    }
+
+    /**
+     * Gets the channel to a neighbour device, or null if it is not a neighbour.
+     */
+    public Channel getChannel(int to){
+        Channel channel = sameLevelDevicesToChannel.get(to);
+        if (channel == null){
+            channel = childDevicesToChannel.get(to);
+        }
+        if (channel == null){
+            channel = parentDevicesToChannel.get(to);
+        }
+        return channel;
+    }
+
     public void addPacketToSendMap(int nexthop, NetworkPacket networkPacket){
 
         if (sameLevelDeviceIds.contains(nexthop)){
@@ -763,14 +823,22 @@ public class NetworkDevice extends Datacenter {
         this.vmsNeedToDestroy = vmsNeedToDestroy;
     }
 
-    public Map<Integer, Map<Integer, Integer>> getRoutingTable() {
+    public RoutingTable getRoutingTable() {
         return routingTable;
     }
 
-    public void setRoutingTable(Map<Integer, Map<Integer, Integer>> routingTable) {
+    public void setRoutingTable(RoutingTable routingTable) {
         this.routingTable = routingTable;
     }
 
+    public FlowNetwork getFlowNetwork() {
+        return flowNetwork;
+    }
+
+    public void setFlowNetwork(FlowNetwork flowNetwork) {
+        this.flowNetwork = flowNetwork;
+    }
+
     public ArrayList<NetworkPacket> getReceivedResponsePackets() {
         return receivedResponsePackets;
     }
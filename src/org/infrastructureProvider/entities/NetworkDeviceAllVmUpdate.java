@@ -7,7 +7,6 @@ import org.cloudbus.cloudsim.UtilizationModelFull;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEvent;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 import org.enduser.networkPacket.*;
 import org.infrastructureProvider.policies.NetworkCloudletScheduler;
 import org.infrastructureProvider.policies.VmAllocationPolicy;
@@ -29,6 +28,10 @@ import java.util.Map;
 
 public class NetworkDeviceAllVmUpdate extends NetworkDevice {
 
+    private static final long serialVersionUID = 1L;
+
+    private static final Log.Category LOG = Log.getCategory("network");
+
     /**
      * Allocates a new PowerDatacenter object.
      *
@@ -107,11 +110,10 @@ public class NetworkDeviceAllVmUpdate extends NetworkDevice {
                     if (networkPacket.getDestination() == getId()){
                         sendToSelf.add(networkPacket);
                     }else{
-                        int nexthop = routingTable.get(getId()).get(networkPacket.getDestination());
-                        CloudSim.cancelAll(getId(), new PredicateType(ServiceSimEvents.Packet_SEND));
-                        send(getId(), PolicyConstants.PacketArrivalProcess,ServiceSimEvents.Packet_SEND);
-                        Log.printLine("packet generated and send to: "+nexthop);
-                        addPacketToSendMap(nexthop, networkPacket);
+                        if (LOG.isTraceEnabled()) {
+                            LOG.trace("packet generated and send to: " + networkPacket.getDestination());
+                        }
+                        sendPacket(networkPacket);
                     }
                 }
             }
@@ -0,0 +1,101 @@
+package org.infrastructureProvider.entities;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.infrastructureProvider.policies.CloudletScheduler;
+import org.infrastructureProvider.policies.NetworkCloudletScheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The JMX view of a network device. Nothing is counted on the hot path: the gauges are sampled from
+ * the packet and cloudlet schedulers when they are read, without synchronisation, so they may be
+ * slightly stale while the simulation runs.
+ */
+class NetworkDeviceMetrics implements NetworkDeviceMetricsMXBean {
+
+    private final NetworkDevice device;
+
+    /* the names of the neighbours, resolved on the simulation thread */
+    private final Map<Integer, String> neighbourNames = new TreeMap<>();
+
+    NetworkDeviceMetrics(NetworkDevice device) {
+        this.device = device;
+        for (Map<Integer, Channel> channels : channelMaps()) {
+            for (Integer to : channels.keySet()) {
+                neighbourNames.put(to, CloudSim.getEntityName(to));
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Integer> getPacketsInFlight() {
+        Map<String, Integer> packets = new TreeMap<>();
+        for (Map<Integer, Channel> channels : channelMaps()) {
+            for (Map.Entry<Integer, Channel> entry : channels.entrySet()) {
+                String name = neighbourNames.get(entry.getKey());
+                packets.put(name == null ? String.valueOf(entry.getKey()) : name,
+                        entry.getValue().getPacketScheduler().getSendingPacketCount());
+            }
+        }
+        return packets;
+    }
+
+    @Override
+    public int getTotalPacketsInFlight() {
+        int total = 0;
+        for (int packets : getPacketsInFlight().values()) {
+            total += packets;
+        }
+        return total;
+    }
+
+    @Override
+    public Map<Integer, Integer> getCloudletsInExec() {
+        Map<Integer, Integer> cloudlets = new TreeMap<>();
+        for (Vm vm : vms()) {
+            CloudletScheduler scheduler = vm.getCloudletScheduler();
+            if (scheduler instanceof NetworkCloudletScheduler) {
+                cloudlets.put(vm.getId(), ((NetworkCloudletScheduler) scheduler).getCloudletExecList().size());
+            } else if (scheduler != null) {
+                cloudlets.put(vm.getId(), scheduler.runningCloudlets());
+            }
+        }
+        return cloudlets;
+    }
+
+    @Override
+    public int getTotalCloudletsInExec() {
+        int total = 0;
+        for (int cloudlets : getCloudletsInExec().values()) {
+            total += cloudlets;
+        }
+        return total;
+    }
+
+    @Override
+    public int getVmCount() {
+        return device.getVmList().size();
+    }
+
+    private List<Map<Integer, Channel>> channelMaps() {
+        return Arrays.asList(device.getSameLevelDevicesToChannel(), device.getParentDevicesToChannel(),
+                device.getChildDevicesToChannel());
+    }
+
+    /**
+     * Copies the VM list; the simulation thread may change it meanwhile, leaving empty slots.
+     */
+    private List<Vm> vms() {
+        List<Vm> vms = new ArrayList<>();
+        for (Object vm : device.getVmList().toArray()) {
+            if (vm != null) {
+                vms.add((Vm) vm);
+            }
+        }
+        return vms;
+    }
+}
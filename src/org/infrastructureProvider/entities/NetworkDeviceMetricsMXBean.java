@@ -0,0 +1,26 @@
+package org.infrastructureProvider.entities;
+
+import java.util.Map;
+
+/**
+ * The management interface of a network device, registered as
+ * <tt>org.cloudbus.cloudsim:type=NetworkDevice,simulation=&lt;id&gt;,name=&lt;device name&gt;</tt>.
+ */
+public interface NetworkDeviceMetricsMXBean {
+
+    /**
+     * Gets the packets being sent on each outgoing channel, by name of the device at the other end.
+     */
+    Map<String, Integer> getPacketsInFlight();
+
+    int getTotalPacketsInFlight();
+
+    /**
+     * Gets the cloudlets executing on each VM of the device, by VM id.
+     */
+    Map<Integer, Integer> getCloudletsInExec();
+
+    int getTotalCloudletsInExec();
+
+    int getVmCount();
+}
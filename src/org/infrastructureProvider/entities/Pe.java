@@ -8,6 +8,8 @@
 
 package org.infrastructureProvider.entities;
 
+import java.io.Serializable;
+
 import org.infrastructureProvider.policies.provisioners.PeProvisioner;
 
 /**
@@ -19,7 +21,10 @@ import org.infrastructureProvider.policies.provisioners.PeProvisioner;
  * @author Rajkumar Buyya
  * @since CloudSim Toolkit 1.0
  */
-public class Pe {
+public class Pe implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 
 	/** Denotes Pe is FREE for allocation. */
 	public static final int FREE = 1;
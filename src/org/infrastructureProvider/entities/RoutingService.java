@@ -0,0 +1,240 @@
+package org.infrastructureProvider.entities;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.infrastructureProvider.policies.DenseRoutingTable;
+import org.infrastructureProvider.policies.HierarchicalRoutingTable;
+import org.infrastructureProvider.policies.IncrementalRouting;
+import org.infrastructureProvider.policies.RoutingTable;
+import org.utils.ServiceSimEvents;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Changes the topology of the network during a run: the latency of a link, or a link or a device
+ * going down or up. The routes are repaired by an {@link IncrementalRouting}, which only searches
+ * again the routes the change may affect, and the new routing table is pushed to the devices whose
+ * next hops changed with a {@link ServiceSimEvents#Routing_UPDATE} event, after the update delay.
+ * <p>
+ * The changes are {@link ServiceSimEvents#Routing_CHANGE} events, e.g. to take a link down at
+ * time 5:
+ *
+ * <pre>
+ * RoutingService routingService = new RoutingService("routingService", devicesProvider.getDevices());
+ * routingService.scheduleChange(5, RoutingService.TopologyChange.linkDown(edge.getId(), router.getId()));
+ * </pre>
+ *
+ * The packets already sent on a channel that goes down are still delivered; the next ones are
+ * routed around it, and dropped if their destination cannot be reached.
+ * <p>
+ * The routes are repaired in a {@link DenseRoutingTable}, unless the devices route with a
+ * {@link HierarchicalRoutingTable}: a hierarchical table is then repaired instead, so that large
+ * topologies keep their O(n) table, with the limits of the hierarchical routes.
+ */
+public class RoutingService extends SimEntity {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Log.Category LOG = Log.getCategory("network");
+
+    private final Map<Integer, NetworkDevice> devices = new LinkedHashMap<>();
+
+    private final IncrementalRouting routing;
+
+    /* the time the devices take to get the new routes */
+    private double updateDelay;
+
+    /* the changes scheduled before the simulation started, by delay */
+    private final List<Map.Entry<Double, TopologyChange>> scheduledChanges = new ArrayList<>();
+
+    public RoutingService(String name, List<? extends NetworkDevice> devices) {
+        super(name);
+        boolean hierarchical = false;
+        for (NetworkDevice device : devices) {
+            hierarchical |= device.getRoutingTable() instanceof HierarchicalRoutingTable;
+        }
+        routing = new IncrementalRouting(devices, hierarchical);
+        for (NetworkDevice device : devices) {
+            this.devices.put(device.getId(), device);
+            device.setRoutingTable(routing.getRoutingTable());
+        }
+    }
+
+    @Override
+    public void startEntity() {
+        for (Map.Entry<Double, TopologyChange> change : scheduledChanges) {
+            scheduleChange(change.getKey(), change.getValue());
+        }
+        scheduledChanges.clear();
+    }
+
+    @Override
+    public void processEvent(SimEvent ev) {
+        switch (ev.getTag()) {
+            case ServiceSimEvents.Routing_CHANGE:
+                applyChange((TopologyChange) ev.getData());
+                break;
+            default:
+                LOG.error("{}: unknown event {}", getName(), ev.getTag());
+                break;
+        }
+    }
+
+    @Override
+    public void shutdownEntity() {
+    }
+
+    /**
+     * Schedules a change of the topology, after a delay from the current time, or from the start
+     * of the simulation if it is not running yet.
+     */
+    public void scheduleChange(double delay, TopologyChange change) {
+        if (!CloudSim.running()) {
+            scheduledChanges.add(new AbstractMap.SimpleImmutableEntry<>(delay, change));
+            return;
+        }
+        schedule(getId(), delay, ServiceSimEvents.Routing_CHANGE, change);
+    }
+
+    /**
+     * Changes the topology now, and sends the new routing table to the devices whose next hops
+     * changed.
+     */
+    public void applyChange(TopologyChange change) {
+        List<Integer> changed;
+        switch (change.type) {
+            case LINK_LATENCY:
+                setChannelLatency(change.deviceId, change.otherDeviceId, change.latency);
+                setChannelLatency(change.otherDeviceId, change.deviceId, change.latency);
+                changed = routing.setLinkLatency(change.deviceId, change.otherDeviceId, change.latency);
+                break;
+            case LINK_DOWN:
+            case LINK_UP:
+                changed = routing.setLinkUp(change.deviceId, change.otherDeviceId, change.type == ChangeType.LINK_UP);
+                break;
+            default:
+                changed = routing.setDeviceUp(change.deviceId, change.type == ChangeType.DEVICE_UP);
+                break;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(CloudSim.clock() + ": " + getName() + ": " + change + " changed the routes of " + changed.size() + " devices");
+        }
+
+        // the latencies of the routes cached by the flow networks may have changed
+        Set<FlowNetwork> flowNetworks = new LinkedHashSet<>();
+        for (NetworkDevice device : devices.values()) {
+            if (device.getFlowNetwork() != null) {
+                flowNetworks.add(device.getFlowNetwork());
+            }
+        }
+        for (FlowNetwork flowNetwork : flowNetworks) {
+            flowNetwork.clearRoutes();
+        }
+
+        RoutingTable routingTable = routing.getRoutingTable();
+        for (int deviceId : changed) {
+            send(deviceId, updateDelay, ServiceSimEvents.Routing_UPDATE, routingTable);
+        }
+    }
+
+    private void setChannelLatency(int from, int to, double latency) {
+        NetworkDevice device = devices.get(from);
+        Channel channel = device == null ? null : device.getChannel(to);
+        if (channel != null) {
+            channel.setLatency(latency);
+        }
+    }
+
+    public RoutingTable getRoutingTable() {
+        return routing.getRoutingTable();
+    }
+
+    public double getUpdateDelay() {
+        return updateDelay;
+    }
+
+    public void setUpdateDelay(double updateDelay) {
+        this.updateDelay = updateDelay;
+    }
+
+    public enum ChangeType {
+        LINK_LATENCY, LINK_DOWN, LINK_UP, DEVICE_DOWN, DEVICE_UP
+    }
+
+    /**
+     * A change of the topology: a link is the channels between two devices, in both directions.
+     */
+    public static class TopologyChange implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final ChangeType type;
+        private final int deviceId;
+        private final int otherDeviceId;
+        private final double latency;
+
+        private TopologyChange(ChangeType type, int deviceId, int otherDeviceId, double latency) {
+            this.type = type;
+            this.deviceId = deviceId;
+            this.otherDeviceId = otherDeviceId;
+            this.latency = latency;
+        }
+
+        public static TopologyChange linkLatency(int deviceId, int otherDeviceId, double latency) {
+            return new TopologyChange(ChangeType.LINK_LATENCY, deviceId, otherDeviceId, latency);
+        }
+
+        public static TopologyChange linkDown(int deviceId, int otherDeviceId) {
+            return new TopologyChange(ChangeType.LINK_DOWN, deviceId, otherDeviceId, Double.NaN);
+        }
+
+        public static TopologyChange linkUp(int deviceId, int otherDeviceId) {
+            return new TopologyChange(ChangeType.LINK_UP, deviceId, otherDeviceId, Double.NaN);
+        }
+
+        public static TopologyChange deviceDown(int deviceId) {
+            return new TopologyChange(ChangeType.DEVICE_DOWN, deviceId, -1, Double.NaN);
+        }
+
+        public static TopologyChange deviceUp(int deviceId) {
+            return new TopologyChange(ChangeType.DEVICE_UP, deviceId, -1, Double.NaN);
+        }
+
+        public ChangeType getType() {
+            return type;
+        }
+
+        public int getDeviceId() {
+            return deviceId;
+        }
+
+        public int getOtherDeviceId() {
+            return otherDeviceId;
+        }
+
+        public double getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            switch (type) {
+                case LINK_LATENCY:
+                    return "latency of the link #" + deviceId + "-#" + otherDeviceId + " set to " + latency;
+                case LINK_DOWN:
+                case LINK_UP:
+                    return "link #" + deviceId + "-#" + otherDeviceId + (type == ChangeType.LINK_UP ? " up" : " down");
+                default:
+                    return "device #" + deviceId + (type == ChangeType.DEVICE_UP ? " up" : " down");
+            }
+        }
+    }
+}
@@ -7,6 +7,8 @@
 
 package org.infrastructureProvider.entities;
 
+import java.io.Serializable;
+
 import org.cloudbus.cloudsim.VmStateHistoryEntry;
 import org.infrastructureProvider.policies.CloudletScheduler;
 
@@ -23,7 +25,10 @@ import java.util.List;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 1.0
  */
-public class Vm {
+public class Vm implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 
 	/** The id. */
 	private int id;
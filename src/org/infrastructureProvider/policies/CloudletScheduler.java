@@ -8,6 +8,8 @@
 
 package org.infrastructureProvider.policies;
 
+import java.io.Serializable;
+
 import org.cloudbus.cloudsim.ResCloudlet;
 import org.enduser.networkPacket.Cloudlet;
 
@@ -22,7 +24,10 @@ import java.util.List;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 1.0
  */
-public abstract class CloudletScheduler {
+public abstract class CloudletScheduler implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 
 	/** The previous time. */
 	private double previousTime;
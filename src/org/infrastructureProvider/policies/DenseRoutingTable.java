@@ -0,0 +1,63 @@
+package org.infrastructureProvider.policies;
+
+/**
+ * The shortest routes between every pair of devices, as dense arrays indexed by the ordinal of the
+ * devices: a lookup is two array accesses, without boxing, but the table takes O(n^2) memory.
+ *
+ * @see DijkstraRoutingGenerator
+ */
+public class DenseRoutingTable extends RoutingTable {
+
+    private static final long serialVersionUID = 1L;
+
+    /* [source ordinal][destination ordinal] -> next device id */
+    private final int[][] nextHops;
+
+    /* [source ordinal][destination ordinal] -> latency of the route */
+    private final double[][] distances;
+
+    public DenseRoutingTable(int[] deviceIds, int[][] nextHops, double[][] distances) {
+        super(deviceIds);
+        if (nextHops.length != deviceIds.length || distances.length != deviceIds.length) {
+            throw new IllegalArgumentException("The routing table should have one row per device, but has:"
+                    + nextHops.length + " for " + deviceIds.length + " devices");
+        }
+        this.nextHops = nextHops;
+        this.distances = distances;
+    }
+
+    @Override
+    public int getNextHop(int sourceId, int destinationId) {
+        int source = getOrdinal(sourceId);
+        int destination = getOrdinal(destinationId);
+        if (source < 0 || destination < 0) {
+            return -1;
+        }
+        return nextHops[source][destination];
+    }
+
+    @Override
+    public double getDistance(int sourceId, int destinationId) {
+        int source = getOrdinal(sourceId);
+        int destination = getOrdinal(destinationId);
+        if (source < 0 || destination < 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return distances[source][destination];
+    }
+
+    int[][] getNextHopRows() {
+        return nextHops;
+    }
+
+    double[][] getDistanceRows() {
+        return distances;
+    }
+
+    /**
+     * @return the next hops of a source, indexed by the ordinal of the destinations
+     */
+    public int[] getNextHops(int sourceId) {
+        return nextHops[getOrdinal(sourceId)];
+    }
+}
@@ -0,0 +1,197 @@
+package org.infrastructureProvider.policies;
+
+import org.cloudbus.cloudsim.Log;
+import org.infrastructureProvider.entities.Channel;
+import org.infrastructureProvider.entities.NetworkDevice;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Creates a routing table considering the shortest path between devices, as
+ * {@link ShortestPathRoutingGenerator}, with one Dijkstra search per source device over the
+ * channels, weighted by their latency. The searches are independent and run in parallel, one row
+ * of the table each, so a topology of n devices and m channels takes O(n m log n) work instead of
+ * repeated O(n^3) passes.
+ */
+public class DijkstraRoutingGenerator {
+
+    private static final Log.Category LOG = Log.getCategory("network");
+
+    public static DenseRoutingTable generateRoutingTable(List<? extends NetworkDevice> devices) {
+        long start = System.nanoTime();
+        int size = devices.size();
+        int[] deviceIds = new int[size];
+        Map<Integer, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            deviceIds[i] = devices.get(i).getId();
+            ordinals.put(deviceIds[i], i);
+        }
+
+        int[][] neighbours = new int[size][];
+        double[][] latencies = new double[size][];
+        collectLinks(devices, ordinals, neighbours, latencies);
+
+        DenseRoutingTable routingTable = generateRoutingTable(deviceIds, neighbours, latencies);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Routing table of {} devices computed in {} ms", size, (System.nanoTime() - start) / 1000000);
+        }
+        return routingTable;
+    }
+
+    /**
+     * Creates the routing table of the channels of the devices, by ordinal, as collected by
+     * {@link #collectLinks}. A channel with an infinite latency is down.
+     */
+    static DenseRoutingTable generateRoutingTable(int[] deviceIds, int[][] neighbours, double[][] latencies) {
+        int size = deviceIds.length;
+        int[][] nextHops = new int[size][];
+        double[][] distances = new double[size][];
+        IntStream.range(0, size).parallel().forEach(source -> {
+            double[] distance = new double[size];
+            int[] firstHop = new int[size];
+            shortestPaths(source, neighbours, latencies, distance, firstHop, null);
+            for (int destination = 0; destination < size; destination++) {
+                firstHop[destination] = firstHop[destination] < 0 ? -1 : deviceIds[firstHop[destination]];
+            }
+            nextHops[source] = firstHop;
+            distances[source] = distance;
+        });
+        return new DenseRoutingTable(deviceIds, nextHops, distances);
+    }
+
+    /**
+     * Collects the channels of every device towards the devices of the table, by ordinal: the
+     * neighbours of a device are sorted, and a neighbour reached by several channels gets the
+     * lowest latency.
+     */
+    static void collectLinks(List<? extends NetworkDevice> devices, Map<Integer, Integer> ordinals,
+                             int[][] neighbours, double[][] latencies) {
+        for (int i = 0; i < devices.size(); i++) {
+            NetworkDevice device = devices.get(i);
+            Map<Integer, Double> links = new TreeMap<>();
+            addLinks(links, device.getParentDeviceIds(), device.getParentDevicesToChannel(), ordinals);
+            addLinks(links, device.getChildDeviceIds(), device.getChildDevicesToChannel(), ordinals);
+            addLinks(links, device.getSameLevelDeviceIds(), device.getSameLevelDevicesToChannel(), ordinals);
+            neighbours[i] = new int[links.size()];
+            latencies[i] = new double[links.size()];
+            int k = 0;
+            for (Map.Entry<Integer, Double> link : links.entrySet()) {
+                neighbours[i][k] = link.getKey();
+                latencies[i][k] = link.getValue();
+                k++;
+            }
+        }
+    }
+
+    private static void addLinks(Map<Integer, Double> links, List<Integer> ids, Map<Integer, Channel> channels,
+                                 Map<Integer, Integer> ordinals) {
+        if (ids == null) {
+            return;
+        }
+        for (Integer id : ids) {
+            Integer ordinal = ordinals.get(id);
+            Channel channel = channels.get(id);
+            if (ordinal == null || channel == null) {
+                continue;
+            }
+            Double latency = links.get(ordinal);
+            if (latency == null || channel.getLatency() < latency) {
+                links.put(ordinal, channel.getLatency());
+            }
+        }
+    }
+
+    /**
+     * Dijkstra's search from a source, with an indexed binary heap. Fills the distance to every
+     * device and the first device on the path to it (the source itself for the source, -1 if it
+     * cannot be reached), and optionally the device before it on the path.
+     */
+    static void shortestPaths(int source, int[][] neighbours, double[][] latencies,
+                              double[] distance, int[] firstHop, int[] previous) {
+        int size = distance.length;
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        Arrays.fill(firstHop, -1);
+        if (previous != null) {
+            Arrays.fill(previous, -1);
+        }
+        int[] heap = new int[size];
+        int[] position = new int[size];
+        Arrays.fill(position, -1);
+        int heapSize = 0;
+
+        distance[source] = 0;
+        firstHop[source] = source;
+        heap[heapSize] = source;
+        position[source] = heapSize++;
+        while (heapSize > 0) {
+            int u = heap[0];
+            position[u] = -2; // settled
+            heapSize--;
+            if (heapSize > 0) {
+                heap[0] = heap[heapSize];
+                position[heap[0]] = 0;
+                siftDown(heap, position, heapSize, distance, 0);
+            }
+            for (int k = 0; k < neighbours[u].length; k++) {
+                int v = neighbours[u][k];
+                if (position[v] == -2) {
+                    continue;
+                }
+                double d = distance[u] + latencies[u][k];
+                if (d < distance[v]) {
+                    distance[v] = d;
+                    firstHop[v] = u == source ? v : firstHop[u];
+                    if (previous != null) {
+                        previous[v] = u;
+                    }
+                    if (position[v] < 0) {
+                        heap[heapSize] = v;
+                        position[v] = heapSize++;
+                    }
+                    siftUp(heap, position, distance, position[v]);
+                }
+            }
+        }
+    }
+
+    private static void siftUp(int[] heap, int[] position, double[] distance, int i) {
+        int node = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (distance[heap[parent]] <= distance[node]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+
+    private static void siftDown(int[] heap, int[] position, int heapSize, double[] distance, int i) {
+        int node = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && distance[heap[child + 1]] < distance[heap[child]]) {
+                child++;
+            }
+            if (distance[node] <= distance[heap[child]]) {
+                break;
+            }
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+}
@@ -0,0 +1,362 @@
+package org.infrastructureProvider.policies;
+
+import org.infrastructureProvider.entities.NetworkDevice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes along the hierarchy of the devices in O(n) memory, instead of the O(n^2) of a
+ * {@link DenseRoutingTable}, for topologies that are trees of parents and children (small BS ->
+ * macro BS -> router -> cloud) plus a few other channels.
+ * <p>
+ * Every device keeps the parent it reaches with the lowest latency, which makes a forest. The
+ * devices of every tree are labelled with the interval of their subtree in a depth-first order, so
+ * that a device is an ancestor of a destination iff the label of the destination is in its
+ * interval: the next hop is then the child whose interval contains the destination, found by a
+ * binary search, and otherwise the parent. The roots of the trees route between themselves with a
+ * dense table over the channels that connect them. A device also sends a packet straight to a
+ * neighbour through a channel that is not in its tree (e.g. to a device of the same level) when
+ * that channel has a lower latency than the route through the hierarchy.
+ * <p>
+ * The next hop takes O(log children) on the way down and O(1) on the way up, and the distance
+ * O(depth). The routes are the shortest paths wherever the topology is a tree, and when the trees
+ * are only connected at their roots; the other channels are only used as one-hop shortcuts, and a
+ * destination only reachable through them is unreachable.
+ * <p>
+ * The table can be repaired when the latency of some channels changes, or they go down: the devices
+ * whose channels changed pick their parent again, and the forest is labelled again, in O(n). The
+ * routes between the roots are only searched again when the roots or their channels changed.
+ *
+ * @see IncrementalRouting
+ */
+public class HierarchicalRoutingTable extends RoutingTable {
+
+    private static final long serialVersionUID = 1L;
+
+    /* the parents every device may pick, by ordinal */
+    private final int[][] parentCandidates;
+
+    /* the parent in the forest, by ordinal, -1 for a root */
+    private final int[] parents;
+
+    /* the root of the tree of every device */
+    private final int[] roots;
+
+    /* the depth-first label of every device, and the last label of its subtree */
+    private final int[] enter;
+    private final int[] exit;
+
+    /* the children of every device, in children[childStart[v]..childStart[v + 1]), by label */
+    private final int[] childStart;
+    private final int[] children;
+
+    /* the latency from every device up to its root, and down from its root */
+    private final double[] up;
+    private final double[] down;
+
+    /* the channels of every device, by sorted neighbour ordinal: infinite latency when down */
+    private final int[][] neighbours;
+    private final double[][] latencies;
+
+    /* the routes between the roots */
+    private final RoutingTable rootTable;
+
+    public HierarchicalRoutingTable(List<? extends NetworkDevice> devices) {
+        super(deviceIds(devices));
+        int size = devices.size();
+        Map<Integer, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            ordinals.put(devices.get(i).getId(), i);
+        }
+        neighbours = new int[size][];
+        latencies = new double[size][];
+        DijkstraRoutingGenerator.collectLinks(devices, ordinals, neighbours, latencies);
+
+        parentCandidates = new int[size][];
+        parents = new int[size];
+        for (int v = 0; v < size; v++) {
+            List<Integer> candidates = new ArrayList<>();
+            List<Integer> parentIds = devices.get(v).getParentDeviceIds();
+            if (parentIds != null) {
+                for (Integer parentId : parentIds) {
+                    Integer parent = ordinals.get(parentId);
+                    if (parent != null && parent != v) {
+                        candidates.add(parent);
+                    }
+                }
+            }
+            parentCandidates[v] = candidates.stream().mapToInt(Integer::intValue).toArray();
+            parents[v] = pickParent(v);
+        }
+
+        childStart = new int[size + 1];
+        children = new int[size];
+        roots = new int[size];
+        enter = new int[size];
+        exit = new int[size];
+        up = new double[size];
+        down = new double[size];
+        labelForest();
+        rootTable = generateRootTable();
+    }
+
+    /**
+     * Repairs a table after the latency of the channels of some devices changed.
+     */
+    private HierarchicalRoutingTable(HierarchicalRoutingTable previous, double[][] latencies, int[] changedDevices) {
+        super(deviceIds(previous));
+        int size = previous.size();
+        neighbours = previous.neighbours;
+        parentCandidates = previous.parentCandidates;
+        this.latencies = new double[size][];
+        for (int v = 0; v < size; v++) {
+            this.latencies[v] = Arrays.equals(latencies[v], previous.latencies[v]) ? previous.latencies[v]
+                    : latencies[v].clone();
+        }
+
+        parents = previous.parents.clone();
+        boolean rootsChanged = false;
+        for (int v : changedDevices) {
+            parents[v] = pickParent(v);
+            rootsChanged |= previous.parents[v] < 0 || parents[v] < 0;
+        }
+
+        childStart = new int[size + 1];
+        children = new int[size];
+        roots = new int[size];
+        enter = new int[size];
+        exit = new int[size];
+        up = new double[size];
+        down = new double[size];
+        labelForest();
+        rootTable = rootsChanged ? generateRootTable() : previous.rootTable;
+    }
+
+    /**
+     * Makes the table of the same devices, with new latencies of their channels.
+     *
+     * @param latencies the latencies of the channels of every device, by sorted neighbour ordinal
+     *                  as in the table, infinite for a channel that is down
+     * @param changedDevices the ordinals of the devices whose channels changed
+     */
+    HierarchicalRoutingTable withLatencies(double[][] latencies, int[] changedDevices) {
+        return new HierarchicalRoutingTable(this, latencies, changedDevices);
+    }
+
+    int[][] getNeighbours() {
+        return neighbours;
+    }
+
+    double[][] getLatencies() {
+        return latencies;
+    }
+
+    /* the candidate parent reached with the lowest latency, -1 if there is none */
+    private int pickParent(int v) {
+        int parent = -1;
+        double latency = Double.POSITIVE_INFINITY;
+        for (int candidate : parentCandidates[v]) {
+            if (linkLatency(v, candidate) < latency) {
+                parent = candidate;
+                latency = linkLatency(v, candidate);
+            }
+        }
+        return parent;
+    }
+
+    /**
+     * Fills the children, the depth-first labels and the latencies to the roots from the parents.
+     */
+    private void labelForest() {
+        int size = parents.length;
+        for (int v = 0; v < size; v++) {
+            if (parents[v] >= 0) {
+                childStart[parents[v] + 1]++;
+            }
+        }
+        for (int v = 0; v < size; v++) {
+            childStart[v + 1] += childStart[v];
+        }
+        int[] filled = Arrays.copyOf(childStart, size);
+        for (int v = 0; v < size; v++) {
+            if (parents[v] >= 0) {
+                children[filled[parents[v]]++] = v;
+            }
+        }
+
+        Arrays.fill(enter, -1);
+        int label = 0;
+        int[] stack = new int[size];
+        int[] nextChild = new int[size];
+        for (int root = 0; root < size; root++) {
+            if (parents[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            stack[depth++] = root;
+            roots[root] = root;
+            enter[root] = label++;
+            nextChild[root] = childStart[root];
+            while (depth > 0) {
+                int v = stack[depth - 1];
+                if (nextChild[v] == childStart[v + 1]) {
+                    exit[v] = label - 1;
+                    depth--;
+                    continue;
+                }
+                int child = children[nextChild[v]++];
+                roots[child] = root;
+                enter[child] = label++;
+                up[child] = up[v] + linkLatency(child, v);
+                down[child] = down[v] + linkLatency(v, child);
+                nextChild[child] = childStart[child];
+                stack[depth++] = child;
+            }
+        }
+        if (label != size) {
+            throw new IllegalArgumentException("The parents of " + (size - label) + " devices form a cycle");
+        }
+    }
+
+    /* the routes between the roots, over the channels that connect them */
+    private RoutingTable generateRootTable() {
+        int size = parents.length;
+        int[] rootOrdinals = new int[size];
+        int count = 0;
+        for (int v = 0; v < size; v++) {
+            rootOrdinals[v] = parents[v] < 0 ? count++ : -1;
+        }
+        int[] rootIds = new int[count];
+        int[][] rootNeighbours = new int[count][];
+        double[][] rootLatencies = new double[count][];
+        for (int v = 0; v < size; v++) {
+            int root = rootOrdinals[v];
+            if (root < 0) {
+                continue;
+            }
+            rootIds[root] = getDeviceId(v);
+            int links = 0;
+            for (int w : neighbours[v]) {
+                if (rootOrdinals[w] >= 0) {
+                    links++;
+                }
+            }
+            rootNeighbours[root] = new int[links];
+            rootLatencies[root] = new double[links];
+            links = 0;
+            for (int k = 0; k < neighbours[v].length; k++) {
+                int w = rootOrdinals[neighbours[v][k]];
+                if (w >= 0) {
+                    rootNeighbours[root][links] = w;
+                    rootLatencies[root][links++] = latencies[v][k];
+                }
+            }
+        }
+        return DijkstraRoutingGenerator.generateRoutingTable(rootIds, rootNeighbours, rootLatencies);
+    }
+
+    @Override
+    public int getNextHop(int sourceId, int destinationId) {
+        int source = getOrdinal(sourceId);
+        int destination = getOrdinal(destinationId);
+        if (source < 0 || destination < 0) {
+            return -1;
+        }
+        int next = nextHop(source, destination);
+        return next < 0 ? -1 : getDeviceId(next);
+    }
+
+    @Override
+    public double getDistance(int sourceId, int destinationId) {
+        int current = getOrdinal(sourceId);
+        int destination = getOrdinal(destinationId);
+        if (current < 0 || destination < 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double distance = 0;
+        for (int hops = 0; current != destination; hops++) {
+            int next = nextHop(current, destination);
+            if (next < 0 || hops > size()) {
+                return Double.POSITIVE_INFINITY;
+            }
+            distance += linkLatency(current, next);
+            current = next;
+        }
+        return distance;
+    }
+
+    private int nextHop(int source, int destination) {
+        if (source == destination) {
+            return source;
+        }
+        if (isAncestor(source, destination)) {
+            return childTowards(source, destination);
+        }
+        int link = Arrays.binarySearch(neighbours[source], destination);
+        if (link >= 0 && latencies[source][link] < hierarchyDistance(source, destination)) {
+            return destination;
+        }
+        if (parents[source] >= 0) {
+            return parents[source];
+        }
+        int next = rootTable.getNextHop(getDeviceId(source), getDeviceId(roots[destination]));
+        return next < 0 ? -1 : getOrdinal(next);
+    }
+
+    private boolean isAncestor(int ancestor, int v) {
+        return enter[ancestor] <= enter[v] && enter[v] <= exit[ancestor];
+    }
+
+    /* the child of an ancestor of v whose subtree contains v */
+    private int childTowards(int ancestor, int v) {
+        int low = childStart[ancestor];
+        int high = childStart[ancestor + 1] - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (enter[children[middle]] <= enter[v]) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return children[low];
+    }
+
+    /* the latency of the route through the hierarchy, without shortcuts */
+    private double hierarchyDistance(int source, int destination) {
+        if (roots[source] == roots[destination]) {
+            int ancestor = source;
+            while (!isAncestor(ancestor, destination)) {
+                ancestor = parents[ancestor];
+            }
+            return up[source] - up[ancestor] + down[destination] - down[ancestor];
+        }
+        return up[source] + rootTable.getDistance(getDeviceId(roots[source]), getDeviceId(roots[destination]))
+                + down[destination];
+    }
+
+    private double linkLatency(int from, int to) {
+        int link = Arrays.binarySearch(neighbours[from], to);
+        return link < 0 ? Double.POSITIVE_INFINITY : latencies[from][link];
+    }
+
+    private static int[] deviceIds(RoutingTable table) {
+        int[] deviceIds = new int[table.size()];
+        for (int i = 0; i < deviceIds.length; i++) {
+            deviceIds[i] = table.getDeviceId(i);
+        }
+        return deviceIds;
+    }
+
+    private static int[] deviceIds(List<? extends NetworkDevice> devices) {
+        int[] deviceIds = new int[devices.size()];
+        for (int i = 0; i < deviceIds.length; i++) {
+            deviceIds[i] = devices.get(i).getId();
+        }
+        return deviceIds;
+    }
+}
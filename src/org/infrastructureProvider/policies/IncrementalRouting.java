@@ -0,0 +1,343 @@
+package org.infrastructureProvider.policies;
+
+import org.infrastructureProvider.entities.NetworkDevice;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link DenseRoutingTable} that is repaired, instead of recomputed, when the latency of a link
+ * changes or a link or device goes down or up. A link is the channels between two devices, in both
+ * directions.
+ * <p>
+ * Only the rows of the sources whose shortest paths may change are searched again: when a channel
+ * gets slower or goes down, the sources for which it is on a shortest path (the distance to its end
+ * is the distance to its start plus its latency); when it gets faster or comes up, the sources for
+ * which it shortens the distance to its end. A device going down or up changes the column of the
+ * device in every row, which is cleared or filled by a single search towards the device, and only
+ * the sources that route through the device are searched again.
+ * <p>
+ * Every change builds a new table, which shares the rows that did not change with the previous
+ * one, so that the devices can keep using the previous table until they are updated.
+ * <p>
+ * A {@link HierarchicalRoutingTable} can be repaired instead, for topologies too large for a dense
+ * table: the devices whose channels changed pick their parent again and the forest is labelled
+ * again. A change of a tree changes the routes through it from every device, so all the devices
+ * get the new table.
+ */
+public class IncrementalRouting implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /* the relative difference under which two distances are equal */
+    private static final double EPSILON = 1e-9;
+
+    private final Map<Integer, Integer> ordinals = new HashMap<>();
+
+    /* the channels of every device, by sorted neighbour ordinal */
+    private final int[][] neighbours;
+    private final double[][] latencies;
+
+    /* the latencies the routes are computed with: infinite for a channel that is down */
+    private final double[][] weights;
+
+    private final boolean[][] linksDown;
+    private final boolean[] devicesDown;
+
+    private DenseRoutingTable routingTable;
+
+    /* the table repaired instead of the dense one, if any */
+    private HierarchicalRoutingTable hierarchicalTable;
+
+    public IncrementalRouting(List<? extends NetworkDevice> devices) {
+        this(devices, false);
+    }
+
+    /**
+     * @param hierarchical whether to repair a {@link HierarchicalRoutingTable} instead of a
+     *                     {@link DenseRoutingTable}
+     */
+    public IncrementalRouting(List<? extends NetworkDevice> devices, boolean hierarchical) {
+        int size = devices.size();
+        for (int i = 0; i < size; i++) {
+            ordinals.put(devices.get(i).getId(), i);
+        }
+        neighbours = new int[size][];
+        latencies = new double[size][];
+        DijkstraRoutingGenerator.collectLinks(devices, ordinals, neighbours, latencies);
+        weights = new double[size][];
+        linksDown = new boolean[size][];
+        for (int v = 0; v < size; v++) {
+            weights[v] = latencies[v].clone();
+            linksDown[v] = new boolean[neighbours[v].length];
+        }
+        devicesDown = new boolean[size];
+        if (hierarchical) {
+            hierarchicalTable = new HierarchicalRoutingTable(devices);
+        } else {
+            routingTable = DijkstraRoutingGenerator.generateRoutingTable(devices);
+        }
+    }
+
+    public RoutingTable getRoutingTable() {
+        return hierarchicalTable != null ? hierarchicalTable : routingTable;
+    }
+
+    public boolean isHierarchical() {
+        return hierarchicalTable != null;
+    }
+
+    /**
+     * Sets the latency of the channels between two devices.
+     *
+     * @return the ids of the devices whose next hops changed
+     */
+    public List<Integer> setLinkLatency(int deviceId, int otherDeviceId, double latency) {
+        int[][] links = getLinks(deviceId, otherDeviceId);
+        for (int[] link : links) {
+            latencies[link[0]][link[1]] = latency;
+        }
+        return updateLinks(links);
+    }
+
+    /**
+     * Takes the channels between two devices down or up.
+     *
+     * @return the ids of the devices whose next hops changed
+     */
+    public List<Integer> setLinkUp(int deviceId, int otherDeviceId, boolean up) {
+        int[][] links = getLinks(deviceId, otherDeviceId);
+        for (int[] link : links) {
+            linksDown[link[0]][link[1]] = !up;
+        }
+        return updateLinks(links);
+    }
+
+    /**
+     * Takes a device, and so all its channels, down or up.
+     *
+     * @return the ids of the devices whose next hops changed
+     */
+    public List<Integer> setDeviceUp(int deviceId, boolean up) {
+        int device = getOrdinal(deviceId);
+        if (devicesDown[device] == !up) {
+            return new ArrayList<>();
+        }
+        devicesDown[device] = !up;
+        double[] oldWeights = weights[device].clone();
+        for (int k = 0; k < neighbours[device].length; k++) {
+            weights[device][k] = weight(device, k);
+        }
+        List<Integer> changedDevices = new ArrayList<>();
+        changedDevices.add(device);
+        for (int u = 0; u < neighbours.length; u++) {
+            int k = Arrays.binarySearch(neighbours[u], device);
+            if (k >= 0) {
+                weights[u][k] = weight(u, k);
+                changedDevices.add(u);
+            }
+        }
+        if (hierarchicalTable != null) {
+            for (int v : neighbours[device]) {
+                changedDevices.add(v);
+            }
+            return repairHierarchy(changedDevices);
+        }
+
+        int size = neighbours.length;
+        double[][] distances = routingTable.getDistanceRows();
+        boolean[] affected = new boolean[size];
+        affected[device] = true;
+        double[] column = new double[size];
+        int[] columnHops = new int[size];
+        if (up) {
+            // the routes towards the device, from a search on the reversed channels
+            searchTowards(device, column, columnHops);
+        } else {
+            Arrays.fill(column, Double.POSITIVE_INFINITY);
+            Arrays.fill(columnHops, -1);
+        }
+        for (int source = 0; source < size; source++) {
+            double distance = up ? column[source] : distances[source][device];
+            double[] weightsOut = up ? weights[device] : oldWeights;
+            for (int k = 0; k < neighbours[device].length && !affected[source]; k++) {
+                int next = neighbours[device][k];
+                double through = distance + weightsOut[k];
+                affected[source] = up ? isShorter(through, distances[source][next])
+                        : !isShorter(distances[source][next], through) && !Double.isInfinite(through);
+            }
+        }
+
+        int[][] oldNextHops = routingTable.getNextHopRows();
+        int[][] nextHops = oldNextHops.clone();
+        double[][] newDistances = distances.clone();
+        for (int source = 0; source < size; source++) {
+            if (!affected[source]) {
+                nextHops[source] = oldNextHops[source].clone();
+                newDistances[source] = distances[source].clone();
+                nextHops[source][device] = columnHops[source] < 0 ? -1 : routingTable.getDeviceId(columnHops[source]);
+                newDistances[source][device] = column[source];
+            }
+        }
+        return update(affected, nextHops, newDistances);
+    }
+
+    /**
+     * Applies the new weights of some channels, and searches again the rows they may change.
+     */
+    private List<Integer> updateLinks(int[][] links) {
+        if (hierarchicalTable != null) {
+            List<Integer> changedDevices = new ArrayList<>();
+            for (int[] link : links) {
+                weights[link[0]][link[1]] = weight(link[0], link[1]);
+                changedDevices.add(link[0]);
+                changedDevices.add(neighbours[link[0]][link[1]]);
+            }
+            return repairHierarchy(changedDevices);
+        }
+        int size = neighbours.length;
+        double[][] distances = routingTable.getDistanceRows();
+        boolean[] affected = new boolean[size];
+        for (int[] link : links) {
+            int from = link[0];
+            int to = neighbours[from][link[1]];
+            double oldWeight = weights[from][link[1]];
+            double newWeight = weight(from, link[1]);
+            weights[from][link[1]] = newWeight;
+            if (newWeight == oldWeight) {
+                continue;
+            }
+            for (int source = 0; source < size; source++) {
+                if (affected[source] || Double.isInfinite(distances[source][from])) {
+                    continue;
+                }
+                if (newWeight < oldWeight) {
+                    affected[source] = isShorter(distances[source][from] + newWeight, distances[source][to]);
+                } else {
+                    affected[source] = !isShorter(distances[source][to], distances[source][from] + oldWeight);
+                }
+            }
+        }
+        return update(affected, routingTable.getNextHopRows().clone(), distances.clone());
+    }
+
+    /**
+     * Searches again the affected rows, and makes the new table.
+     *
+     * @return the ids of the devices whose next hops changed
+     */
+    private List<Integer> update(boolean[] affected, int[][] nextHops, double[][] distances) {
+        int[][] oldNextHops = routingTable.getNextHopRows();
+        int size = neighbours.length;
+        IntStream.range(0, size).parallel().filter(source -> affected[source]).forEach(source -> {
+            double[] distance = new double[size];
+            int[] firstHop = new int[size];
+            DijkstraRoutingGenerator.shortestPaths(source, neighbours, weights, distance, firstHop, null);
+            for (int destination = 0; destination < size; destination++) {
+                firstHop[destination] = firstHop[destination] < 0 ? -1 : routingTable.getDeviceId(firstHop[destination]);
+            }
+            nextHops[source] = firstHop;
+            distances[source] = distance;
+        });
+
+        List<Integer> changed = new ArrayList<>();
+        int[] deviceIds = new int[size];
+        for (int source = 0; source < size; source++) {
+            deviceIds[source] = routingTable.getDeviceId(source);
+            if (nextHops[source] != oldNextHops[source] && !Arrays.equals(nextHops[source], oldNextHops[source])) {
+                changed.add(deviceIds[source]);
+            }
+        }
+        routingTable = new DenseRoutingTable(deviceIds, nextHops, distances);
+        return changed;
+    }
+
+    /**
+     * Repairs the hierarchical table after the channels of some devices changed.
+     *
+     * @return the ids of all the devices
+     */
+    private List<Integer> repairHierarchy(List<Integer> changedDevices) {
+        hierarchicalTable = hierarchicalTable.withLatencies(weights,
+                changedDevices.stream().mapToInt(Integer::intValue).distinct().toArray());
+        List<Integer> changed = new ArrayList<>();
+        for (int v = 0; v < neighbours.length; v++) {
+            changed.add(hierarchicalTable.getDeviceId(v));
+        }
+        return changed;
+    }
+
+    /**
+     * Fills the distance from every device to a device, and the next hop of every device towards
+     * it, with a search from the device on the reversed channels.
+     */
+    private void searchTowards(int device, double[] distance, int[] nextHop) {
+        int size = neighbours.length;
+        int[] counts = new int[size];
+        for (int u = 0; u < size; u++) {
+            for (int v : neighbours[u]) {
+                counts[v]++;
+            }
+        }
+        int[][] reversed = new int[size][];
+        double[][] reversedWeights = new double[size][];
+        for (int v = 0; v < size; v++) {
+            reversed[v] = new int[counts[v]];
+            reversedWeights[v] = new double[counts[v]];
+            counts[v] = 0;
+        }
+        for (int u = 0; u < size; u++) {
+            for (int k = 0; k < neighbours[u].length; k++) {
+                int v = neighbours[u][k];
+                reversed[v][counts[v]] = u;
+                reversedWeights[v][counts[v]++] = weights[u][k];
+            }
+        }
+        int[] firstHop = new int[size];
+        DijkstraRoutingGenerator.shortestPaths(device, reversed, reversedWeights, distance, firstHop, nextHop);
+        nextHop[device] = device;
+    }
+
+    private double weight(int from, int link) {
+        boolean down = linksDown[from][link] || devicesDown[from] || devicesDown[neighbours[from][link]];
+        return down ? Double.POSITIVE_INFINITY : latencies[from][link];
+    }
+
+    private static boolean isShorter(double distance, double than) {
+        return distance < than - EPSILON * Math.abs(than) || Double.isInfinite(than) && !Double.isInfinite(distance);
+    }
+
+    /**
+     * @return the channels between two devices, as {ordinal, index in the neighbours}
+     */
+    private int[][] getLinks(int deviceId, int otherDeviceId) {
+        int device = getOrdinal(deviceId);
+        int other = getOrdinal(otherDeviceId);
+        List<int[]> links = new ArrayList<>();
+        int k = Arrays.binarySearch(neighbours[device], other);
+        if (k >= 0) {
+            links.add(new int[]{device, k});
+        }
+        k = Arrays.binarySearch(neighbours[other], device);
+        if (k >= 0) {
+            links.add(new int[]{other, k});
+        }
+        if (links.isEmpty()) {
+            throw new IllegalArgumentException("There is no channel between #" + deviceId + " and #" + otherDeviceId);
+        }
+        return links.toArray(new int[0][]);
+    }
+
+    private int getOrdinal(int deviceId) {
+        Integer ordinal = ordinals.get(deviceId);
+        if (ordinal == null) {
+            throw new IllegalArgumentException("The device #" + deviceId + " is not routed");
+        }
+        return ordinal;
+    }
+}
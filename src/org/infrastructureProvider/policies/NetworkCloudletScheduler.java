@@ -12,6 +12,8 @@ import java.util.Map;
 
 public abstract class NetworkCloudletScheduler extends CloudletScheduler  {
 
+    private static final long serialVersionUID = 1L;
+
     public Map<Integer, List<NetworkPacket>> pkttosend; // cloudletId to networkPackets
 
     public Map<Integer, List<NetworkPacket>> pktrecv; // cloudletId to networkPackets
@@ -11,6 +11,10 @@ import java.util.List;
 
 public class NetworkCloudletTimeSharedSchedulerWithShare extends NetworkCloudletScheduler{
 
+    private static final long serialVersionUID = 1L;
+
+    private static final Log.Category LOG = Log.getCategory("scheduler");
+
     int limitNum;
     int currentNum;
     ArrayList waitingList;
@@ -77,13 +81,17 @@ public class NetworkCloudletTimeSharedSchedulerWithShare extends NetworkCloudlet
                     //Log.printLine("ssssssssss"+cl.getCloudletId()+ "   " + st.processStartTime);
 
                     cl.timespentInStage = currentTime - cl.timetostartStage;
-                    Log.printLine("zzzzzzzzzzzzz"+ "  "+ cl.getCloudletId() + " " + CloudSim.clock()+ "  " + cl.timetostartStage+ " "  + cl.timespentInStage);
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace(CloudSim.clock() + ": cloudlet #" + cl.getCloudletId() + " has executed its stage for " + cl.timespentInStage + " since " + cl.timetostartStage);
+                    }
 
                     // Judge whether the specified execution length is reached.
                     //long executedLength = (long) (getCapacity(mipsShare) * cl.timespentInStage * rcl.getNumberOfPes());
                     st.hasExeCloudletLength += getCapacity(getCurrentMipsShare()) * timeSpan * rcl.getNumberOfPes();
 
-                    Log.printLine("rrrrr"+ " " + cl.getCloudletId() + " " + st.hasExeCloudletLength);
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("cloudlet #{} has executed {} MI of its stage", cl.getCloudletId(), st.hasExeCloudletLength);
+                    }
                     if ((st.hasExeCloudletLength + 0.0001) >= st.stageCloudletLength){ // now , st.time represents the cloudletLength in this stage.
                         st.time = cl.timespentInStage;
                         double time = changetonextstage(rcl,mipsShare);
@@ -100,7 +108,9 @@ public class NetworkCloudletTimeSharedSchedulerWithShare extends NetworkCloudlet
                 }
                 // mai: Now the acceptance stage can not be restricted by the sequence defined at the beginning.
                 if (st.type == NetworkConstants.WAIT_RECV){
-                    Log.printLine("cccccccccc"+ "  "+ cl.getCloudletId() + "  "+ CloudSim.clock());
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("{}: cloudlet #{} waits for a packet", CloudSim.clock(), cl.getCloudletId());
+                    }
                     double time = processPktReceive(rcl,mipsShare);
                     if (time > 0 && time < nextCheckInterval) {
                         nextCheckInterval = time;
@@ -108,7 +118,9 @@ public class NetworkCloudletTimeSharedSchedulerWithShare extends NetworkCloudlet
                 }
 
             } else {
-                Log.printLine("aaaaaaaa"+ "  "+ cl.getCloudletId() + "  "+ CloudSim.clock());
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace("{}: cloudlet #{} starts its first stage", CloudSim.clock(), cl.getCloudletId());
+                }
                 double time = changetonextstage(rcl,mipsShare);
                 if (time > 0 && time < nextCheckInterval) {
                     nextCheckInterval = time;
@@ -171,7 +183,9 @@ public class NetworkCloudletTimeSharedSchedulerWithShare extends NetworkCloudlet
         cl.timetostartStage = CloudSim.clock();
         int currstage = cl.currStagenum;
         if (currstage >= (cl.stages.size() - 1)) {
-            Log.printLine("eeeeeeeee "+cl.getCloudletId()+" "+ CloudSim.clock());
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("{}: cloudlet #{} finished its last stage", CloudSim.clock(), cl.getCloudletId());
+            }
             cl.currStagenum = NetworkConstants.FINISH;
 
         } else {
@@ -203,7 +217,9 @@ public class NetworkCloudletTimeSharedSchedulerWithShare extends NetworkCloudlet
                 cl.currStagenum = i;
 
                 if (cl.stages.get(i).type == NetworkConstants.WAIT_RECV){
-                    Log.printLine("cccccccccc"+ "  "+ cl.getCloudletId() + "  "+ CloudSim.clock());
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("{}: cloudlet #{} waits for a packet", CloudSim.clock(), cl.getCloudletId());
+                    }
                     return processPktReceive(rcl,mipsShare);
                 }
 
@@ -214,7 +230,9 @@ public class NetworkCloudletTimeSharedSchedulerWithShare extends NetworkCloudlet
 
                     // Calculate the estimated execution completion time of this stage.
                     double time = cl.stages.get(i).stageCloudletLength  / (getCapacity(mipsShare) * rcl.getNumberOfPes());
-                    Log.printLine("yyyyyyyyyyy"+ CloudSim.clock()+ " "+ getCapacity(mipsShare) +"  "+time);
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace(CloudSim.clock() + ": the next stage of cloudlet #" + cl.getCloudletId() + " should take " + time + " at " + getCapacity(mipsShare) + " MIPS");
+                    }
                     return time;
                 }
 
@@ -232,7 +250,9 @@ public class NetworkCloudletTimeSharedSchedulerWithShare extends NetworkCloudlet
         for (j = cl.currStagenum; j < cl.stages.size(); j++){
             if (cl.stages.get(j).type == NetworkConstants.WAIT_RECV){
                 if (cl.stages.get(j).processStartTime == -1){
-                    Log.printLine("ddddddddd"+"  "+ cl.getCloudletId() + "  "+ CloudSim.clock());
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("{}: cloudlet #{} checks the packets it received", CloudSim.clock(), cl.getCloudletId());
+                    }
                     List<NetworkPacket> pktlist = pktrecv.get(cl.getCloudletId());
                     List<NetworkPacket> pkttoremove = new ArrayList<NetworkPacket>();
                     if (pktlist != null) {
@@ -244,7 +264,9 @@ public class NetworkCloudletTimeSharedSchedulerWithShare extends NetworkCloudlet
                             if (pkt.getDestinationCloudlet() == cl.getCloudletId()) {
                                 // mai: process start time
                                 cl.stages.get(j).processStartTime = CloudSim.clock();
-                                Log.printLine("bbbbbbbbbbbbbb"+ "  "+ cl.getCloudletId() + "  "+ j +" " + cl.stages.get(j).processStartTime);
+                                if (LOG.isTraceEnabled()) {
+                                    LOG.trace(CloudSim.clock() + ": cloudlet #" + cl.getCloudletId() + " received the packet of stage " + j);
+                                }
                                 cl.stages.get(j).time = CloudSim.clock() - pkt.getSendTime();
                                 pkttoremove.add(pkt);
                                 completeReceives++;
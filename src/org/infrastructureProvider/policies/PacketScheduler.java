@@ -1,12 +1,16 @@
 package org.infrastructureProvider.policies;
 
+import java.io.Serializable;
+
 import org.enduser.networkPacket.NetworkPacket;
 
 import java.util.ArrayList;
 import java.util.List;
 
 
-public abstract class PacketScheduler {
+public abstract class PacketScheduler implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private double previousTime;
 
@@ -23,6 +27,15 @@ public abstract class PacketScheduler {
 
     public abstract double updatePacketSending(double currentTime, double bandwidth);
 
+    /**
+     * Gets the number of packets being sent, i.e. submitted and not finished yet. It may be read from
+     * another thread than the simulation's, e.g. by JMX. The schedulers keeping the packets being
+     * sent override it; the default reports none, so that other schedulers need not implement it.
+     */
+    public int getSendingPacketCount() {
+        return 0;
+    }
+
 
     public double getPreviousTime() {
         return previousTime;
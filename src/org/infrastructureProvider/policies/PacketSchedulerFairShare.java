@@ -0,0 +1,133 @@
+package org.infrastructureProvider.policies;
+
+import org.enduser.networkPacket.NetworkPacket;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Shares the bandwidth of a channel equally among the packets being sent, as
+ * {@link PacketSchedulerTimeShared}, but tracks the completions in O(log n) per packet instead of
+ * scanning every packet at every check.
+ * <p>
+ * Since every packet gets the same share, they all progress by the same amount: a single virtual
+ * clock counts the bytes sent per packet since the channel was last idle, and a packet submitted at
+ * virtual time V with r bytes to send completes when the virtual clock reaches V + r, its virtual
+ * finish time. The packets are kept in a heap ordered by their virtual finish time, so that the
+ * next completion is at its top; a check advances the virtual clock by the bandwidth per packet
+ * times the elapsed time, and pops the completed packets.
+ * <p>
+ * The remaining size of a packet is only updated when it completes. The packets completed at the
+ * same check are listed in the order they were submitted, as by {@link PacketSchedulerTimeShared}.
+ */
+public class PacketSchedulerFairShare extends PacketScheduler {
+
+    private static final long serialVersionUID = 1L;
+
+    /* the remaining size under which a packet is completed, as in NetworkPacket */
+    private static final double COMPLETED = 0.0001;
+
+    private final PriorityQueue<SendingPacket> packetSendingQueue;
+
+    /* bytes sent per packet since the channel was last idle */
+    private double virtualTime;
+
+    /* the submission order, to list the packets completed at the same check */
+    private long submitted;
+
+    public PacketSchedulerFairShare() {
+        super();
+        packetSendingQueue = new PriorityQueue<>();
+    }
+
+    @Override
+    public double packetSubmit(double currentTime, double bandwidth, List<NetworkPacket> networkPacketList) {
+        updatePacketSending(currentTime, bandwidth);
+        for (NetworkPacket networkPacket : networkPacketList) {
+            packetSendingQueue.add(new SendingPacket(networkPacket, virtualTime + networkPacket.getRemainSize(), submitted++));
+        }
+        setPreviousTime(currentTime);
+        return nextSendInterval();
+    }
+
+    @Override
+    public double updatePacketSending(double currentTime, double bandwidth) {
+        setAllocatedBandwidth(bandwidth);
+
+        double timeSpan = currentTime - getPreviousTime();
+        setPreviousTime(currentTime);
+        if (packetSendingQueue.isEmpty()) {
+            return -1;
+        }
+        virtualTime += getAllocatedBandwidth() / packetSendingQueue.size() * timeSpan;
+
+        List<SendingPacket> finished = null;
+        while (!packetSendingQueue.isEmpty() && packetSendingQueue.peek().finishTime - virtualTime <= COMPLETED) {
+            if (finished == null) {
+                finished = new ArrayList<>();
+            }
+            finished.add(packetSendingQueue.poll());
+        }
+        if (finished != null) {
+            if (finished.size() > 1) {
+                Collections.sort(finished, SendingPacket.SUBMISSION_ORDER);
+            }
+            for (SendingPacket sendingPacket : finished) {
+                sendingPacket.packet.setRemainSize(0);
+                getPacketFinishedList().add(sendingPacket.packet);
+            }
+        }
+        return nextSendInterval();
+    }
+
+    private double nextSendInterval() {
+        if (packetSendingQueue.isEmpty()) {
+            // restart the virtual clock, so that it does not lose precision over a long run
+            virtualTime = 0;
+            return -1;
+        }
+        double bandwidthPerPacket = getAllocatedBandwidth() / packetSendingQueue.size();
+        return Math.max(packetSendingQueue.peek().finishTime - virtualTime, 0) / bandwidthPerPacket; // next send interval
+    }
+
+    @Override
+    public int getSendingPacketCount() {
+        return packetSendingQueue.size();
+    }
+
+    private static class SendingPacket implements Comparable<SendingPacket>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        static final SubmissionOrder SUBMISSION_ORDER = new SubmissionOrder();
+
+        final NetworkPacket packet;
+        final double finishTime;
+        final long order;
+
+        SendingPacket(NetworkPacket packet, double finishTime, long order) {
+            this.packet = packet;
+            this.finishTime = finishTime;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(SendingPacket other) {
+            int c = Double.compare(finishTime, other.finishTime);
+            return c != 0 ? c : Long.compare(order, other.order);
+        }
+    }
+
+    private static class SubmissionOrder implements Comparator<SendingPacket>, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int compare(SendingPacket a, SendingPacket b) {
+            return Long.compare(a.order, b.order);
+        }
+    }
+}
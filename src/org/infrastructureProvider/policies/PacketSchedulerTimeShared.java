@@ -7,6 +7,8 @@ import java.util.List;
 
 public class PacketSchedulerTimeShared extends PacketScheduler {
 
+    private static final long serialVersionUID = 1L;
+
     private List<NetworkPacket> packetSendingList;
 
     public PacketSchedulerTimeShared() {
@@ -72,4 +74,9 @@ public class PacketSchedulerTimeShared extends PacketScheduler {
         setPreviousTime(currentTime);
         return min / bandwidthPerPacket1; // next send interval;
     }
+
+    @Override
+    public int getSendingPacketCount() {
+        return packetSendingList.size();
+    }
 }
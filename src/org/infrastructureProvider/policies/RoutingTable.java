@@ -0,0 +1,88 @@
+package org.infrastructureProvider.policies;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The routes between the devices: the next device to route to from a source towards a destination,
+ * and the total latency of the route. The devices are numbered by their ordinal in the table.
+ * <p>
+ * The next hop from a device to itself is the device, and -1 if the destination cannot be reached
+ * (whose distance is then infinite).
+ *
+ * @see DenseRoutingTable
+ * @see HierarchicalRoutingTable
+ */
+public abstract class RoutingTable implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /* ordinal -> device id */
+    private final int[] deviceIds;
+
+    /* device id -> ordinal, -1 if the device is not in the table */
+    private final int[] ordinals;
+
+    protected RoutingTable(int[] deviceIds) {
+        this.deviceIds = deviceIds;
+        int maxId = -1;
+        for (int id : deviceIds) {
+            maxId = Math.max(maxId, id);
+        }
+        ordinals = new int[maxId + 1];
+        Arrays.fill(ordinals, -1);
+        for (int ordinal = 0; ordinal < deviceIds.length; ordinal++) {
+            ordinals[deviceIds[ordinal]] = ordinal;
+        }
+    }
+
+    /**
+     * @return the next device to route to from a source towards a destination, or -1 if there is
+     * no route
+     */
+    public abstract int getNextHop(int sourceId, int destinationId);
+
+    /**
+     * @return the latency of the route from a source to a destination, or infinity if there is no
+     * route
+     */
+    public abstract double getDistance(int sourceId, int destinationId);
+
+    public int size() {
+        return deviceIds.length;
+    }
+
+    public int getDeviceId(int ordinal) {
+        return deviceIds[ordinal];
+    }
+
+    /**
+     * @return the ordinal of a device, or -1 if it is not in the table
+     */
+    public int getOrdinal(int deviceId) {
+        return deviceId >= 0 && deviceId < ordinals.length ? ordinals[deviceId] : -1;
+    }
+
+    /**
+     * @return the table as source device id -> (destination device id -> next device id), as
+     * generated by {@link ShortestPathRoutingGenerator}
+     */
+    public Map<Integer, Map<Integer, Integer>> toMap() {
+        Map<Integer, Map<Integer, Integer>> routing = new HashMap<>();
+        for (int source : deviceIds) {
+            Map<Integer, Integer> route = new HashMap<>();
+            for (int destination : deviceIds) {
+                route.put(destination, getNextHop(source, destination));
+            }
+            routing.put(source, route);
+        }
+        return routing;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " of " + deviceIds.length + " devices";
+    }
+}
@@ -10,7 +10,11 @@ import java.util.Map;
 /**
  * Reference iFogSim2: Created by Samodha Pallewatta on 6/18/2021.
  * Creates a routing table considering shortest path between devices.
+ *
+ * @deprecated repeats O(n^3) passes until no distance changes and prints the whole table; use
+ * {@link DijkstraRoutingGenerator}, whose {@link RoutingTable} is used by the devices.
  */
+@Deprecated
 public class ShortestPathRoutingGenerator {
 
     public static Map<Integer, Map<Integer, Integer>> generateRoutingTable(List<NetworkDevice> devices) {
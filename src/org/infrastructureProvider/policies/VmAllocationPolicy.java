@@ -8,6 +8,8 @@
 
 package org.infrastructureProvider.policies;
 
+import java.io.Serializable;
+
 import org.infrastructureProvider.entities.Host;
 import org.infrastructureProvider.entities.Vm;
 
@@ -23,7 +25,10 @@ import java.util.Map;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 1.0
  */
-public abstract class VmAllocationPolicy {
+public abstract class VmAllocationPolicy implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 
 	/** The host list. */
 	private List<? extends Host> hostList;
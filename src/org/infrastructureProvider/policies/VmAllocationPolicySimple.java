@@ -28,6 +28,12 @@ import java.util.Map;
  */
 public class VmAllocationPolicySimple extends VmAllocationPolicy {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The log category. */
+	private static final Log.Category LOG = Log.getCategory("datacenter");
+
 	/** The vm table. */
 	private Map<String, Host> vmTable;
 
@@ -232,9 +238,11 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 			getUsedPes().put(vm.getUid(), requiredPes);
 			getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
 
-			Log.formatLine(
-					"%.2f: VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),
-					CloudSim.clock());
+			if (LOG.isEnabled(Log.Level.INFO)) {
+				LOG.info(String.format(
+						"%.2f: VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),
+						CloudSim.clock()));
+			}
 			return true;
 		}
 
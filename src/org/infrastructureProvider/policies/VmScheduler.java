@@ -7,6 +7,8 @@
 
 package org.infrastructureProvider.policies;
 
+import java.io.Serializable;
+
 import org.cloudbus.cloudsim.Log;
 import org.infrastructureProvider.entities.Pe;
 import org.cloudbus.cloudsim.lists.PeList;
@@ -25,7 +27,13 @@ import java.util.Map;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 1.0
  */
-public abstract class VmScheduler {
+public abstract class VmScheduler implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The log category. */
+	private static final Log.Category LOG = Log.getCategory("datacenter");
 
 	/** The peList. */
 	private List<? extends Pe> peList;
@@ -141,7 +149,7 @@ public abstract class VmScheduler {
 	 */
 	public double getMaxAvailableMips() {
 		if (getPeList() == null) {
-			Log.printLine("Pe list is empty");
+			LOG.warn("Pe list is empty");
 			return 0;
 		}
 
@@ -163,7 +171,7 @@ public abstract class VmScheduler {
 	 */
 	public double getPeCapacity() {
 		if (getPeList() == null) {
-			Log.printLine("Pe list is empty");
+			LOG.warn("Pe list is empty");
 			return 0;
 		}
 		return getPeList().get(0).getMips();
@@ -26,6 +26,12 @@ import java.util.*;
  */
 public class VmSchedulerTimeShared extends VmScheduler {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The log category. */
+	private static final Log.Category LOG = Log.getCategory("datacenter");
+
 	/** The mips map requested. */
 	private Map<String, List<Double>> mipsMapRequested;
 
@@ -147,7 +153,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 							break;
 						}
 						if (!peIterator.hasNext()) {
-							Log.printLine("There is no enough MIPS (" + mips + ") to accommodate VM " + vmUid);
+							LOG.warn("There is no enough MIPS ({}) to accommodate VM {}", mips, vmUid);
 						}
 						pe = peIterator.next();
 						peProvisioner = pe.getPeProvisioner();
@@ -27,6 +27,9 @@ import java.util.Map.Entry;
  */
 public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Instantiates a new vm scheduler time shared over subscription.
 	 * 
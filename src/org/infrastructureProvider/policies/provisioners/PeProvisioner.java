@@ -8,6 +8,8 @@
 
 package org.infrastructureProvider.policies.provisioners;
 
+import java.io.Serializable;
+
 
 import org.infrastructureProvider.entities.Vm;
 
@@ -19,7 +21,10 @@ import java.util.List;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
  */
-public abstract class PeProvisioner {
+public abstract class PeProvisioner implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 
 	/** The mips. */
 	private double mips;
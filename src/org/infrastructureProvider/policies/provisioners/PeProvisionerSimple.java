@@ -24,6 +24,9 @@ import java.util.Map;
  */
 public class PeProvisionerSimple extends PeProvisioner {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	/** The pe table. */
 	private Map<String, List<Double>> peTable;
 
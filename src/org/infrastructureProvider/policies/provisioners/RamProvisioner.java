@@ -8,6 +8,8 @@
 
 package org.infrastructureProvider.policies.provisioners;
 
+import java.io.Serializable;
+
 
 import org.infrastructureProvider.entities.Vm;
 
@@ -20,7 +22,10 @@ import org.infrastructureProvider.entities.Vm;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 1.0
  */
-public abstract class RamProvisioner {
+public abstract class RamProvisioner implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
 
 	/** The ram. */
 	private int ram;
@@ -23,6 +23,9 @@ import java.util.Map;
  */
 public class RamProvisionerSimple extends RamProvisioner {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
 	/** The RAM table. */
 	private Map<String, Integer> ramTable;
 
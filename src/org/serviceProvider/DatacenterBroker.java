@@ -31,6 +31,12 @@ import java.util.*;
  */
 public class DatacenterBroker extends SimEntity {
 
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The log category. */
+	private static final Log.Category LOG = Log.getCategory("broker");
+
 	/** The vm list. */
 	protected List<? extends Vm> vmList;
 
@@ -200,8 +206,10 @@ public class DatacenterBroker extends SimEntity {
 		setDatacenterIdsList(CloudSim.getCloudResourceList());
 		setDatacenterCharacteristicsList(new HashMap<Integer, DatacenterCharacteristics>());
 
-		Log.printLine(CloudSim.clock() + ": " + getName() + ": Cloud Resource List received with "
-				+ getDatacenterIdsList().size() + " resource(s)");
+		if (LOG.isEnabled(Log.Level.INFO)) {
+			LOG.info(CloudSim.clock() + ": " + getName() + ": Cloud Resource List received with "
+					+ getDatacenterIdsList().size() + " resource(s)");
+		}
 
 		for (Integer datacenterId : getDatacenterIdsList()) {
 			sendNow(datacenterId, CloudSimTags.RESOURCE_CHARACTERISTICS, getId());
@@ -224,12 +232,16 @@ public class DatacenterBroker extends SimEntity {
 		if (result == CloudSimTags.TRUE) {
 			getVmsToDatacentersMap().put(vmId, datacenterId);
 			getVmsCreatedList().add(VmList.getById(getVmList(), vmId));
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": VM #" + vmId
-					+ " has been created in Datacenter #" + datacenterId + ", Host #"
-					+ VmList.getById(getVmsCreatedList(), vmId).getHost().getId());
+			if (LOG.isEnabled(Log.Level.INFO)) {
+				LOG.info(CloudSim.clock() + ": " + getName() + ": VM #" + vmId
+						+ " has been created in Datacenter #" + datacenterId + ", Host #"
+						+ VmList.getById(getVmsCreatedList(), vmId).getHost().getId());
+			}
 		} else {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
-					+ " failed in Datacenter #" + datacenterId);
+			if (LOG.isEnabled(Log.Level.INFO)) {
+				LOG.info(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
+						+ " failed in Datacenter #" + datacenterId);
+			}
 		}
 
 		incrementVmsAcks();
@@ -252,8 +264,7 @@ public class DatacenterBroker extends SimEntity {
 				if (getVmsCreatedList().size() > 0) { // if some vm were created
 					submitCloudlets();
 				} else { // no vms created. abort
-					Log.printLine(CloudSim.clock() + ": " + getName()
-							+ ": none of the required VMs could be created. Aborting");
+					LOG.warn("{}: {}: none of the required VMs could be created. Aborting", CloudSim.clock(), getName());
 					finishExecution();
 				}
 			}
@@ -270,11 +281,13 @@ public class DatacenterBroker extends SimEntity {
 	protected void processCloudletReturn(SimEvent ev) {
 		Cloudlet cloudlet = (Cloudlet) ev.getData();
 		getCloudletReceivedList().add(cloudlet);
-		Log.printLine(CloudSim.clock() + ": " + getName() + ": Cloudlet " + cloudlet.getCloudletId()
-				+ " received");
+		if (LOG.isDebugEnabled()) {
+			LOG.debug(CloudSim.clock() + ": " + getName() + ": Cloudlet " + cloudlet.getCloudletId()
+					+ " received");
+		}
 		cloudletsSubmitted--;
 		if (getCloudletList().size() == 0 && cloudletsSubmitted == 0) { // all cloudlets executed
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": All Cloudlets executed. Finishing...");
+			LOG.info("{}: {}: All Cloudlets executed. Finishing...", CloudSim.clock(), getName());
 			clearDatacenters();
 			finishExecution();
 		} else { // some cloudlets haven't finished yet
@@ -298,12 +311,11 @@ public class DatacenterBroker extends SimEntity {
 	 */
 	protected void processOtherEvent(SimEvent ev) {
 		if (ev == null) {
-			Log.printLine(getName() + ".processOtherEvent(): " + "Error - an event is null.");
+			LOG.error("{}.processOtherEvent(): Error - an event is null.", getName());
 			return;
 		}
 
-		Log.printLine(getName() + ".processOtherEvent(): "
-				+ "Error - event unknown by this DatacenterBroker.");
+		LOG.error("{}.processOtherEvent(): Error - event unknown by this DatacenterBroker.", getName());
 	}
 
 	/**
@@ -319,8 +331,10 @@ public class DatacenterBroker extends SimEntity {
 		String datacenterName = CloudSim.getEntityName(datacenterId);
 		for (Vm vm : getVmList()) {
 			if (!getVmsToDatacentersMap().containsKey(vm.getId())) {
-				Log.printLine(CloudSim.clock() + ": " + getName() + ": Trying to Create VM #" + vm.getId()
-						+ " in " + datacenterName);
+				if (LOG.isEnabled(Log.Level.INFO)) {
+					LOG.info(CloudSim.clock() + ": " + getName() + ": Trying to Create VM #" + vm.getId()
+							+ " in " + datacenterName);
+				}
 				sendNow(datacenterId, CloudSimTags.VM_CREATE_ACK, vm);
 				requestedVms++;
 			}
@@ -348,14 +362,18 @@ public class DatacenterBroker extends SimEntity {
 			} else { // submit to the specific vm
 				vm = VmList.getById(getVmsCreatedList(), cloudlet.getVmId());
 				if (vm == null) { // vm was not created
-					Log.printLine(CloudSim.clock() + ": " + getName() + ": Postponing execution of cloudlet "
-							+ cloudlet.getCloudletId() + ": bount VM not available");
+					if (LOG.isDebugEnabled()) {
+						LOG.debug(CloudSim.clock() + ": " + getName() + ": Postponing execution of cloudlet "
+								+ cloudlet.getCloudletId() + ": bount VM not available");
+					}
 					continue;
 				}
 			}
 
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Sending cloudlet "
-					+ cloudlet.getCloudletId() + " to VM #" + vm.getId());
+			if (LOG.isDebugEnabled()) {
+				LOG.debug(CloudSim.clock() + ": " + getName() + ": Sending cloudlet "
+						+ cloudlet.getCloudletId() + " to VM #" + vm.getId());
+			}
 			cloudlet.setVmId(vm.getId());
 			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
 			cloudletsSubmitted++;
@@ -377,7 +395,9 @@ public class DatacenterBroker extends SimEntity {
 	 */
 	protected void clearDatacenters() {
 		for (Vm vm : getVmsCreatedList()) {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Destroying VM #" + vm.getId());
+			if (LOG.isEnabled(Log.Level.INFO)) {
+				LOG.info(CloudSim.clock() + ": " + getName() + ": Destroying VM #" + vm.getId());
+			}
 			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.VM_DESTROY, vm);
 		}
 
@@ -400,7 +420,7 @@ public class DatacenterBroker extends SimEntity {
 	 */
 	@Override
 	public void shutdownEntity() {
-		Log.printLine(getName() + " is shutting down...");
+		LOG.info("{} is shutting down...", getName());
 	}
 
 	/*
@@ -409,7 +429,7 @@ public class DatacenterBroker extends SimEntity {
 	 */
 	@Override
 	public void startEntity() {
-		Log.printLine(getName() + " is starting...");
+		LOG.info("{} is starting...", getName());
 		schedule(getId(), 0, CloudSimTags.RESOURCE_CHARACTERISTICS_REQUEST);
 	}
 
@@ -7,7 +7,6 @@ import org.cloudbus.cloudsim.ResCloudlet;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 import org.cloudbus.cloudsim.lists.VmList;
 import org.enduser.networkPacket.NetworkCloudlet;
 import org.enduser.networkPacket.NetworkPacket;
@@ -23,6 +22,7 @@ import org.serviceProvider.capacities.LoadBalance;
 import org.serviceProvider.capacities.RequestDispatchingRule;
 import org.serviceProvider.services.MicroserviceInstance;
 import org.serviceProvider.services.Servicechain;
+import org.utils.LatencySummary;
 import org.utils.Location;
 import org.utils.PolicyConstants;
 import org.utils.ServiceSimEvents;
@@ -37,6 +37,10 @@ import java.util.Map;
 
 public class ServiceProvider extends DatacenterBroker {
 
+    private static final long serialVersionUID = 1L;
+
+    private static final Log.Category LOG = Log.getCategory("serviceProvider");
+
     private List<Servicechain> serviceChain;
 
     private DevicesProvider devicesProvider;
@@ -58,6 +62,15 @@ public class ServiceProvider extends DatacenterBroker {
 
     private Map<Integer,ArrayList<NetworkPacket>> endUserRequest;
 
+    // latencies of the completed requests (gateway cloudlets)
+    private LatencySummary latencySummary = new LatencySummary();
+
+    // the JMX view of the completed requests, if enabled
+    private transient ServiceProviderMetrics metrics;
+
+    // ends the run once the latencies are steady, if set
+    private SteadyStateController steadyStateController;
+
 
 
     /**
@@ -78,6 +91,7 @@ public class ServiceProvider extends DatacenterBroker {
                            Map<Integer, Map<Integer, Map<Integer,Integer>>> initInstance,
                            String[] cloudletResultFile) throws Exception {
         super(name);
+        ServiceSimEvents.registerTagNames();
         this.serviceChain = serviceChain;
         this.devicesProvider = devicesProvider;
 
@@ -98,9 +112,13 @@ public class ServiceProvider extends DatacenterBroker {
 
     @Override
     public void startEntity() {
-        Log.printLine(getName() + " is starting...");
+        LOG.info("{} is starting...", getName());
         // Map<Integer, Map<Integer, Map<Integer,Integer>>> instances; <device id -> <service id -> <type id -> num>>>
         createInstancesInDevices(initInstance);
+        if (CloudSim.isJmxEnabled()) {
+            metrics = new ServiceProviderMetrics();
+            CloudSim.registerMBean(this, "ServiceProvider", metrics);
+        }
     }
 
     @Override
@@ -245,11 +263,10 @@ public class ServiceProvider extends DatacenterBroker {
             cloudletScheduler = new NetworkCloudletTimeSharedScheduler();
         }
         // purchase type is not used.
-        MicroserviceInstance instance = new MicroserviceInstance(PolicyConstants.vmIdNum,getId(),mips,pesNumber,ram,bw,size,vmm,cloudletScheduler,requestTime,configurationType,0,delayInStartUp,serviceId);
+        MicroserviceInstance instance = new MicroserviceInstance(PolicyConstants.nextVmId(),getId(),mips,pesNumber,ram,bw,size,vmm,cloudletScheduler,requestTime,configurationType,0,delayInStartUp,serviceId);
 //        if (serviceId == 0){
 //            instance.serviceChainId = serviceChainId;
 //        }
-        PolicyConstants.vmIdNum++;
         return instance;
     }
 
@@ -263,13 +280,17 @@ public class ServiceProvider extends DatacenterBroker {
         if (result == CloudSimTags.TRUE) {
             getVmsToDatacentersMap().put(vmId, datacenterId);
             getVmsCreatedList().add(VmList.getById(getVmList(), vmId));
-            Log.printLine(CloudSim.clock() + ": " + getName() + ": VM #" + vmId
-                    + " has been created in Datacenter #" + datacenterId + ", Host #"
-                    + VmList.getById(getVmsCreatedList(), vmId).getHost().getId());
+            if (LOG.isEnabled(Log.Level.INFO)) {
+                LOG.info(CloudSim.clock() + ": " + getName() + ": VM #" + vmId
+                        + " has been created in Datacenter #" + datacenterId + ", Host #"
+                        + VmList.getById(getVmsCreatedList(), vmId).getHost().getId());
+            }
         } else {
             getVmsCreateFailedList().add(VmList.getById(getVmList(), vmId));
-            Log.printLine(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
-                    + " failed in Datacenter #" + datacenterId);
+            if (LOG.isEnabled(Log.Level.INFO)) {
+                LOG.info(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
+                        + " failed in Datacenter #" + datacenterId);
+            }
         }
 
     }
@@ -292,13 +313,17 @@ public class ServiceProvider extends DatacenterBroker {
         if (result == CloudSimTags.TRUE) {
             getVmsToDatacentersMap().remove(vmId);
             getVmsDestroyedList().add(VmList.getById(getVmList(), vmId));
-            Log.printLine(CloudSim.clock() + ": " + getName() + ": VM #" + vmId
-                    + " has been destroyed in Datacenter #" + datacenterId + ", Host #"
-                    + VmList.getById(getVmsDestroyedList(), vmId).getHost().getId());
+            if (LOG.isEnabled(Log.Level.INFO)) {
+                LOG.info(CloudSim.clock() + ": " + getName() + ": VM #" + vmId
+                        + " has been destroyed in Datacenter #" + datacenterId + ", Host #"
+                        + VmList.getById(getVmsDestroyedList(), vmId).getHost().getId());
+            }
         } else {
             getVmsDestroyFailedList().add(VmList.getById(getVmList(), vmId));
-            Log.printLine(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
-                    + " failed in Datacenter #" + datacenterId);
+            if (LOG.isEnabled(Log.Level.INFO)) {
+                LOG.info(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
+                        + " failed in Datacenter #" + datacenterId);
+            }
         }
     }
 
@@ -308,7 +333,7 @@ public class ServiceProvider extends DatacenterBroker {
         NetworkPacket networkPacket = data.getValue();
         int deviceId = findDispatchAccessPoint(location);
         if (deviceId<0){
-            Log.printLine("Error: can not find an access point for endUser request!");
+            LOG.error("Error: can not find an access point for endUser request!");
         }
         networkPacket.setDestination(deviceId);
         int index = findServiceChain(networkPacket.getServiceChainInfo().getServiceChainId());
@@ -319,15 +344,16 @@ public class ServiceProvider extends DatacenterBroker {
             endUserRequest.put(deviceId,new ArrayList<>());
         }
         endUserRequest.get(deviceId).add(networkPacket);
-        CloudSim.cancelAll(getId(), new PredicateType(ServiceSimEvents.EndUserRequest_SEND));
-        sendNow(getId(), ServiceSimEvents.EndUserRequest_SEND);
+        scheduleCoalesced(ServiceSimEvents.EndUserRequest_SEND, 0);
     }
 
     public void sendEndUserRequest(){
         for (int key : endUserRequest.keySet()){
             for (NetworkPacket networkPacket : endUserRequest.get(key)){
-                Log.printLine(CloudSim.clock() + ": " + getName() + ": endUser request #" + networkPacket.getAppId()
-                        + " has arrivalled");
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(CloudSim.clock() + ": " + getName() + ": endUser request #" + networkPacket.getAppId()
+                            + " has arrivalled");
+                }
             }
             sendNow(key,ServiceSimEvents.Packet_ARRIVAL,endUserRequest.get(key));
         }
@@ -378,7 +404,20 @@ public class ServiceProvider extends DatacenterBroker {
         writeNetworkCloudletStages(cloudletStageDetailFile, cloudlet,vm,networkPacket);
 
         if (vm.getServiceId() == 0){// gateway
-
+            double latency = CloudSim.clock() - cloudlet.getExecStartTime();
+            latencySummary.add(latency);
+            if (metrics != null) {
+                metrics.requestCompleted(latency);
+            }
+            if (steadyStateController != null) {
+                // the requests without a chain are not sampled: an app id is not a chain id
+                Servicechain chain = networkPacket.getServiceChainInfo();
+                if (chain != null) {
+                    steadyStateController.requestCompleted(chain.getServiceChainId(), latency);
+                } else if (LOG.isDebugEnabled()) {
+                    LOG.debug("cloudlet #{} has no service chain, its latency is not sampled", cloudlet.getCloudletId());
+                }
+            }
             writeAppCloudletResult(appCloudletResultFile, cloudlet,vm,networkPacket);
         }
 
@@ -410,7 +449,7 @@ public class ServiceProvider extends DatacenterBroker {
             fileWriter.append('\n');
 
         } catch (Exception e) {
-            System.out.println("Error in CsvFileWriter !!!");
+            LOG.error("Error in CsvFileWriter !!!");
             e.printStackTrace();
         }
         try {
@@ -458,7 +497,7 @@ public class ServiceProvider extends DatacenterBroker {
             }
 
         } catch (Exception e) {
-            System.out.println("Error in CsvFileWriter !!!");
+            LOG.error("Error in CsvFileWriter !!!");
             e.printStackTrace();
         }
         try {
@@ -493,7 +532,7 @@ public class ServiceProvider extends DatacenterBroker {
             fileWriter.append('\n');
 
         } catch (Exception e) {
-            System.out.println("Error in CsvFileWriter !!!");
+            LOG.error("Error in CsvFileWriter !!!");
             e.printStackTrace();
         }
         try {
@@ -503,6 +542,22 @@ public class ServiceProvider extends DatacenterBroker {
         }
     }
 
+    public LatencySummary getLatencySummary() {
+        return latencySummary;
+    }
+
+    public SteadyStateController getSteadyStateController() {
+        return steadyStateController;
+    }
+
+    /**
+     * Sets the controller ending the run once the response times of the service chains are steady,
+     * or null to run up to the simulation limit.
+     */
+    public void setSteadyStateController(SteadyStateController steadyStateController) {
+        this.steadyStateController = steadyStateController;
+    }
+
     public List<Servicechain> getServiceChain() {
         return serviceChain;
     }
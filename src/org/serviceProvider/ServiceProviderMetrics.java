@@ -0,0 +1,41 @@
+package org.serviceProvider;
+
+import org.utils.LatencyHistogram;
+
+/**
+ * The JMX view of a service provider. The completed requests are counted by the simulation thread
+ * in a {@link LatencyHistogram}, which the JMX threads read without locking.
+ */
+class ServiceProviderMetrics implements ServiceProviderMetricsMXBean {
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    void requestCompleted(double latency) {
+        latencies.add(latency);
+    }
+
+    @Override
+    public long getCompletedRequests() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public double getMeanLatency() {
+        return latencies.getMean();
+    }
+
+    @Override
+    public double getP50Latency() {
+        return latencies.percentile(50);
+    }
+
+    @Override
+    public double getP99Latency() {
+        return latencies.percentile(99);
+    }
+
+    @Override
+    public double getMaxLatency() {
+        return latencies.getMax();
+    }
+}
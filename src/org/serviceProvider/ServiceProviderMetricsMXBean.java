@@ -0,0 +1,19 @@
+package org.serviceProvider;
+
+/**
+ * The management interface of a service provider, registered as
+ * <tt>org.cloudbus.cloudsim:type=ServiceProvider,simulation=&lt;id&gt;,name=&lt;provider name&gt;</tt>.
+ * The latencies are the end-to-end latencies of the completed requests, in simulated seconds.
+ */
+public interface ServiceProviderMetricsMXBean {
+
+    long getCompletedRequests();
+
+    double getMeanLatency();
+
+    double getP50Latency();
+
+    double getP99Latency();
+
+    double getMaxLatency();
+}
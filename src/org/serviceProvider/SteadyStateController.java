@@ -0,0 +1,153 @@
+package org.serviceProvider;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.utils.SteadyStateDetector;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Ends a run as soon as the mean response time of every service chain is known precisely enough,
+ * instead of simulating up to a fixed limit. The service provider hands it the response time of
+ * every completed request ({@link ServiceProvider#setSteadyStateController}); each chain has its own
+ * {@link SteadyStateDetector}, which deletes the warm-up with MSER-5, and the simulation is
+ * terminated with {@link CloudSim#terminateSimulation()} once every chain has left its transient
+ * and the half-width of its confidence interval is at most the target fraction of its mean.
+ * The simulation limit of the end user still bounds the run if that never happens.
+ * <p>
+ * The cut-off points are logged when the run is terminated and can be written as a CSV file, so
+ * that the deleted warm-up and the estimates can be audited.
+ */
+public class SteadyStateController implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Log.Category LOG = Log.getCategory("serviceProvider");
+
+    private final double relativeHalfWidth;
+    private final double confidence;
+    private final int confidenceBatches;
+    private final int minBatches;
+
+    private final Map<Integer, SteadyStateDetector> chains = new TreeMap<>();
+
+    private boolean terminated = false;
+    private double terminationTime = Double.NaN;
+
+    /**
+     * Creates a controller targeting 95% confidence intervals.
+     *
+     * @param relativeHalfWidth the target half-width of the confidence intervals, as a fraction of
+     *                          the mean, e.g. 0.05
+     */
+    public SteadyStateController(double relativeHalfWidth) {
+        this(relativeHalfWidth, 0.95, 20, 100);
+    }
+
+    /**
+     * @param relativeHalfWidth the target half-width of the confidence intervals, as a fraction of
+     *                          the mean
+     * @param confidence        the level of the confidence intervals
+     * @param confidenceBatches the number of batches the confidence intervals are computed on
+     * @param minBatches        the number of 5-batches a chain needs before it is analysed
+     */
+    public SteadyStateController(double relativeHalfWidth, double confidence, int confidenceBatches, int minBatches) {
+        if (relativeHalfWidth <= 0) {
+            throw new IllegalArgumentException("The target half-width should be positive, but is:" + relativeHalfWidth);
+        }
+        this.relativeHalfWidth = relativeHalfWidth;
+        this.confidence = confidence;
+        this.confidenceBatches = confidenceBatches;
+        this.minBatches = minBatches;
+    }
+
+    /**
+     * Records the response time of a completed request, and terminates the simulation if every
+     * chain is precise enough.
+     */
+    public void requestCompleted(int serviceChainId, double responseTime) {
+        SteadyStateDetector detector = chains.get(serviceChainId);
+        if (detector == null) {
+            detector = new SteadyStateDetector(confidence, confidenceBatches, minBatches);
+            chains.put(serviceChainId, detector);
+        }
+        if (detector.add(responseTime, CloudSim.clock()) && !terminated && isPrecise()) {
+            terminated = true;
+            terminationTime = CloudSim.clock();
+            LOG.info("Steady state reached at {}, terminating the simulation\n{}", terminationTime, getReport());
+            CloudSim.terminateSimulation();
+        }
+    }
+
+    /**
+     * Checks whether every chain seen so far is precise enough.
+     */
+    public boolean isPrecise() {
+        if (chains.isEmpty()) {
+            return false;
+        }
+        for (SteadyStateDetector detector : chains.values()) {
+            if (!detector.isPrecise(relativeHalfWidth)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isTerminated() {
+        return terminated;
+    }
+
+    /**
+     * @return the simulation time at which the run was terminated, or NaN if it was not
+     */
+    public double getTerminationTime() {
+        return terminationTime;
+    }
+
+    /**
+     * @return the detectors, by service chain id
+     */
+    public Map<Integer, SteadyStateDetector> getChains() {
+        return chains;
+    }
+
+    public String getReport() {
+        StringBuilder report = new StringBuilder(String.format("  %5s %12s %12s %14s %14s %14s %10s%n",
+                "chain", "observations", "warmup", "warmup end", "mean", "half-width", "relative"));
+        for (Map.Entry<Integer, SteadyStateDetector> entry : chains.entrySet()) {
+            SteadyStateDetector d = entry.getValue();
+            report.append(String.format("  %5d %12d %12d %14.6f %14.6f %14.6f %9.2f%%%s%n", entry.getKey(),
+                    d.getAnalysedObservations(), d.getWarmupObservations(), d.getWarmupEndTime(), d.getMean(),
+                    d.getHalfWidth(), 100 * d.getRelativeHalfWidth(),
+                    d.isTransientOver() ? "" : " (in transient)"));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes the cut-off points and estimates of every chain as a CSV file, one row per chain.
+     */
+    public void writeReport(String fileName) throws IOException {
+        try (Writer writer = new FileWriter(fileName)) {
+            writeReport(writer);
+        }
+    }
+
+    public void writeReport(Writer writer) throws IOException {
+        writer.write("chain,observations,analysed,warmupObservations,warmupEndTime,mean,halfWidth,"
+                + "relativeHalfWidth,confidence,transientOver,precise,terminationTime\n");
+        for (Map.Entry<Integer, SteadyStateDetector> entry : chains.entrySet()) {
+            SteadyStateDetector d = entry.getValue();
+            writer.write(entry.getKey() + "," + d.getObservations() + "," + d.getAnalysedObservations() + ","
+                    + d.getWarmupObservations() + "," + d.getWarmupEndTime() + "," + d.getMean() + ","
+                    + d.getHalfWidth() + "," + d.getRelativeHalfWidth() + "," + d.getConfidence() + ","
+                    + d.isTransientOver() + "," + d.isPrecise(relativeHalfWidth) + "," + terminationTime + "\n");
+        }
+    }
+}
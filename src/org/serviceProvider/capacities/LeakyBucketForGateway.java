@@ -13,6 +13,10 @@ import java.util.Map;
 
 public class LeakyBucketForGateway implements LoadAdmission {
 
+    private static final long serialVersionUID = 1L;
+
+    private static final Log.Category LOG = Log.getCategory("dispatch");
+
     int deviceId;
 
     /* for algorithm */
@@ -112,7 +116,7 @@ public class LeakyBucketForGateway implements LoadAdmission {
             }
 
         } catch (Exception e) {
-            System.out.println("Error in CsvFileWriter !!!");
+            LOG.error("Error in CsvFileWriter !!!");
             e.printStackTrace();
         }
         try {
@@ -131,7 +135,7 @@ public class LeakyBucketForGateway implements LoadAdmission {
                 tokens.put(key, updatetoken);
                 //lastTime = CloudSim.clock();
             }else{
-                Log.printLine("error- Cannot find keys for tokens or capabilities.");
+                LOG.error("error- Cannot find keys for tokens or capabilities.");
             }
         }
         lastTime = CloudSim.clock();
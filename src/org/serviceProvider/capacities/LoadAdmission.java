@@ -1,8 +1,10 @@
 package org.serviceProvider.capacities;
 
+import java.io.Serializable;
+
 import org.enduser.networkPacket.NetworkPacket;
 
-public interface LoadAdmission {
+public interface LoadAdmission extends Serializable {
 
     boolean isAdmission(NetworkPacket networkPacket);
 }
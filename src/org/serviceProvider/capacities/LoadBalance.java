@@ -1,9 +1,10 @@
 package org.serviceProvider.capacities;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Map;
 
-public interface LoadBalance {
+public interface LoadBalance extends Serializable {
 
    int findInstanceId(ServiceDiscovery serviceDiscovery, int serviceId, int deviceId);
 
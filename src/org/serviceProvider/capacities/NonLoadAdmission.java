@@ -4,6 +4,8 @@ import org.enduser.networkPacket.NetworkPacket;
 
 public class NonLoadAdmission implements LoadAdmission {
 
+    private static final long serialVersionUID = 1L;
+
     @Override
     public boolean isAdmission(NetworkPacket networkPacket) {
         return true;
@@ -1,11 +1,15 @@
 package org.serviceProvider.capacities;
 
+import java.io.Serializable;
+
 import org.enduser.networkPacket.NetworkPacket;
 import org.infrastructureProvider.entities.NetworkDevice;
 
 import java.util.ArrayList;
 
-public abstract class RequestDispatchingRule {
+public abstract class RequestDispatchingRule implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
      private ArrayList<NetworkDevice> networkDevices; // the dispatching range, which determines the service discovery update.
 
@@ -1,6 +1,7 @@
 package org.serviceProvider.capacities;
 
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
 import org.enduser.networkPacket.NetworkPacket;
 import org.infrastructureProvider.entities.NetworkDevice;
 
@@ -11,6 +12,13 @@ import java.util.Set;
 
 public class RequestDispatchingSimple extends RequestDispatchingRule {
 
+    private static final long serialVersionUID = 1L;
+
+    private static final Log.Category LOG = Log.getCategory("dispatch");
+
+    // the stream choosing among equivalent devices, obtained when first used
+    private Random random;
+
     public RequestDispatchingSimple(ArrayList<NetworkDevice> networkDevices) {
         super(networkDevices);
     }
@@ -23,10 +31,12 @@ public class RequestDispatchingSimple extends RequestDispatchingRule {
                             int deviceId, ArrayList<Integer> childDeviceIds, ArrayList<Integer> parentDeviceIds, ArrayList<Integer> sameLevelDeviceIds) {
 
         int requestServiceId = request.getDestinationServiceId();
-        Log.printLine("find service "+ requestServiceId);
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("find service "+ requestServiceId);
+        }
 
         if (!serviceDiscovery.getServiceIdToInstanceList().containsKey(requestServiceId)){
-            System.out.println("Service Discovery Information Missing or there is no service instance");
+            LOG.warn("Service Discovery Information Missing or there is no service instance");
             return -1;
         }else{
             // 1. check self
@@ -47,9 +57,11 @@ public class RequestDispatchingSimple extends RequestDispatchingRule {
                 }
             }
             if (devices.size() > 0){
-                Random r = new Random();
+                Random r = dispatchingRandom(deviceId);
                 int index = r.nextInt(devices.size());
-                Log.printLine("service has find in"+ devices.get(index));
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace("service has find in"+ devices.get(index));
+                }
                 return devices.get(index);
             }
 
@@ -64,7 +76,7 @@ public class RequestDispatchingSimple extends RequestDispatchingRule {
                 }
             }
             if (devices1.size() > 0){
-                Random r = new Random();
+                Random r = dispatchingRandom(deviceId);
                 int index = r.nextInt(devices1.size());
                 return devices1.get(index);
             }
@@ -80,7 +92,7 @@ public class RequestDispatchingSimple extends RequestDispatchingRule {
                 }
             }
             if (devices2.size() > 0){
-                Random r = new Random();
+                Random r = dispatchingRandom(deviceId);
                 int index = r.nextInt(devices2.size());
                 return devices2.get(index);
             }
@@ -102,7 +114,7 @@ public class RequestDispatchingSimple extends RequestDispatchingRule {
             }
             devices3.addAll(hashSet);
             if (devices3.size() > 0){
-                Random r = new Random();
+                Random r = dispatchingRandom(deviceId);
                 int index = r.nextInt(devices3.size());
                 return devices3.get(index);
             }
@@ -135,10 +147,22 @@ public class RequestDispatchingSimple extends RequestDispatchingRule {
             }
 
         }
-        System.out.println("Service Discovery Information Missing or there is no service instance");
+        LOG.warn("Service Discovery Information Missing or there is no service instance");
         return -1;
     }
 
+    /**
+     * Gets the random number stream of the dispatching decisions, keyed by the name of the device
+     * using this rule.
+     */
+    private Random dispatchingRandom(int deviceId) {
+        if (random == null) {
+            NetworkDevice device = findDeviceAccDeviceId(getNetworkDevices(), deviceId);
+            random = CloudSim.getRandom(device == null ? "device" + deviceId : device.getName(), "dispatching");
+        }
+        return random;
+    }
+
     public NetworkDevice findDeviceAccDeviceId(ArrayList<NetworkDevice> networkDevices, int deviceId){
         for (NetworkDevice device : networkDevices){
             if (device.getId() == deviceId){
@@ -150,7 +174,7 @@ public class RequestDispatchingSimple extends RequestDispatchingRule {
 
     public int findCloud(ArrayList<NetworkDevice> networkDevices){
         for (NetworkDevice device : networkDevices){
-            if (device.getIdentify() == "cloud"){
+            if ("cloud".equals(device.getIdentify())){
                 return device.getId();
             }
         }
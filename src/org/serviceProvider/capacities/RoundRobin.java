@@ -1,11 +1,16 @@
 package org.serviceProvider.capacities;
 
+import org.cloudbus.cloudsim.Log;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
 public class RoundRobin implements LoadBalance {
 
+    private static final long serialVersionUID = 1L;
+
+    private static final Log.Category LOG = Log.getCategory("dispatch");
+
     private Map<Integer, Integer> position = new HashMap<>(); // serviceId, instanceId
 
     private Map<Integer, Integer> service0Position = new HashMap<>(); // serviceChainId, instanceId
@@ -17,7 +22,7 @@ public class RoundRobin implements LoadBalance {
             if (serviceDiscovery.getServiceIdToInstanceList().get(serviceId).containsKey(deviceId))
             {
                 if (serviceDiscovery.getServiceIdToInstanceList().get(serviceId).get(deviceId).size() == 0){
-                    System.out.println("Service Discovery Information Missing");
+                    LOG.warn("Service Discovery Information Missing");
                     return -1;
                 }
                 int pos = position.get(serviceId);
@@ -28,7 +33,7 @@ public class RoundRobin implements LoadBalance {
                 position.put(serviceId, pos);
                 return serviceDiscovery.getServiceIdToInstanceList().get(serviceId).get(deviceId).get(pos);
             }else{
-                System.out.println("Service Discovery Information Missing");
+                LOG.warn("Service Discovery Information Missing");
                 return -1;
             }
 
@@ -38,7 +43,7 @@ public class RoundRobin implements LoadBalance {
                 if (serviceDiscovery.getServiceIdToInstanceList().get(serviceId).containsKey(deviceId)){
 
                     if (serviceDiscovery.getServiceIdToInstanceList().get(serviceId).get(deviceId).size() == 0){
-                        System.out.println("Service Discovery Information Missing");
+                        LOG.warn("Service Discovery Information Missing");
                         return -1;
                     }
                     position.put(serviceId, 0);
@@ -46,11 +51,11 @@ public class RoundRobin implements LoadBalance {
                     return instanceId;
 
                 }else{
-                    System.out.println("Service Discovery Information Missing");
+                    LOG.warn("Service Discovery Information Missing");
                     return -1;
                 }
             }
-            System.out.println("Service Discovery Information Missing");
+            LOG.warn("Service Discovery Information Missing");
             return -1;
         }
     }
@@ -60,7 +65,7 @@ public class RoundRobin implements LoadBalance {
             if (serviceDiscovery.getService0ToInstanceList().get(serviceChainId).containsKey(deviceId))
             {
                 if (serviceDiscovery.getService0ToInstanceList().get(serviceChainId).get(deviceId).size() == 0){
-                    System.out.println("Service Discovery Information Missing");
+                    LOG.warn("Service Discovery Information Missing");
                     return -1;
                 }
                 int pos = service0Position.get(serviceChainId);
@@ -71,7 +76,7 @@ public class RoundRobin implements LoadBalance {
                 service0Position.put(serviceChainId, pos);
                 return serviceDiscovery.getService0ToInstanceList().get(serviceChainId).get(deviceId).get(pos);
             }else{
-                System.out.println("Service Discovery Information Missing");
+                LOG.warn("Service Discovery Information Missing");
                 return -1;
             }
 
@@ -81,7 +86,7 @@ public class RoundRobin implements LoadBalance {
                 if (serviceDiscovery.getService0ToInstanceList().get(serviceChainId).containsKey(deviceId)){
 
                     if (serviceDiscovery.getService0ToInstanceList().get(serviceChainId).get(deviceId).size() == 0){
-                        System.out.println("Service Discovery Information Missing");
+                        LOG.warn("Service Discovery Information Missing");
                         return -1;
                     }
                     service0Position.put(serviceChainId, 0);
@@ -89,11 +94,11 @@ public class RoundRobin implements LoadBalance {
                     return instanceId;
 
                 }else{
-                    System.out.println("Service Discovery Information Missing");
+                    LOG.warn("Service Discovery Information Missing");
                     return -1;
                 }
             }
-            System.out.println("Service Discovery Information Missing");
+            LOG.warn("Service Discovery Information Missing");
             return -1;
         }
     }
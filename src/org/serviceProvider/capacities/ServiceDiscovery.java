@@ -1,5 +1,7 @@
 package org.serviceProvider.capacities;
 
+import java.io.Serializable;
+
 import org.cloudbus.cloudsim.Log;
 import org.infrastructureProvider.entities.NetworkDevice;
 import org.serviceProvider.services.MicroserviceInstance;
@@ -8,7 +10,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
-public class ServiceDiscovery {
+public class ServiceDiscovery implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Log.Category LOG = Log.getCategory("dispatch");
 
 
     private Map<Integer, Map<Integer, ArrayList<Integer> > > serviceIdToInstanceList; // service discovery info
@@ -43,7 +49,7 @@ public class ServiceDiscovery {
         int serviceId = microserviceInstance.getServiceId();
         int deviceId = microserviceInstance.getHost().getDatacenter().getId();
         if (serviceId < 0 || deviceId < 0){
-            Log.print("ServiceDiscovery: addServiceDiscoveryInfo error in serviceId or deviceId");
+            LOG.error("ServiceDiscovery: addServiceDiscoveryInfo error in serviceId or deviceId");
         }
         if (serviceIdToInstanceList.containsKey(serviceId)){
             if (serviceIdToInstanceList.get(serviceId).containsKey(deviceId)){
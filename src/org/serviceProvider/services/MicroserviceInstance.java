@@ -9,6 +9,8 @@ import java.util.ArrayList;
 
 public class MicroserviceInstance extends Vm {
 
+    private static final long serialVersionUID = 1L;
+
     public int serviceId;
 
     /* Instance status */
@@ -1,6 +1,10 @@
 package org.serviceProvider.services;
 
-public class ServiceStage {
+import java.io.Serializable;
+
+public class ServiceStage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /* stages type */
     public int type;
 
@@ -1,10 +1,13 @@
 package org.serviceProvider.services;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
-public class Servicechain {
+public class Servicechain implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private int serviceChainId;
 
     /* a servicechain is a abstract of microservice chain */
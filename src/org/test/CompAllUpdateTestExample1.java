@@ -10,6 +10,7 @@ import org.infrastructureProvider.CompK8SDevicesProvider1;
 import org.infrastructureProvider.DevicesProvider;
 import org.infrastructureProvider.entities.NetworkDevice;
 import org.serviceProvider.ServiceProvider;
+import org.serviceProvider.SteadyStateController;
 import org.serviceProvider.capacities.*;
 import org.serviceProvider.services.ApplicationServices;
 import org.serviceProvider.services.ApplicationServicesCompK8S;
@@ -39,6 +40,7 @@ public class CompAllUpdateTestExample1 {
             String workloadResult = "src//others//results//allUpdate//workloadResult" + String.valueOf(experimentNum) + ".csv";
             String cloudletExeDetail = "src//others//results//allUpdate//cloudletExeDetail" + String.valueOf(experimentNum) + ".csv";
             String cloudletStageDetail = "src//others//results//allUpdate//cloudletStagesDetail" + String.valueOf(experimentNum) + ".csv";
+            String steadyStateResult = "src//others//results//allUpdate//steadyState" + String.valueOf(experimentNum) + ".csv";
 
             String[] cloudletResultFile = new String[]{workloadResult,cloudletExeDetail,cloudletStageDetail};
 
@@ -143,6 +145,14 @@ public class CompAllUpdateTestExample1 {
             /* service provider */
             ServiceProvider serviceProvider = new ServiceProvider("serviceProvider",serviceChain,devicesProvider,initLoadAdmission,initLoadBalance,initRequestDispatching,initInstance,cloudletResultFile);
 
+            // optional argument: stop once the mean latency of every chain is known within this fraction, e.g. 0.05
+            // (95% confidence); SIMULATION_LIMIT is then only a bound. By default the run goes up to SIMULATION_LIMIT.
+            SteadyStateController steadyState = null;
+            if (args.length > 0) {
+                steadyState = new SteadyStateController(Double.parseDouble(args[0]));
+                serviceProvider.setSteadyStateController(steadyState);
+            }
+
             Map<Double,ArrayList<Pair<Integer,Double>>> requestToDelay =  getWorkloadForAccDelay("src//org//test//workloadGenerator//k8snode4-1//serRequest17//");
 
             EndUser endUser = new EndUser("endUser", serviceProvider.getId(), SIMULATION_LIMIT, 1, 0.001, 1,requestToDelay,7);
@@ -151,6 +161,9 @@ public class CompAllUpdateTestExample1 {
             CloudSim.startSimulation();
 
             CloudSim.stopSimulation();
+            if (steadyState != null) {
+                steadyState.writeReport(steadyStateResult);
+            }
             Long endTime = System.currentTimeMillis();
             Long time = endTime - startTime;
             Log.printLine("test example execute time："+time);
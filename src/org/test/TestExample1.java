@@ -137,7 +137,7 @@ public class TestExample1 {
         CloudSim.init(num_BSP, calendar, trace_flag);
     }
 
-    private static List<Servicechain> createdServicechains(){
+    static List<Servicechain> createdServicechains(){
         Map<Integer, Map<Integer, ArrayList<Integer>>> serviceChains = new HashMap<>();
         Map<Integer, ArrayList<Integer>> servicechain0 = new HashMap<>();
         servicechain0.put(0,new ArrayList<>(Arrays.asList(1)));
@@ -182,14 +182,14 @@ public class TestExample1 {
         return servicechains;
     }
 
-    private static Map<Integer, Map<Integer, Map<Integer,Integer>>> createInitDeployment(Map<Integer, Integer> serviceToInstanceNum, ArrayList<NetworkDevice> devices, int smallBS){
+    static Map<Integer, Map<Integer, Map<Integer,Integer>>> createInitDeployment(Map<Integer, Integer> serviceToInstanceNum, ArrayList<NetworkDevice> devices, int smallBS){
         Map<Integer, Map<Integer, Map<Integer,Integer>>> initDeploy = new HashMap<>();
 
         Map<Integer, Map<Integer,Integer>> deviceIdToServiceNum = new HashMap<>();
 
+        Random random = CloudSim.getRandom("initialDeployment", "placement");
         for (int serviceId : serviceToInstanceNum.keySet()){
             for (int i = 0;i< serviceToInstanceNum.get(serviceId); i++){
-                Random random = new Random();
                 int index = random.nextInt(smallBS);
                 int id = devices.get(index).getId();
                 if (deviceIdToServiceNum.containsKey(id)){
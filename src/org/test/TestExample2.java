@@ -216,9 +216,9 @@ public class TestExample2 {
         // gateway
         Map<Integer, Map<Integer,Integer>> deviceIdToServiceNum = new HashMap<>();
 
+        Random random = CloudSim.getRandom("initialDeployment", "placement");
         for (int serviceId : serviceToInstanceNum.keySet()){
             for (int i = 0;i< serviceToInstanceNum.get(serviceId); i++){
-                Random random = new Random();
                 int index = random.nextInt(smallBS);
                 int id = devices.get(index).getId();
                 if (deviceIdToServiceNum.containsKey(id)){
@@ -347,8 +347,8 @@ public class TestExample2 {
         // gateway
         Map<Integer, Map<Integer,Integer>> deviceIdToServiceNum = new HashMap<>();
         int groupnum = smallBS/blockToServiceDeploynum.keySet().size();
+        Random random = CloudSim.getRandom("initialDeployment", "placement");
         for (int highLevelBlock : blockToServiceDeploynum.keySet()){
-            Random random = new Random();
             for (int ser : blockToServiceDeploynum.get(highLevelBlock).keySet()){
                 for (int i = 0; i < blockToServiceDeploynum.get(highLevelBlock).get(ser);i++){
                     int block = random.nextInt(groupnum) + highLevelBlock * groupnum;
@@ -0,0 +1,102 @@
+package org.test;
+
+import org.cloudbus.cloudsim.Log;
+import org.enduser.EndUser;
+import org.experiment.Experiment;
+import org.experiment.ExperimentSweep;
+import org.experiment.SweepPoint;
+import org.experiment.SweepResult;
+import org.infrastructureProvider.DevicesProvider;
+import org.infrastructureProvider.DevicesProviderSimple1;
+import org.infrastructureProvider.entities.NetworkDevice;
+import org.serviceProvider.ServiceProvider;
+import org.serviceProvider.capacities.*;
+import org.serviceProvider.services.Servicechain;
+
+import java.util.*;
+
+/*
+The scenario of TestExample1, swept over the number of deployed instances and replicated,
+the runs being executed concurrently.
+* */
+public class TestExampleSweep {
+    public static void main(String[] args) {
+        Log.printLine("Starting ServiceSim parameter sweep...");
+        try {
+            ExperimentSweep sweep = new ExperimentSweep(new Experiment() {
+                @Override
+                public ServiceProvider build(SweepPoint point) throws Exception {
+                    return createScenario(point);
+                }
+            });
+            sweep.addParameter("deploynum", 5, 10);
+            sweep.addParameter("simulationLimit", 10.0);
+            sweep.setReplications(3);
+
+            List<SweepResult> results = sweep.run();
+            for (SweepResult result : results) {
+                Log.printLine(result.getPoint() + ": " + (result.isSuccessful() ? result.getLatency() : result.getError()));
+            }
+            ExperimentSweep.writeTable(results, "src//others//results//sweepResult.csv");
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            Log.printLine("Unwanted errors happen");
+        }
+    }
+
+    private static ServiceProvider createScenario(SweepPoint point) throws Exception {
+        int deploynum = point.get("deploynum");
+        double simulationLimit = point.get("simulationLimit");
+
+        String workloadResult = "src//others//results//sweepWorkloadResult" + point.getRun() + ".csv";
+        String cloudletExeDetail = "src//others//results//sweepCloudletExeDetail" + point.getRun() + ".csv";
+        String cloudletStageDetail = "src//others//results//sweepCloudletStagesDetail" + point.getRun() + ".csv";
+        String[] cloudletResultFile = new String[]{workloadResult,cloudletExeDetail,cloudletStageDetail};
+
+        int smallBS = 32;
+        int meBS = 4;
+        int router = 1;
+
+        DevicesProvider devicesProvider = new DevicesProviderSimple1(smallBS,meBS,router);
+
+        List<Servicechain> serviceChain = TestExample1.createdServicechains();
+
+        Map<Integer, LoadAdmission> initLoadAdmission = new HashMap<>();
+        Map<Integer, RequestDispatchingRule> initRequestDispatching = new HashMap<>();
+        Map<Integer, LoadBalance> initLoadBalance = new HashMap<>();
+
+        for (NetworkDevice device : devicesProvider.getDevices()){
+            initLoadAdmission.put(device.getId(),new NonLoadAdmission());
+            initLoadBalance.put(device.getId(),new RoundRobin());
+            initRequestDispatching.put(device.getId(),new RequestDispatchingSimple((ArrayList<NetworkDevice>)devicesProvider.getDevices()));
+        }
+
+        Map<Integer, Integer> serviceToInstanceNum_edge = new HashMap<>();
+        serviceToInstanceNum_edge.put(1,deploynum);
+        serviceToInstanceNum_edge.put(2,deploynum);
+        serviceToInstanceNum_edge.put(3,deploynum);
+        serviceToInstanceNum_edge.put(4,deploynum);
+        serviceToInstanceNum_edge.put(5,deploynum*3);
+        serviceToInstanceNum_edge.put(6,deploynum*3);
+        serviceToInstanceNum_edge.put(7,deploynum*2);
+        serviceToInstanceNum_edge.put(8,deploynum*3);
+        serviceToInstanceNum_edge.put(9,deploynum*3);
+        serviceToInstanceNum_edge.put(10,deploynum*2);
+        Map<Integer, Map<Integer, Map<Integer,Integer>>> initInstance = TestExample1.createInitDeployment(serviceToInstanceNum_edge, (ArrayList<NetworkDevice>)devicesProvider.getDevices(), smallBS);
+
+        Map<Integer,Integer>  typeToNum0 = new HashMap<>();
+        typeToNum0.put(1,3);
+        Map<Integer, Map<Integer,Integer>> serviceToNum = new HashMap<>();
+        for (int i = 1 ; i < 11;i++){
+            serviceToNum.put(i,typeToNum0);
+        }
+        initInstance.put(TestExample1.findCloud((ArrayList<NetworkDevice>)devicesProvider.getDevices()),serviceToNum);
+
+        ServiceProvider serviceProvider = new ServiceProvider("serviceProvider",serviceChain,devicesProvider,initLoadAdmission,initLoadBalance,initRequestDispatching,initInstance,cloudletResultFile);
+
+        new EndUser("endUser", serviceProvider.getId(), simulationLimit, 600, 600, 1,0.005,6,smallBS);
+
+        return serviceProvider;
+    }
+}
@@ -0,0 +1,94 @@
+package org.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram that can be updated by the simulation thread and read concurrently, e.g. by
+ * JMX, without locking: the count and the sum are striped adders and the buckets are atomic
+ * counters. Unlike {@link LatencySummary}, it does not keep the latencies, so its percentiles are
+ * approximate: the buckets grow geometrically by 2% from 1 microsecond, and a percentile is the
+ * upper bound of its bucket, i.e. at most 2% above the exact value (latencies beyond the last
+ * bucket, about 10^6 s, are reported as the maximum).
+ */
+public class LatencyHistogram {
+
+    private static final double MIN = 1e-6;
+    private static final double GROWTH = 1.02;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final int BUCKETS = 1400;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+    /* the bits of the maximum: non-negative doubles are ordered like their bits */
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0L);
+
+    public void add(double latency) {
+        if (latency < 0 || Double.isNaN(latency)) {
+            throw new IllegalArgumentException("The latency should be non-negative, but is:" + latency);
+        }
+        buckets.incrementAndGet(bucket(latency));
+        count.increment();
+        sum.add(latency);
+        max.accumulate(Double.doubleToLongBits(latency));
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? Double.NaN : sum.sum() / n;
+    }
+
+    public double getMax() {
+        return count.sum() == 0 ? Double.NaN : Double.longBitsToDouble(max.get());
+    }
+
+    /**
+     * Gets a percentile of the latencies (nearest rank), rounded up to the bound of its bucket.
+     *
+     * @param p the percentile, between 0 and 100
+     * @return the latency, or NaN if no request was completed
+     */
+    public double percentile(double p) {
+        if (p < 0 || p > 100) {
+            throw new IllegalArgumentException("The percentile should be between 0 and 100, but is:" + p);
+        }
+        long[] counts = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            n += counts[i];
+        }
+        if (n == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max((long) Math.ceil(p / 100 * n), 1);
+        double maximum = getMax();
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            rank -= counts[i];
+            if (rank <= 0) {
+                return Math.min(MIN * Math.pow(GROWTH, i), maximum);
+            }
+        }
+        return maximum;
+    }
+
+    private static int bucket(double latency) {
+        if (latency <= MIN) {
+            return 0;
+        }
+        return (int) Math.min(Math.ceil(Math.log(latency / MIN) / LOG_GROWTH), BUCKETS - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount() + ", mean=" + getMean() + ", p50=" + percentile(50)
+                + ", p95=" + percentile(95) + ", p99=" + percentile(99) + ", max=" + getMax();
+    }
+}
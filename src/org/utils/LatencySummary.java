@@ -0,0 +1,70 @@
+package org.utils;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Collects the end-to-end latencies of the requests completed in one simulation run and summarizes
+ * them (count, mean, percentiles).
+ */
+public class LatencySummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private double[] latencies = new double[1024];
+    private int count = 0;
+    private double sum = 0;
+    private boolean sorted = true;
+
+    public void add(double latency) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latency;
+        sum += latency;
+        sorted = false;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    public double getMin() {
+        return percentile(0);
+    }
+
+    public double getMax() {
+        return percentile(100);
+    }
+
+    /**
+     * Gets a percentile of the latencies (nearest rank).
+     *
+     * @param p the percentile, between 0 and 100
+     * @return the latency, or NaN if no request was completed
+     */
+    public double percentile(double p) {
+        if (p < 0 || p > 100) {
+            throw new IllegalArgumentException("The percentile should be between 0 and 100, but is:" + p);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (!sorted) {
+            Arrays.sort(latencies, 0, count);
+            sorted = true;
+        }
+        int rank = (int) Math.ceil(p / 100 * count);
+        return latencies[Math.max(rank - 1, 0)];
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", mean=" + getMean() + ", p50=" + percentile(50)
+                + ", p95=" + percentile(95) + ", p99=" + percentile(99) + ", max=" + getMax();
+    }
+}
@@ -1,6 +1,10 @@
 package org.utils;
 
-public class Location {
+import java.io.Serializable;
+
+public class Location implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     public double latitude;
     public double longitude;
@@ -1,5 +1,7 @@
 package org.utils;
 
+import org.cloudbus.cloudsim.core.CloudSim;
+
 public class PolicyConstants {
 
     /* cloudlet scheduler policies */
@@ -46,6 +48,11 @@ public class PolicyConstants {
     public static final double ResponseDataArrivalProcess = 0.0001; // process time 0.001s
 
 
-    public static int vmIdNum = 0;
+    /**
+     * Gets the next microservice instance id of the current simulation context.
+     */
+    public static int nextVmId() {
+        return CloudSim.getContext().nextId("vmId");
+    }
 
 }
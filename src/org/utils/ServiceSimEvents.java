@@ -1,5 +1,6 @@
 package org.utils;
 
+import org.cloudbus.cloudsim.core.KernelProfiler;
 import org.omg.CORBA.PUBLIC_MEMBER;
 
 public class ServiceSimEvents {
@@ -23,4 +24,22 @@ public class ServiceSimEvents {
     public static final int EndUserRequest_ARRIVAL = BASE + 14;
     public static final int EndUserRequest_SEND = BASE + 15;
     public static final int Workload_GENERATE = BASE + 16;
+
+    public static final int Flow_UPDATE = BASE + 17;
+
+    public static final int Routing_CHANGE = BASE + 18;
+    public static final int Routing_UPDATE = BASE + 19;
+
+    static {
+        KernelProfiler.addTagNames(ServiceSimEvents.class);
+    }
+
+    /**
+     * Names these events in the report of the {@link KernelProfiler}. The names are registered
+     * once, by the initializer of this class, which this method triggers: the constants are inlined
+     * where they are used and do not load the class. The {@code ServiceProvider} and the network
+     * devices call it when they are created.
+     */
+    public static void registerTagNames() {
+    }
 }
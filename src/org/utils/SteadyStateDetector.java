@@ -0,0 +1,242 @@
+package org.utils;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Estimates the steady-state mean of an output series observed online, e.g. the response times of
+ * one service chain, and decides when it is known precisely enough.
+ * <p>
+ * The warm-up transient is removed with MSER-5: the observations are averaged in batches of 5, and
+ * the number d of batches deleted from the start minimizes the marginal standard error
+ * {@code sum_{j>d} (Z_j - mean_d)^2 / (k - d)^2}, with d at most k / 2; if the minimum is at the
+ * bound, the series is still in its transient. The retained observations are then regrouped in a
+ * fixed number of batches (20 by default) whose means give a Student t confidence interval.
+ * <p>
+ * The analysis costs a pass over the 5-batches, so it is only redone once the series has grown by
+ * 5%; the estimate may therefore lag the data by as much.
+ */
+public class SteadyStateDetector implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int MSER_BATCH = 5;
+
+    private final int confidenceBatches;
+    private final double confidence;
+    private final int minBatches;
+
+    /* the means and end times of the completed 5-batches */
+    private double[] batchMeans = new double[64];
+    private double[] batchEnds = new double[64];
+    private int batches = 0;
+
+    /* the current 5-batch */
+    private double partialSum = 0;
+    private int partialCount = 0;
+
+    private int nextAnalysis;
+
+    /* the last analysis */
+    private int truncatedBatches = -1;
+    private int analysedBatches = 0;
+    private double mean = Double.NaN;
+    private double halfWidth = Double.NaN;
+    private boolean transientOver = false;
+
+    /**
+     * Creates a detector computing 95% confidence intervals on 20 batches, once 100 5-batches (500
+     * observations) have been collected.
+     */
+    public SteadyStateDetector() {
+        this(0.95, 20, 100);
+    }
+
+    /**
+     * @param confidence        the level of the confidence intervals, e.g. 0.95
+     * @param confidenceBatches the number of batches the confidence intervals are computed on
+     * @param minBatches        the number of 5-batches observed before the first analysis
+     */
+    public SteadyStateDetector(double confidence, int confidenceBatches, int minBatches) {
+        if (confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("The confidence should be between 0 and 1, but is:" + confidence);
+        }
+        if (confidenceBatches < 2) {
+            throw new IllegalArgumentException("At least 2 confidence batches are needed, but got:" + confidenceBatches);
+        }
+        this.confidence = confidence;
+        this.confidenceBatches = confidenceBatches;
+        // the retained half must fill the confidence batches
+        this.minBatches = Math.max(minBatches, 2 * confidenceBatches);
+        this.nextAnalysis = this.minBatches;
+    }
+
+    /**
+     * Adds an observation.
+     *
+     * @param value the observation
+     * @param time  the simulation time of the observation
+     * @return true if the series was analysed again
+     */
+    public boolean add(double value, double time) {
+        partialSum += value;
+        if (++partialCount < MSER_BATCH) {
+            return false;
+        }
+        if (batches == batchMeans.length) {
+            batchMeans = Arrays.copyOf(batchMeans, batches * 2);
+            batchEnds = Arrays.copyOf(batchEnds, batches * 2);
+        }
+        batchMeans[batches] = partialSum / MSER_BATCH;
+        batchEnds[batches] = time;
+        batches++;
+        partialSum = 0;
+        partialCount = 0;
+        if (batches < nextAnalysis) {
+            return false;
+        }
+        analyse();
+        nextAnalysis = Math.max(batches + 1, (int) (batches * 1.05));
+        return true;
+    }
+
+    private void analyse() {
+        int k = batches;
+        // suffix sums, so that the error of every truncation point costs O(1)
+        double sum = 0;
+        double sumSquares = 0;
+        double best = Double.POSITIVE_INFINITY;
+        int bestD = 0;
+        int maxD = k / 2;
+        for (int d = k - 1; d >= 0; d--) {
+            sum += batchMeans[d];
+            sumSquares += batchMeans[d] * batchMeans[d];
+            if (d <= maxD) {
+                int m = k - d;
+                double squares = Math.max(sumSquares - sum * sum / m, 0);
+                double error = squares / ((double) m * m);
+                if (error <= best) {
+                    best = error;
+                    bestD = d;
+                }
+            }
+        }
+        truncatedBatches = bestD;
+        analysedBatches = k;
+        transientOver = bestD < maxD;
+
+        // regroup the retained 5-batches, dropping the oldest ones left over
+        int size = (k - bestD) / confidenceBatches;
+        int start = k - size * confidenceBatches;
+        double[] means = new double[confidenceBatches];
+        double total = 0;
+        for (int b = 0; b < confidenceBatches; b++) {
+            double s = 0;
+            for (int j = start + b * size; j < start + (b + 1) * size; j++) {
+                s += batchMeans[j];
+            }
+            means[b] = s / size;
+            total += means[b];
+        }
+        mean = total / confidenceBatches;
+        double squares = 0;
+        for (double m : means) {
+            squares += (m - mean) * (m - mean);
+        }
+        double sd = Math.sqrt(squares / (confidenceBatches - 1));
+        halfWidth = studentQuantile(0.5 + confidence / 2, confidenceBatches - 1) * sd / Math.sqrt(confidenceBatches);
+    }
+
+    /**
+     * Checks whether the last analysis found the end of the transient and a confidence interval
+     * whose half-width is at most the given fraction of the mean.
+     */
+    public boolean isPrecise(double relativeHalfWidth) {
+        return transientOver && getRelativeHalfWidth() <= relativeHalfWidth;
+    }
+
+    public long getObservations() {
+        return (long) batches * MSER_BATCH + partialCount;
+    }
+
+    public boolean isAnalysed() {
+        return truncatedBatches >= 0;
+    }
+
+    public boolean isTransientOver() {
+        return transientOver;
+    }
+
+    /**
+     * @return the number of observations deleted as warm-up by the last analysis
+     */
+    public long getWarmupObservations() {
+        return isAnalysed() ? (long) truncatedBatches * MSER_BATCH : 0;
+    }
+
+    /**
+     * @return the simulation time at which the warm-up ends, i.e. the time of the last deleted
+     * observation, or NaN if nothing was deleted or the series was not analysed
+     */
+    public double getWarmupEndTime() {
+        return truncatedBatches > 0 ? batchEnds[truncatedBatches - 1] : Double.NaN;
+    }
+
+    /**
+     * @return the number of observations of the last analysis
+     */
+    public long getAnalysedObservations() {
+        return (long) analysedBatches * MSER_BATCH;
+    }
+
+    /**
+     * @return the steady-state mean estimated by the last analysis, or NaN
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    public double getRelativeHalfWidth() {
+        return isAnalysed() ? halfWidth / Math.abs(mean) : Double.NaN;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    /**
+     * Approximates a quantile of the Student t distribution (Cornish-Fisher expansion around the
+     * normal quantile, accurate to about 1e-3 from 5 degrees of freedom).
+     */
+    static double studentQuantile(double p, int degreesOfFreedom) {
+        double z = normalQuantile(p);
+        double n = degreesOfFreedom;
+        double z3 = z * z * z;
+        double z5 = z3 * z * z;
+        double z7 = z5 * z * z;
+        return z + (z3 + z) / (4 * n) + (5 * z5 + 16 * z3 + 3 * z) / (96 * n * n)
+                + (3 * z7 + 19 * z5 + 17 * z3 - 15 * z) / (384 * n * n * n);
+    }
+
+    /**
+     * Approximates a quantile of the standard normal distribution (Abramowitz and Stegun 26.2.23,
+     * error below 4.5e-4).
+     */
+    static double normalQuantile(double p) {
+        double q = p < 0.5 ? p : 1 - p;
+        double t = Math.sqrt(-2 * Math.log(q));
+        double z = t - (2.515517 + 0.802853 * t + 0.010328 * t * t)
+                / (1 + 1.432788 * t + 0.189269 * t * t + 0.001308 * t * t * t);
+        return p < 0.5 ? -z : z;
+    }
+
+    @Override
+    public String toString() {
+        return "observations=" + getObservations() + ", warmup=" + getWarmupObservations()
+                + ", warmupEnd=" + getWarmupEndTime() + ", mean=" + mean + ", halfWidth=" + halfWidth;
+    }
+}